@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.SignatureAlgorithm;
+import com.salesforce.apollo.crypto.Signer.SignerImpl;
+import com.salesforce.apollo.utils.BatchingQueue;
+
+/**
+ * BatchingQueue offer and take, with four producers contending against the
+ * single consumer
+ *
+ * @author hal.hildebrand
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BatchingQueueBenchmark {
+
+    @Param({ "100", "1000" })
+    public int batchSize;
+    @Param({ "64", "1024" })
+    public int txSize;
+
+    private BatchingQueue<Transaction> queue;
+    private Transaction                transaction;
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public boolean offer() {
+        return queue.offer(transaction);
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        if (transaction == null) {
+            var keyPair = SignatureAlgorithm.DEFAULT.generateKeyPair();
+            var source = DigestAlgorithm.DEFAULT.digest(keyPair.getPublic().getEncoded());
+            transaction = Fixtures.transactions(1, txSize, source, new SignerImpl(keyPair.getPrivate())).get(0);
+        }
+        queue = new BatchingQueue<>(Integer.MAX_VALUE, batchSize, Transaction::getSerializedSize,
+                                    batchSize * transaction.getSerializedSize());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public List<Transaction> take() throws InterruptedException {
+        return queue.take(Duration.ZERO);
+    }
+}
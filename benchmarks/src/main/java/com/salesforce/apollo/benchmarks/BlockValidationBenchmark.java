@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.salesfoce.apollo.choam.proto.Certification;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
+import com.salesfoce.apollo.choam.proto.ViewMember;
+import com.salesforce.apollo.choam.Committee;
+import com.salesforce.apollo.choam.Parameters;
+import com.salesforce.apollo.choam.Parameters.RuntimeParameters;
+import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.SignatureAlgorithm;
+import com.salesforce.apollo.crypto.Signer.SignerImpl;
+import com.salesforce.apollo.crypto.Verifier;
+import com.salesforce.apollo.crypto.Verifier.DefaultVerifier;
+import com.salesforce.apollo.membership.Context;
+import com.salesforce.apollo.membership.ContextImpl;
+import com.salesforce.apollo.membership.Member;
+import com.salesforce.apollo.membership.SigningMember;
+import com.salesforce.apollo.membership.impl.SigningMemberImpl;
+
+/**
+ * The hashing and certification validation of received certified blocks, as
+ * performed by the committee before a block is combined
+ *
+ * @author hal.hildebrand
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BlockValidationBenchmark {
+
+    /**
+     * The minimal committee, validating blocks with the committee's default
+     * certification validation
+     */
+    private static class Validating implements Committee {
+        private static final Logger log = LoggerFactory.getLogger(Validating.class);
+
+        private final Parameters            params;
+        private final Map<Member, Verifier> validators;
+
+        private Validating(Parameters params, Map<Member, Verifier> validators) {
+            this.params = params;
+            this.validators = validators;
+        }
+
+        @Override
+        public void accept(HashedCertifiedBlock next) {
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        @Override
+        public boolean isMember() {
+            return false;
+        }
+
+        @Override
+        public ViewMember join(Digest nextView, Digest from) {
+            return ViewMember.getDefaultInstance();
+        }
+
+        @Override
+        public Logger log() {
+            return log;
+        }
+
+        @Override
+        public Parameters params() {
+            return params;
+        }
+
+        @Override
+        public boolean validate(HashedCertifiedBlock hb) {
+            return validate(hb, validators);
+        }
+    }
+
+    @Param({ "10", "100", "1000" })
+    public int txCount;
+    @Param({ "256" })
+    public int txSize;
+    @Param({ "4", "16" })
+    public int validators;
+
+    private CertifiedBlock block;
+    private Committee      committee;
+
+    @Benchmark
+    public HashedCertifiedBlock hash() {
+        return new HashedCertifiedBlock(DigestAlgorithm.DEFAULT, block);
+    }
+
+    @Setup
+    public void setup() {
+        var keyPair = SignatureAlgorithm.DEFAULT.generateKeyPair();
+        var source = DigestAlgorithm.DEFAULT.digest(keyPair.getPublic().getEncoded());
+        var transactions = Fixtures.transactions(txCount, txSize, source, new SignerImpl(keyPair.getPrivate()));
+        var unsigned = Fixtures.chain(1, transactions).get(1).certifiedBlock;
+        var header = unsigned.getBlock().getHeader().toByteString();
+
+        Context<Member> context = new ContextImpl<>(DigestAlgorithm.DEFAULT.getOrigin(), validators, 0.2, 2);
+        var certified = CertifiedBlock.newBuilder(unsigned);
+        var verifiers = new HashMap<Member, Verifier>();
+        for (int i = 0; i < validators; i++) {
+            var validator = SignatureAlgorithm.DEFAULT.generateKeyPair();
+            var member = member(validator);
+            context.activate(member);
+            verifiers.put(member, new DefaultVerifier(validator.getPublic()));
+            certified.addCertifications(Certification.newBuilder()
+                                                     .setId(member.getId().toDigeste())
+                                                     .setSignature(member.sign(header).toSig()));
+        }
+        block = certified.build();
+
+        var params = Parameters.newBuilder()
+                               .setVerificationParallelism(Runtime.getRuntime().availableProcessors())
+                               .build(RuntimeParameters.newBuilder()
+                                                       .setContext(context)
+                                                       .setMember(member(SignatureAlgorithm.DEFAULT.generateKeyPair()))
+                                                       .setExec(ForkJoinPool.commonPool())
+                                                       .build());
+        committee = new Validating(params, verifiers);
+        if (!validate()) {
+            throw new IllegalStateException("Block does not validate");
+        }
+    }
+
+    /**
+     * Hash the block and validate its certifications
+     */
+    @Benchmark
+    public boolean validate() {
+        return committee.validate(new HashedCertifiedBlock(DigestAlgorithm.DEFAULT, block));
+    }
+
+    private SigningMember member(KeyPair keyPair) {
+        var id = DigestAlgorithm.DEFAULT.digest(keyPair.getPublic().getEncoded());
+        return new SigningMemberImpl(id, null, keyPair.getPrivate(), new SignerImpl(keyPair.getPrivate()),
+                                     keyPair.getPublic());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.salesfoce.apollo.choam.proto.Block;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
+import com.salesfoce.apollo.choam.proto.Executions;
+import com.salesfoce.apollo.choam.proto.Genesis;
+import com.salesfoce.apollo.choam.proto.Header;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.Session;
+import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.Signer;
+
+/**
+ * Deterministic fixtures shared by the benchmarks
+ *
+ * @author hal.hildebrand
+ *
+ */
+public final class Fixtures {
+
+    public static final long SEED = 0x1638;
+
+    /**
+     * Answer a chain of count executions blocks, preceded by a genesis block, each
+     * block holding the transactions
+     */
+    public static List<HashedCertifiedBlock> chain(int count, List<Transaction> transactions) {
+        var blocks = new ArrayList<HashedCertifiedBlock>(count + 1);
+        var genesis = new HashedCertifiedBlock(DigestAlgorithm.DEFAULT,
+                                               CertifiedBlock.newBuilder()
+                                                             .setBlock(Block.newBuilder()
+                                                                            .setHeader(Header.newBuilder()
+                                                                                             .setHeight(0)
+                                                                                             .setLastCheckpoint(-1)
+                                                                                             .setLastReconfig(-1))
+                                                                            .setGenesis(Genesis.getDefaultInstance()))
+                                                             .build());
+        blocks.add(genesis);
+        var executions = Executions.newBuilder().addAllExecutions(transactions).build();
+        var last = genesis;
+        for (int i = 0; i < count; i++) {
+            last = new HashedCertifiedBlock(DigestAlgorithm.DEFAULT,
+                                            CertifiedBlock.newBuilder()
+                                                          .setBlock(Block.newBuilder()
+                                                                         .setHeader(header(last, genesis))
+                                                                         .setExecutions(executions))
+                                                          .build());
+            blocks.add(last);
+        }
+        return blocks;
+    }
+
+    /**
+     * Answer the header of the block following the previous block
+     */
+    public static Header header(HashedCertifiedBlock previous, HashedCertifiedBlock genesis) {
+        return Header.newBuilder()
+                     .setLastCheckpoint(genesis.height().longValue())
+                     .setLastCheckpointHash(genesis.hash.toDigeste())
+                     .setLastReconfig(genesis.height().longValue())
+                     .setLastReconfigHash(genesis.hash.toDigeste())
+                     .setHeight(previous.height().add(1).longValue())
+                     .setPrevious(previous.hash.toDigeste())
+                     .build();
+    }
+
+    /**
+     * Answer count signed transactions, with content of the size in bytes
+     */
+    public static List<Transaction> transactions(int count, int size, Digest source, Signer signer) {
+        var entropy = new Random(SEED);
+        var transactions = new ArrayList<Transaction>(count);
+        for (int i = 0; i < count; i++) {
+            var content = new byte[size];
+            entropy.nextBytes(content);
+            transactions.add(Session.transactionOf(source, i, BytesValue.of(ByteString.copyFrom(content)), signer));
+        }
+        return transactions;
+    }
+
+    private Fixtures() {
+    }
+}
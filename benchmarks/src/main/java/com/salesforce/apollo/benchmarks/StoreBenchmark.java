@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.mvstore.MVStore;
+import org.joou.ULong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesforce.apollo.choam.support.BlockCodec;
+import com.salesforce.apollo.choam.support.DurabilityPolicy;
+import com.salesforce.apollo.choam.support.HashedBlock;
+import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
+import com.salesforce.apollo.choam.support.Store;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.SignatureAlgorithm;
+import com.salesforce.apollo.crypto.Signer.SignerImpl;
+import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
+
+/**
+ * Block storage, retrieval and replication from an in memory Store
+ *
+ * @author hal.hildebrand
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class StoreBenchmark {
+
+    @Param({ "0", "33554432" })
+    public long       cacheBytes;
+    @Param({ "NONE", "DEFLATE" })
+    public BlockCodec codec;
+    @Param({ "10", "100" })
+    public int        txCount;
+    @Param({ "256" })
+    public int        txSize;
+
+    private final int                  blockCount = 1_000;
+    private List<HashedCertifiedBlock> chain;
+    private MVStore                    mvStore;
+    private int                        next;
+    private Store                      store;
+
+    @Benchmark
+    public Blocks fetchBlocks() {
+        var replication = Blocks.newBuilder();
+        var bff = new BloomFilter.ULongBloomFilter(Fixtures.SEED, 100, 0.000125);
+        store.fetchBlocks(bff, replication, 100, ULong.valueOf(blockCount), ULong.valueOf(blockCount - 100));
+        return replication.build();
+    }
+
+    @Benchmark
+    public HashedBlock getBlock() {
+        next = next % blockCount + 1;
+        return store.getBlock(ULong.valueOf(next));
+    }
+
+    @Benchmark
+    public void put() {
+        next = next % blockCount + 1;
+        store.put(chain.get(next));
+    }
+
+    @Setup
+    public void setup() {
+        var keyPair = SignatureAlgorithm.DEFAULT.generateKeyPair();
+        var source = DigestAlgorithm.DEFAULT.digest(keyPair.getPublic().getEncoded());
+        var transactions = Fixtures.transactions(txCount, txSize, source, new SignerImpl(keyPair.getPrivate()));
+        chain = Fixtures.chain(blockCount, transactions);
+        mvStore = new MVStore.Builder().open();
+        store = new Store(DigestAlgorithm.DEFAULT, mvStore, DurabilityPolicy.SYNC, cacheBytes, codec, null);
+        chain.forEach(block -> store.put(block));
+    }
+
+    @TearDown
+    public void tearDown() {
+        mvStore.close();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.CHOAM;
+import com.salesforce.apollo.choam.Session;
+import com.salesforce.apollo.choam.support.BatchVerifier;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.SignatureAlgorithm;
+import com.salesforce.apollo.crypto.Signer;
+import com.salesforce.apollo.crypto.Signer.SignerImpl;
+import com.salesforce.apollo.crypto.Verifier;
+import com.salesforce.apollo.crypto.Verifier.DefaultVerifier;
+
+/**
+ * Transaction hashing, signing and signature verification
+ *
+ * @author hal.hildebrand
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TransactionBenchmark {
+
+    @Param({ "100" })
+    public int txCount;
+    @Param({ "64", "1024", "16384" })
+    public int txSize;
+
+    private BatchVerifier     batchVerifier;
+    private BytesValue        content;
+    private Signer            signer;
+    private Digest            source;
+    private Transaction       transaction;
+    private List<Transaction> transactions;
+    private Verifier          verifier;
+
+    @Benchmark
+    public Digest hashOf() {
+        return CHOAM.hashOf(transaction, DigestAlgorithm.DEFAULT);
+    }
+
+    @Setup
+    public void setup() {
+        var keyPair = SignatureAlgorithm.DEFAULT.generateKeyPair();
+        signer = new SignerImpl(keyPair.getPrivate());
+        verifier = new DefaultVerifier(keyPair.getPublic());
+        source = DigestAlgorithm.DEFAULT.digest(keyPair.getPublic().getEncoded());
+        transactions = Fixtures.transactions(txCount, txSize, source, signer);
+        transaction = transactions.get(0);
+        content = BytesValue.of(ByteString.copyFrom(new byte[txSize]));
+        batchVerifier = new BatchVerifier(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public Transaction transactionOf() {
+        return Session.transactionOf(source, 0, content, signer);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return Session.verify(transaction, verifier);
+    }
+
+    /**
+     * Verify the signatures of txCount transactions in parallel
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public BitSet verifyBatch() {
+        return batchVerifier.verify(transactions, tx -> Session.verify(tx, verifier));
+    }
+}
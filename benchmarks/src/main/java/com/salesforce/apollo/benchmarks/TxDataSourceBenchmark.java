@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.benchmarks;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.ByteString;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.support.ExponentialBackoffPolicy;
+import com.salesforce.apollo.choam.support.TxDataSource;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.membership.Member;
+import com.salesforce.apollo.membership.stereotomy.ControlledIdentifierMember;
+import com.salesforce.apollo.stereotomy.StereotomyImpl;
+import com.salesforce.apollo.stereotomy.mem.MemKERL;
+import com.salesforce.apollo.stereotomy.mem.MemKeyStore;
+
+/**
+ * The assembly of unit data from a full batch of buffered transactions
+ *
+ * @author hal.hildebrand
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TxDataSourceBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int txCount;
+    @Param({ "64", "1024" })
+    public int txSize;
+
+    private TxDataSource      dataSource;
+    private Member            member;
+    private List<Transaction> transactions;
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        dataSource = new TxDataSource(member, 2, null, Integer.MAX_VALUE, Duration.ZERO, txCount,
+                                      ExponentialBackoffPolicy.newBuilder().build());
+        for (var tx : transactions) {
+            dataSource.offer(tx);
+        }
+    }
+
+    @Benchmark
+    public ByteString getData() {
+        return dataSource.getData();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        var stereotomy = new StereotomyImpl(new MemKeyStore(), new MemKERL(DigestAlgorithm.DEFAULT), entropy);
+        var identifier = new ControlledIdentifierMember(stereotomy.newIdentifier().get());
+        member = identifier;
+        transactions = Fixtures.transactions(txCount, txSize, identifier.getId(), identifier);
+    }
+}
@@ -13,23 +13,26 @@ import static com.salesforce.apollo.crypto.QualifiedBase64.bs;
 import static com.salesforce.apollo.crypto.QualifiedBase64.digest;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.security.KeyPair;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -42,8 +45,8 @@ import org.slf4j.LoggerFactory;
 
 import com.chiralbehaviors.tron.Fsm;
 import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.Any;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.salesfoce.apollo.choam.proto.Assemble;
@@ -62,12 +65,15 @@ import com.salesfoce.apollo.choam.proto.Join;
 import com.salesfoce.apollo.choam.proto.Reconfigure;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
 import com.salesfoce.apollo.choam.proto.SubmitResult.Result;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Synchronize;
 import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesfoce.apollo.choam.proto.Transactions;
 import com.salesfoce.apollo.choam.proto.ViewMember;
 import com.salesfoce.apollo.messaging.proto.AgedMessageOrBuilder;
 import com.salesfoce.apollo.utils.proto.PubKey;
 import com.salesforce.apollo.archipelago.Router.CommonCommunications;
+import com.salesforce.apollo.choam.Session.BatchService;
 import com.salesforce.apollo.choam.comm.Concierge;
 import com.salesforce.apollo.choam.comm.Submitter;
 import com.salesforce.apollo.choam.comm.Terminal;
@@ -80,12 +86,17 @@ import com.salesforce.apollo.choam.fsm.Combine;
 import com.salesforce.apollo.choam.fsm.Combine.Merchantile;
 import com.salesforce.apollo.choam.support.Bootstrapper;
 import com.salesforce.apollo.choam.support.Bootstrapper.SynchronizedState;
+import com.salesforce.apollo.choam.support.CheckpointBuilder;
 import com.salesforce.apollo.choam.support.CheckpointState;
+import com.salesforce.apollo.choam.support.Conflicts;
 import com.salesforce.apollo.choam.support.HashedBlock;
 import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
 import com.salesforce.apollo.choam.support.HashedCertifiedBlock.NullBlock;
+import com.salesforce.apollo.choam.support.HashedTransaction;
+import com.salesforce.apollo.choam.support.ReorderWindow;
 import com.salesforce.apollo.choam.support.Store;
 import com.salesforce.apollo.choam.support.SubmittedTransaction;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.JohnHancock;
@@ -124,6 +135,14 @@ public class CHOAM {
 
         void publish(CertifiedBlock cb);
 
+        /**
+         * Publish the certified block produced by this member, along with the hashed
+         * transactions of its executions, in block order
+         */
+        default void publish(HashedCertifiedBlock cb, List<HashedTransaction> executions) {
+            publish(cb.certifiedBlock);
+        }
+
         Block reconfigure(Map<Member, Join> joining, Digest nextViewId, HashedBlock previous, HashedBlock checkpoint);
     }
 
@@ -246,6 +265,16 @@ public class CHOAM {
             return CHOAM.this.join(nextView, from);
         }
 
+        @Override
+        public Iterator<CertifiedBlock> streamBlocks(BlockReplication request, Digest from) {
+            return CHOAM.this.streamBlocks(request, from);
+        }
+
+        @Override
+        public Iterator<CertifiedBlock> streamViewChain(BlockReplication request, Digest from) {
+            return CHOAM.this.streamViewChain(request, from);
+        }
+
         @Override
         public Initial sync(Synchronize request, Digest from) {
             return CHOAM.this.sync(request, from);
@@ -257,6 +286,33 @@ public class CHOAM {
         default void beginBlock(ULong height, Digest hash) {
         }
 
+        /**
+         * Answer the read and write sets of the transaction. Transactions of a block
+         * that do not conflict are executed concurrently, in deterministic waves.
+         * Answer null if the conflicts of the transaction cannot be determined, in
+         * which case the transaction is executed in isolation, after all preceding
+         * and before all following transactions of the block. The default executes
+         * every transaction sequentially, in block order.
+         * <p>
+         * An executor that declares conflicts must honor the ordering contract of
+         * the waves:
+         * <ul>
+         * <li>execute(...) may be invoked concurrently for the transactions of a
+         * wave, in any order</li>
+         * <li>the effects of the transactions of a wave on the replicated state
+         * must commute, so that every replica reaches the same state regardless of
+         * the order in which they are applied</li>
+         * <li>execute(...) must apply the effects of the transaction to the
+         * replicated state before returning. A wave is joined when its executions
+         * return, and only then is the next wave, or the next block, executed</li>
+         * <li>the completions of the transactions of a wave may be delivered in any
+         * order</li>
+         * </ul>
+         */
+        default Conflicts conflictsOf(Digest hash, Transaction tx) {
+            return null;
+        }
+
         default void endBlock(ULong height, Digest hash) {
         }
 
@@ -350,10 +406,52 @@ public class CHOAM {
             }
         }
 
+        @Override
+        public CompletableFuture<SubmitResults> submitTxns(List<Transaction> transactions) {
+            Member target = servers.next();
+            var link = submissionComm.connect(target);
+            if (link == null) {
+                log.debug("No link for: {} for submitting txns on: {}", target.getId(), params.member().getId());
+                return Committee.super.submitTxns(transactions);
+            }
+            var submitted = new CompletableFuture<SubmitResults>();
+            ListenableFuture<SubmitResults> futureSailor;
+            try {
+                futureSailor = link.submitBatch(Transactions.newBuilder().addAllTransactions(transactions).build());
+            } catch (Throwable e) {
+                closeSubmission(link);
+                submitted.completeExceptionally(e);
+                return submitted;
+            }
+            futureSailor.addListener(() -> {
+                closeSubmission(link);
+                try {
+                    submitted.complete(futureSailor.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    submitted.completeExceptionally(e);
+                } catch (ExecutionException e) {
+                    log.trace("Failed submitting: {} txns to: {} in: {} on: {}", transactions.size(), target.getId(),
+                              viewId, params.member().getId(), e.getCause());
+                    submitted.completeExceptionally(e.getCause());
+                }
+            }, r -> r.run());
+            return submitted;
+        }
+
         @Override
         public boolean validate(HashedCertifiedBlock hb) {
             return validate(hb, validators);
         }
+
+        private void closeSubmission(TxnSubmission link) {
+            try {
+                link.close();
+            } catch (IOException e) {
+                log.trace("Error closing submission link to: {} on: {}", link.getMember().getId(),
+                          params.member().getId(), e);
+            }
+        }
     }
 
     /** a member of the current committee */
@@ -536,41 +634,32 @@ public class CHOAM {
         public SubmitResult submit(Transaction request, Digest from) {
             return CHOAM.this.submit(request, from);
         }
+
+        @Override
+        public SubmitResults submit(Transactions request, Digest from) {
+            return CHOAM.this.submit(request, from);
+        }
     }
 
     private static final Logger log = LoggerFactory.getLogger(CHOAM.class);
 
     public static Checkpoint checkpoint(DigestAlgorithm algo, File state, int segmentSize) {
-        Digest stateHash = algo.getOrigin();
-        long length = 0;
-        if (state != null) {
-            try (FileInputStream fis = new FileInputStream(state)) {
-                stateHash = algo.digest(fis);
-            } catch (IOException e) {
-                log.error("Invalid checkpoint!", e);
-                return null;
-            }
-            length = state.length();
-        }
-        Checkpoint.Builder builder = Checkpoint.newBuilder()
-                                               .setByteSize(length)
-                                               .setSegmentSize(segmentSize)
-                                               .setStateHash(stateHash.toDigeste());
-        if (state != null) {
-            byte[] buff = new byte[segmentSize];
-            try (FileInputStream fis = new FileInputStream(state)) {
-                for (int read = fis.read(buff); read > 0; read = fis.read(buff)) {
-                    ByteString segment = ByteString.copyFrom(buff, 0, read);
-                    builder.addSegments(algo.digest(segment).toDigeste());
-                }
-            } catch (IOException e) {
-                log.error("Invalid checkpoint!", e);
-                return null;
-            }
+        return checkpoint(algo, state, segmentSize, ForkJoinPool.commonPool(),
+                          Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Checkpoint checkpoint(DigestAlgorithm algo, File state, int segmentSize, Executor executor,
+                                        int parallelism) {
+        Checkpoint checkpoint;
+        try {
+            checkpoint = new CheckpointBuilder(algo, segmentSize, executor, parallelism).build(state);
+        } catch (IOException e) {
+            log.error("Invalid checkpoint!", e);
+            return null;
         }
-        log.info("Checkpoint length: {} segment size: {} count: {} stateHash: {}", length, segmentSize,
-                 builder.getSegmentsCount(), stateHash);
-        return builder.build();
+        log.info("Checkpoint length: {} segment size: {} count: {} stateHash: {}", checkpoint.getByteSize(),
+                 segmentSize, checkpoint.getSegmentsCount(), Digest.from(checkpoint.getStateHash()));
+        return checkpoint;
     }
 
     public static Block genesis(Digest id, Map<Member, Join> joins, HashedBlock head, Context<Member> context,
@@ -586,7 +675,7 @@ public class CHOAM {
     }
 
     public static Digest hashOf(Transaction transaction, DigestAlgorithm digestAlgorithm) {
-        return JohnHancock.from(transaction.getSignature()).toDigest(digestAlgorithm);
+        return HashedTransaction.hash(transaction, digestAlgorithm);
     }
 
     public static String print(Join join, DigestAlgorithm da) {
@@ -654,6 +743,7 @@ public class CHOAM {
 
     private final Map<ULong, CheckpointState>                           cachedCheckpoints     = new ConcurrentHashMap<>();
     private final AtomicReference<HashedCertifiedBlock>                 checkpoint            = new AtomicReference<>();
+    private final AtomicReference<ScheduledFuture<?>>                   flushing              = new AtomicReference<>();
     private final ReliableBroadcaster                                   combine;
     private final CommonCommunications<Terminal, Concierge>             comm;
     private final ThreadPoolExecutor                                    consumer;
@@ -667,7 +757,9 @@ public class CHOAM {
     private final AtomicReference<nextView>                             next                  = new AtomicReference<>();
     private final AtomicReference<Digest>                               nextViewId            = new AtomicReference<>();
     private final Parameters                                            params;
-    private final PriorityBlockingQueue<HashedCertifiedBlock>           pending               = new PriorityBlockingQueue<>();
+    private final ReorderWindow                                         pending;
+    private final Map<Digest, List<HashedTransaction>>                  produced              = new ConcurrentHashMap<>();
+    private final AtomicReference<ULong>                                replay                = new AtomicReference<>();
     private final RoundScheduler                                        roundScheduler;
     private final Session                                               session;
     private final AtomicBoolean                                         started               = new AtomicBoolean();
@@ -678,9 +770,12 @@ public class CHOAM {
     private final AtomicReference<HashedCertifiedBlock>                 view                  = new AtomicReference<>();
 
     public CHOAM(Parameters params) {
-        this.store = new Store(params.digestAlgorithm(), params.mvBuilder().build());
+        final var durability = params.durability();
+        this.store = new Store(params.digestAlgorithm(), params.mvBuilder().build(durability), durability,
+                               params.blockCacheBytes(), params.blockCodec(), params.metrics());
         this.params = params;
         executions = Utils.newVirtualThreadPerTaskExecutor();
+        pending = new ReorderWindow(params.reorderWindow(), params.metrics());
 
         nextView();
         combine = new ReliableBroadcaster(params.context(), params.member(), params.combine(), params.exec(),
@@ -692,13 +787,7 @@ public class CHOAM {
                                                              (m, any) -> any,
                                                              (Function<AgedMessageOrBuilder, Any>) am -> am.getContent()));
         linear = Executors.newSingleThreadExecutor(Utils.virtualThreadFactory("Linear " + params.member().getId()));
-        combine.registerHandler((ctx, messages) -> {
-            try {
-                linear.execute(() -> combine(messages));
-            } catch (RejectedExecutionException e) {
-                // ignore
-            }
-        });
+        combine.registerHandler((ctx, messages) -> combine(messages));
         head.set(new NullBlock(params.digestAlgorithm()));
         view.set(new NullBlock(params.digestAlgorithm()));
         checkpoint.set(new NullBlock(params.digestAlgorithm()));
@@ -722,7 +811,7 @@ public class CHOAM {
         roundScheduler = new RoundScheduler("CHOAM" + params.member().getId() + params.context().getId(),
                                             params.context().timeToLive());
         combine.register(i -> roundScheduler.tick());
-        session = new Session(params, service());
+        session = new Session(params, service(), batchService());
         consumer = Ethereal.consumer("CHOAM" + params.member().getId() + params.context().getId());
     }
 
@@ -781,6 +870,12 @@ public class CHOAM {
         }
         log.info("CHOAM startup, majority: {} on: {}", params.majority(), params.member().getId());
         combine.start(params.producer().gossipDuration(), params.scheduler());
+        final var interval = params.durability().interval();
+        if (interval != null) {
+            flushing.set(params.scheduler()
+                               .scheduleWithFixedDelay(() -> store.flush(), interval.toMillis(), interval.toMillis(),
+                                                       TimeUnit.MILLISECONDS));
+        }
         transitions.fsm().enterStartState();
         transitions.start();
     }
@@ -789,9 +884,15 @@ public class CHOAM {
         if (!started.compareAndSet(true, false)) {
             return;
         }
+        session.stop();
         session.cancelAll();
         linear.shutdown();
         executions.shutdown();
+        final var f = flushing.getAndSet(null);
+        if (f != null) {
+            f.cancel(false);
+        }
+        store.flush();
         final var c = current.get();
         if (c != null) {
             c.complete();
@@ -805,6 +906,12 @@ public class CHOAM {
         c.accept(next);
         log.info("Accepted block: {} height: {} body: {} on: {}", next.hash, next.height(), next.block.getBodyCase(),
                  params.member().getId());
+        final var metrics = params.metrics();
+        if (metrics != null && next.block.hasExecutions()) {
+            for (var txn : next.block.getExecutions().getExecutionsList()) {
+                metrics.traced(Stage.CERTIFIED, txn, params.digestAlgorithm());
+            }
+        }
     }
 
     private void cancelBootstrap() {
@@ -851,6 +958,7 @@ public class CHOAM {
 
     private Block checkpoint() {
         transitions.beginCheckpoint();
+        store.flush();
         HashedBlock lb = head.get();
         File state = params.checkpointer().apply(lb.height());
         if (state == null) {
@@ -882,55 +990,104 @@ public class CHOAM {
     }
 
     private void combine() {
-        var next = pending.peek();
+        var next = pending.first();
+        if (next == null && replayNext()) {
+            next = pending.first();
+        }
         log.trace("Attempting to combine blocks, peek: {} height: {}, head: {} height: {} on: {}",
-                  next == null ? "<null>" : next.hash, next == null ? "-1" : next.height(), head.get().hash,
+                  next == null ? "<null>" : next.block.hash, next == null ? "-1" : next.height(), head.get().hash,
                   head.get().height(), params.member().getId());
         while (next != null) {
             final HashedCertifiedBlock h = head.get();
             if (h.height() != null && next.height().compareTo(h.height()) <= 0) {
-                pending.poll();
-            } else if (isNext(next)) {
-                if (current.get().validate(next)) {
-                    HashedCertifiedBlock nextBlock = pending.poll();
-                    if (nextBlock == null) {
-                        return;
-                    }
-                    accept(nextBlock);
+                pending.prune(h.height());
+            } else if (isNext(next.block)) {
+                if (!pending.remove(next)) {
+                    return;
+                }
+                if (validate(next)) {
+                    accept(next.block);
                 } else {
-                    log.debug("Unable to validate block: {} height: {} on: {}", next.hash, next.height(),
+                    log.debug("Unable to validate block: {} height: {} on: {}", next.block.hash, next.height(),
                               params.member().getId());
-                    pending.poll();
                 }
-            } else {
-                log.trace("Premature block: {} height: {} current: {} on: {}", next.hash, next.height(), h.height(),
-                          params.member().getId());
+            } else if (h.height() != null && next.height().equals(h.height().add(1))) {
+                log.debug("Discarding block: {} height: {} not extending head: {} on: {}", next.block.hash,
+                          next.height(), h.hash, params.member().getId());
+                pending.remove(next);
+            } else if (!replayNext()) {
+                log.trace("Premature block: {} height: {} current: {} on: {}", next.block.hash, next.height(),
+                          h.height(), params.member().getId());
                 return;
             }
-            next = pending.peek();
+            next = pending.first();
+            if (next == null && replayNext()) {
+                next = pending.first();
+            }
         }
 
         log.trace("Finished combined, head: {} height: {} on: {}", head.get().hash, head.get().height(),
                   params.member().getId());
     }
 
+    /**
+     * Hash and admit the received blocks in parallel, then validate the admitted
+     * blocks in parallel against the committee current on the linear thread, and
+     * finally combine the blocks in order on the linear thread
+     */
     private void combine(List<Msg> messages) {
-        messages.forEach(m -> combine(m));
-        transitions.combine();
+        var admissions = new ArrayList<CompletableFuture<ReorderWindow.Entry>>(messages.size());
+        try {
+            for (var m : messages) {
+                admissions.add(CompletableFuture.supplyAsync(() -> combine(m), params.exec()));
+            }
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        CompletableFuture.allOf(admissions.toArray(new CompletableFuture<?>[admissions.size()]))
+                         .whenComplete((v, t) -> {
+                             if (t != null) {
+                                 log.error("Error admitting blocks on: {}", params.member().getId(), t);
+                             }
+                             final var admitted = admissions.stream()
+                                                            .filter(f -> !f.isCompletedExceptionally())
+                                                            .map(f -> f.join())
+                                                            .filter(e -> e != null)
+                                                            .toList();
+                             try {
+                                 linear.execute(() -> validateAhead(admitted));
+                             } catch (RejectedExecutionException e) {
+                                 // ignore
+                             }
+                         });
     }
 
-    private void combine(Msg m) {
+    /**
+     * Admit the received block to the reorder window
+     *
+     * @return the admitted entry, or null if the block was not admitted
+     */
+    private ReorderWindow.Entry combine(Msg m) {
         CertifiedBlock block;
         try {
             block = m.content().unpack(CertifiedBlock.class);
         } catch (InvalidProtocolBufferException e) {
             log.debug("unable to parse block content from {} on: {}", m.source(), params.member().getId());
-            return;
+            return null;
         }
         HashedCertifiedBlock hcb = new HashedCertifiedBlock(params.digestAlgorithm(), block);
         log.trace("Received block: {} height: {} from {} on: {}", hcb.hash, hcb.height(), m.source(),
                   params.member().getId());
-        pending.add(hcb);
+        final var h = head.get().height();
+        if (h != null && hcb.height().compareTo(h) <= 0) {
+            return null;
+        }
+        final var entry = pending.offer(hcb);
+        if (entry == null && pending.isFull()) {
+            log.debug("Reorder window full, rejected block: {} height: {} head: {} on: {}", hcb.hash, hcb.height(),
+                      h, params.member().getId());
+        }
+        return entry;
     }
 
     private BlockProducer constructBlock() {
@@ -976,6 +1133,14 @@ public class CHOAM {
                           params.member().getId());
             }
 
+            @Override
+            public void publish(HashedCertifiedBlock cb, List<HashedTransaction> executions) {
+                if (!executions.isEmpty()) {
+                    produced.put(cb.hash, executions);
+                }
+                publish(cb.certifiedBlock);
+            }
+
             @Override
             public Block reconfigure(Map<Member, Join> joining, Digest nextViewId, HashedBlock previous,
                                      HashedBlock checkpoint) {
@@ -985,23 +1150,58 @@ public class CHOAM {
         };
     }
 
+    /**
+     * Defer the synchronized block to the reorder window. Synchronized blocks are
+     * replayed from the store, so a block rejected by a full window is not lost:
+     * the lowest rejected height is recorded, and the blocks from that height are
+     * replayed from the store when combining reaches them
+     */
+    private void defer(HashedCertifiedBlock hcb) {
+        if (pending.offer(hcb) == null && pending.isFull()) {
+            final var height = hcb.height();
+            replay.accumulateAndGet(height, (prev, h) -> prev == null || h.compareTo(prev) < 0 ? h : prev);
+            log.debug("Reorder window full, replaying from store: {} height: {} on: {}", hcb.hash, height,
+                      params.member().getId());
+        }
+    }
+
     private void execute(List<Transaction> execs) {
         final var h = head.get();
         log.info("Executing transactions for block: {} height: {} txns: {} on: {}", h.hash, h.height(), execs.size(),
                  params.member().getId());
-        for (int i = 0; i < execs.size(); i++) {
-            var exec = execs.get(i);
-            final var index = i;
-            Digest hash = hashOf(exec, params.digestAlgorithm());
-            var stxn = session.complete(hash);
-            try {
-                params.processor()
-                      .execute(index, CHOAM.hashOf(exec, params.digestAlgorithm()), exec,
-                               stxn == null ? null : stxn.onCompletion(), executions);
-            } catch (Throwable t) {
-                log.error("Exception processing transaction: {} block: {} height: {} on: {}", hash, h.hash, h.height(),
-                          params.member().getId());
-            }
+        // The transactions of blocks produced by this member were hashed when
+        // produced
+        final var cached = produced.remove(h.hash);
+        final var algo = params.digestAlgorithm();
+        final var hashed = cached != null && cached.size() == execs.size() ? cached : HashedTransaction.of(execs, algo);
+        var conflicts = new ArrayList<Conflicts>(hashed.size());
+        for (var htx : hashed) {
+            traced(Stage.EXECUTING, htx);
+            conflicts.add(params.processor().conflictsOf(htx.hash, htx.transaction));
+        }
+        final var waves = Conflicts.waves(conflicts);
+        if (waves.size() < hashed.size()) {
+            log.trace("Executing: {} txns in: {} waves for block: {} height: {} on: {}", hashed.size(), waves.size(),
+                      h.hash, h.height(), params.member().getId());
+        }
+        try {
+            Conflicts.execute(waves, index -> execute(index, hashed.get(index), h), executions);
+        } catch (Throwable t) {
+            log.error("Unable to execute block: {} height: {} on: {}", h.hash, h.height(), params.member().getId(),
+                      t);
+            transitions.fail();
+        }
+    }
+
+    private void execute(int index, HashedTransaction htx, HashedCertifiedBlock h) {
+        var stxn = session.complete(htx.hash);
+        try {
+            params.processor()
+                  .execute(index, htx.hash, htx.transaction, stxn == null ? null : stxn.onCompletion(), executions);
+            traced(Stage.EXECUTED, htx);
+        } catch (Throwable t) {
+            log.error("Exception processing transaction: {} block: {} height: {} on: {}", htx.hash, h.hash,
+                      h.height(), params.member().getId());
         }
     }
 
@@ -1018,9 +1218,11 @@ public class CHOAM {
         }
         CheckpointSegments.Builder replication = CheckpointSegments.newBuilder();
 
-        return replication.addAllSegments(state.fetchSegments(BloomFilter.from(request.getCheckpointSegments()),
-                                                              params.maxCheckpointSegments()))
-                          .build();
+        BloomFilter<Integer> bff = BloomFilter.from(request.getCheckpointSegments());
+        var segments = request.getTo() > request.getFrom() ? state.fetchSegments(bff, params.maxCheckpointSegments(),
+                                                                                 request.getFrom(), request.getTo())
+                                                           : state.fetchSegments(bff, params.maxCheckpointSegments());
+        return replication.addAllSegments(segments).build();
     }
 
     private Blocks fetchBlocks(BlockReplication rep, Digest from) {
@@ -1031,7 +1233,8 @@ public class CHOAM {
         }
         BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
         Blocks.Builder blocks = Blocks.newBuilder();
-        store.fetchBlocks(bff, blocks, 5, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()));
+        store.fetchBlocks(bff, blocks, params.bootstrap().maxSyncBlocks(), ULong.valueOf(rep.getFrom()),
+                          ULong.valueOf(rep.getTo()));
         return blocks.build();
     }
 
@@ -1043,7 +1246,8 @@ public class CHOAM {
         }
         BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
         Blocks.Builder blocks = Blocks.newBuilder();
-        store.fetchViewChain(bff, blocks, 1, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()));
+        store.fetchViewChain(bff, blocks, params.bootstrap().maxViewBlocks(), ULong.valueOf(rep.getFrom()),
+                             ULong.valueOf(rep.getTo()));
         return blocks.build();
     }
 
@@ -1145,6 +1349,7 @@ public class CHOAM {
 
     private void reconfigure(Reconfigure reconfigure) {
         nextViewId.set(null);
+        produced.clear();
         final Committee c = current.get();
         c.complete();
         var validators = validatorsOf(reconfigure, params.context());
@@ -1186,6 +1391,28 @@ public class CHOAM {
         }));
     }
 
+    /**
+     * Offer the next block to extend the head from the store, if synchronized
+     * blocks rejected by the full reorder window remain to be replayed
+     *
+     * @return true if a block was offered
+     */
+    private boolean replayNext() {
+        final var from = replay.get();
+        final var h = head.get().height();
+        if (from == null || h == null || h.add(1).compareTo(from) < 0) {
+            return false;
+        }
+        final var cb = store.getCertifiedBlock(h.add(1));
+        // Each height is replayed once, replay ends if the block does not extend the
+        // head
+        if (cb == null || !replay.compareAndSet(from, h.add(2))) {
+            replay.compareAndSet(from, null);
+            return false;
+        }
+        return pending.offer(new HashedCertifiedBlock(params.digestAlgorithm(), cb)) != null;
+    }
+
     private void restore() throws IllegalStateException {
         HashedCertifiedBlock lastBlock = store.getLastBlock();
         if (lastBlock == null) {
@@ -1224,6 +1451,20 @@ public class CHOAM {
         restore();
     }
 
+    private BatchService batchService() {
+        return batch -> {
+            final var c = current.get();
+            final var transactions = batch.stream().map(stx -> stx.transaction()).toList();
+            if (c == null) {
+                var noCommittee = SubmitResult.newBuilder().setResult(Result.NO_COMMITTEE).build();
+                var results = SubmitResults.newBuilder();
+                transactions.forEach(tx -> results.addResults(noCommittee));
+                return CompletableFuture.completedFuture(results.build());
+            }
+            return c.submitTxns(transactions);
+        };
+    }
+
     private Function<SubmittedTransaction, SubmitResult> service() {
         return stx -> {
 //            log.trace("Submitting transaction: {} in service() on: {}", stx.hash(), params.member());
@@ -1277,6 +1518,52 @@ public class CHOAM {
         return c.submit(request);
     }
 
+    /**
+     * Submit a batch of transactions from a client
+     */
+    private SubmitResults submit(Transactions request, Digest from) {
+        var results = SubmitResults.newBuilder();
+        if (from == null) {
+            return results.build();
+        }
+        if (params.context().getMember(from) == null) {
+            log.debug("Invalid transaction batch submission from non member: {} on: {}", from,
+                      params.member().getId());
+            var invalid = SubmitResult.newBuilder().setResult(Result.INVALID_SUBMIT).build();
+            request.getTransactionsList().forEach(tx -> results.addResults(invalid));
+            return results.build();
+        }
+        final var c = current.get();
+        if (c == null) {
+            log.debug("No committee to submit txns from: {} on: {}", from, params.member().getId());
+            var noCommittee = SubmitResult.newBuilder().setResult(Result.NO_COMMITTEE).build();
+            request.getTransactionsList().forEach(tx -> results.addResults(noCommittee));
+            return results.build();
+        }
+        request.getTransactionsList().forEach(tx -> results.addResults(c.submit(tx)));
+        return results.build();
+    }
+
+    private Iterator<CertifiedBlock> streamBlocks(BlockReplication rep, Digest from) {
+        Member member = params.context().getMember(from);
+        if (member == null) {
+            log.warn("Received streamBlocks from non member: {} on: {}", from, params.member().getId());
+            return Collections.emptyIterator();
+        }
+        BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
+        return store.streamBlocks(bff, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()));
+    }
+
+    private Iterator<CertifiedBlock> streamViewChain(BlockReplication rep, Digest from) {
+        Member member = params.context().getMember(from);
+        if (member == null) {
+            log.warn("Received streamViewChain from non member: {} on: {}", from, params.member().getId());
+            return Collections.emptyIterator();
+        }
+        BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
+        return store.streamViewChain(bff, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()));
+    }
+
     private Initial sync(Synchronize request, Digest from) {
         if (from == null) {
             return Initial.getDefaultInstance();
@@ -1366,7 +1653,7 @@ public class CHOAM {
             ULong prevHeight = previousBlock.height();
             if (prevHeight == null) {
                 if (!hcb.height().equals(ULong.valueOf(0))) {
-                    pending.add(hcb);
+                    defer(hcb);
                     log.debug("Deferring block on {}.  Block: {} height should be {} and block height is {}",
                               params.member().getId(), hcb.hash, 0, header.getHeight());
                     return;
@@ -1378,7 +1665,7 @@ public class CHOAM {
                     return;
                 }
                 if (!hcb.height().equals(prevHeight.add(1))) {
-                    pending.add(hcb);
+                    defer(hcb);
                     log.debug("Deferring block on {}.  Block: {} height should be {} and block height is {}",
                               params.member().getId(), hcb.hash, previousBlock.height().add(1), header.getHeight());
                     return;
@@ -1396,7 +1683,7 @@ public class CHOAM {
             }
         } else {
             if (!block.hasGenesis()) {
-                pending.add(hcb);
+                defer(hcb);
                 log.info("Deferring block on {}.  Block: {} height should be {} and block height is {}",
                          params.member().getId(), hcb.hash, 0, header.getHeight());
                 return;
@@ -1407,6 +1694,57 @@ public class CHOAM {
                 return;
             }
         }
-        pending.add(hcb);
+        defer(hcb);
+    }
+
+    private void traced(Stage stage, HashedTransaction htx) {
+        final var metrics = params.metrics();
+        if (metrics != null && metrics.sampled(htx.transaction)) {
+            metrics.traced(stage, htx.hash);
+        }
+    }
+
+    /**
+     * Answer the validation of the block by the current committee, reusing the
+     * verdict computed ahead if the committee is unchanged
+     */
+    private boolean validate(ReorderWindow.Entry entry) {
+        final var c = current.get();
+        final var verdict = entry.validatedBy(c);
+        return verdict != null ? verdict : c.validate(entry.block);
+    }
+
+    /**
+     * Validate the admitted blocks ahead, in parallel, then combine. The committee
+     * is read on the linear thread, and the verdicts are used only if the
+     * committee is unchanged when the blocks are combined
+     */
+    private void validateAhead(List<ReorderWindow.Entry> admitted) {
+        final var c = current.get();
+        if (c == null || admitted.isEmpty()) {
+            transitions.combine();
+            return;
+        }
+        var validations = new ArrayList<CompletableFuture<Void>>(admitted.size());
+        try {
+            for (var entry : admitted) {
+                validations.add(CompletableFuture.runAsync(() -> entry.validated(c, c.validate(entry.block)),
+                                                           params.exec()));
+            }
+        } catch (RejectedExecutionException e) {
+            transitions.combine();
+            return;
+        }
+        CompletableFuture.allOf(validations.toArray(new CompletableFuture<?>[validations.size()]))
+                         .whenComplete((v, t) -> {
+                             if (t != null) {
+                                 log.error("Error validating blocks on: {}", params.member().getId(), t);
+                             }
+                             try {
+                                 linear.execute(() -> transitions.combine());
+                             } catch (RejectedExecutionException e) {
+                                 // ignore
+                             }
+                         });
     }
 }
@@ -9,8 +9,10 @@ package com.salesforce.apollo.choam;
 import static com.salesforce.apollo.crypto.QualifiedBase64.publicKey;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -19,6 +21,7 @@ import com.salesfoce.apollo.choam.proto.Certification;
 import com.salesfoce.apollo.choam.proto.Reconfigure;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
 import com.salesfoce.apollo.choam.proto.SubmitResult.Result;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
 import com.salesfoce.apollo.choam.proto.ViewMember;
 import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
@@ -99,6 +102,15 @@ public interface Committee {
         return SubmitResult.newBuilder().setResult(Result.UNAVAILABLE).build();
     }
 
+    default CompletableFuture<SubmitResults> submitTxns(List<Transaction> transactions) {
+        log().debug("Cannot process txns, inactive committee: {} on: {}", getClass().getSimpleName(),
+                    params().member().getId());
+        var unavailable = SubmitResult.newBuilder().setResult(Result.UNAVAILABLE).build();
+        var results = SubmitResults.newBuilder();
+        transactions.forEach(tx -> results.addResults(unavailable));
+        return CompletableFuture.completedFuture(results.build());
+    }
+
     boolean validate(HashedCertifiedBlock hb);
 
     default boolean validate(HashedCertifiedBlock hb, Certification c, Map<Member, Verifier> validators) {
@@ -134,15 +146,15 @@ public interface Committee {
         log().trace("Validating block: {} height: {} certs: {} on: {}", hb.hash, hb.height(),
                     hb.certifiedBlock.getCertificationsList().stream().map(c -> new Digest(c.getId())).toList(),
                     params.member().getId());
-        int valid = 0;
-        for (var w : hb.certifiedBlock.getCertificationsList()) {
-            if (!validate(hb, w, validators)) {
+        var certifications = hb.certifiedBlock.getCertificationsList();
+        var verified = params.verifier().verify(certifications, c -> validate(hb, c, validators));
+        for (int i = 0; i < certifications.size(); i++) {
+            if (!verified.get(i)) {
                 log().debug("Failed to validate: {} height: {} by: {} on: {}}", hb.hash, hb.height(),
-                            new Digest(w.getId()), params.member().getId());
-            } else {
-                valid++;
+                            new Digest(certifications.get(i).getId()), params.member().getId());
             }
         }
+        int valid = verified.cardinality();
         final int toleranceLevel = params.majority();
         log().trace("Validate: {} height: {} count: {} needed: {} on: {}}", hb.hash, hb.height(), valid, toleranceLevel,
                     params.member().getId());
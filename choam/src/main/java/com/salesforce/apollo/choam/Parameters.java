@@ -34,10 +34,15 @@ import com.salesfoce.apollo.choam.proto.Transaction;
 import com.salesfoce.apollo.stereotomy.event.proto.KERL_;
 import com.salesforce.apollo.archipelago.Router;
 import com.salesforce.apollo.choam.CHOAM.TransactionExecutor;
+import com.salesforce.apollo.choam.support.AdaptiveBatchPolicy;
+import com.salesforce.apollo.choam.support.BatchVerifier;
+import com.salesforce.apollo.choam.support.BlockCodec;
 import com.salesforce.apollo.choam.support.CheckpointState;
 import com.salesforce.apollo.choam.support.ChoamMetrics;
+import com.salesforce.apollo.choam.support.DurabilityPolicy;
 import com.salesforce.apollo.choam.support.ExponentialBackoffPolicy;
 import com.salesforce.apollo.choam.support.HashedBlock;
+import com.salesforce.apollo.choam.support.Store;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.SignatureAlgorithm;
@@ -58,7 +63,10 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
                          Parameters.BootstrapParameters bootstrap, Parameters.ProducerParameters producer,
                          Parameters.MvStoreBuilder mvBuilder, Parameters.LimiterBuilder txnLimiterBuilder,
                          ExponentialBackoffPolicy.Builder submitPolicy, int checkpointSegmentSize,
-                         ExponentialBackoffPolicy.Builder drainPolicy) {
+                         ExponentialBackoffPolicy.Builder drainPolicy, int verificationParallelism,
+                         DurabilityPolicy durability, int submitBatchSize, Duration submitBatchInterval,
+                         long blockCacheBytes, BlockCodec blockCodec, int reorderWindow,
+                         BatchVerifier verifier) {
 
     public int majority() {
         return runtime.context.majority();
@@ -79,12 +87,28 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
         private boolean recoveryMode         = false;
 
         public MVStore build() {
-            return build(null);
+            return build(null, true);
         }
 
         public MVStore build(char[] encryptionKey) {
+            return build(encryptionKey, true);
+        }
+
+        /**
+         * Build the store of the durability policy. Unless the policy is SYNC, the
+         * policy alone determines when blocks are committed, and auto commit is
+         * disabled
+         */
+        public MVStore build(DurabilityPolicy durability) {
+            return build(null, durability.sync());
+        }
+
+        private MVStore build(char[] encryptionKey, boolean autoCommit) {
             var builder = new MVStore.Builder();
-            if (autoCommitBufferSize > 0) {
+            if (!autoCommit) {
+                builder.autoCommitDisabled();
+                builder.autoCommitBufferSize(0);
+            } else if (autoCommitBufferSize > 0) {
                 builder.autoCommitBufferSize(autoCommitBufferSize);
             }
             if (autoCompactFillRate > 0) {
@@ -405,18 +429,26 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
         }
     }
 
-    public record BootstrapParameters(Duration gossipDuration, int maxViewBlocks, int maxSyncBlocks) {
+    public record BootstrapParameters(Duration gossipDuration, int maxViewBlocks, int maxSyncBlocks,
+                                      int streamingPeers, double falsePositiveRate) {
 
         public static Builder newBuilder() {
             return new Builder();
         }
         public static class Builder {
-            private Duration gossipDuration = Duration.ofSeconds(1);
-            private int      maxSyncBlocks  = 100;
-            private int      maxViewBlocks  = 100;
+            private double   falsePositiveRate = 0.00125;
+            private Duration gossipDuration    = Duration.ofSeconds(1);
+            private int      maxSyncBlocks     = 100;
+            private int      maxViewBlocks     = 100;
+            private int      streamingPeers    = 3;
 
             public BootstrapParameters build() {
-                return new BootstrapParameters(gossipDuration, maxViewBlocks, maxSyncBlocks);
+                return new BootstrapParameters(gossipDuration, maxViewBlocks, maxSyncBlocks, streamingPeers,
+                                               falsePositiveRate);
+            }
+
+            public double getFalsePositiveRate() {
+                return falsePositiveRate;
             }
 
             public Duration getGossipDuration() {
@@ -431,6 +463,15 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
                 return maxViewBlocks;
             }
 
+            public int getStreamingPeers() {
+                return streamingPeers;
+            }
+
+            public Builder setFalsePositiveRate(double falsePositiveRate) {
+                this.falsePositiveRate = falsePositiveRate;
+                return this;
+            }
+
             public Builder setGossipDuration(Duration gossipDuration) {
                 this.gossipDuration = gossipDuration;
                 return this;
@@ -445,27 +486,49 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
                 this.maxViewBlocks = maxViewBlocks;
                 return this;
             }
+
+            public Builder setStreamingPeers(int streamingPeers) {
+                this.streamingPeers = streamingPeers;
+                return this;
+            }
         }
     }
 
     public record ProducerParameters(Config.Builder ethereal, Duration gossipDuration, int maxBatchByteSize,
-                                     Duration batchInterval, int maxBatchCount, Duration maxGossipDelay) {
+                                     Duration batchInterval, int maxBatchCount, Duration maxGossipDelay,
+                                     boolean adaptiveBatching, Duration minBatchInterval, int minBatchByteSize,
+                                     int pushFanout) {
+
+        /**
+         * The adaptive batch policy bounded by these parameters, or null if
+         * adaptive batching is disabled
+         */
+        public AdaptiveBatchPolicy batchPolicy() {
+            return adaptiveBatching ? new AdaptiveBatchPolicy(minBatchInterval, batchInterval, minBatchByteSize,
+                                                              maxBatchByteSize)
+                                    : null;
+        }
 
         public static Builder newBuilder() {
             return new Builder();
         }
 
         public static class Builder {
+            private boolean        adaptiveBatching = false;
             private Duration       batchInterval    = Duration.ofMillis(100);
             private Config.Builder ethereal         = Config.newBuilder();
             private Duration       gossipDuration   = Duration.ofSeconds(1);
             private int            maxBatchByteSize = 2 * 1024 * 1024;
             private int            maxBatchCount    = 10_000;
             private Duration       maxGossipDelay   = Duration.ofSeconds(10);
+            private int            minBatchByteSize = 64 * 1024;
+            private Duration       minBatchInterval = Duration.ofMillis(5);
+            private int            pushFanout       = 2;
 
             public ProducerParameters build() {
                 return new ProducerParameters(ethereal, gossipDuration, maxBatchByteSize, batchInterval, maxBatchCount,
-                                              maxGossipDelay);
+                                              maxGossipDelay, adaptiveBatching, minBatchInterval, minBatchByteSize,
+                                              pushFanout);
             }
 
             public Duration getBatchInterval() {
@@ -492,6 +555,27 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
                 return maxGossipDelay;
             }
 
+            public int getMinBatchByteSize() {
+                return minBatchByteSize;
+            }
+
+            public Duration getMinBatchInterval() {
+                return minBatchInterval;
+            }
+
+            public int getPushFanout() {
+                return pushFanout;
+            }
+
+            public boolean isAdaptiveBatching() {
+                return adaptiveBatching;
+            }
+
+            public Builder setAdaptiveBatching(boolean adaptiveBatching) {
+                this.adaptiveBatching = adaptiveBatching;
+                return this;
+            }
+
             public Builder setBatchInterval(Duration batchInterval) {
                 this.batchInterval = batchInterval;
                 return this;
@@ -521,6 +605,21 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
                 this.maxGossipDelay = maxGossipDelay;
                 return this;
             }
+
+            public Builder setMinBatchByteSize(int minBatchByteSize) {
+                this.minBatchByteSize = minBatchByteSize;
+                return this;
+            }
+
+            public Builder setMinBatchInterval(Duration minBatchInterval) {
+                this.minBatchInterval = minBatchInterval;
+                return this;
+            }
+
+            public Builder setPushFanout(int pushFanout) {
+                this.pushFanout = pushFanout;
+                return this;
+            }
         }
     }
 
@@ -621,38 +720,47 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
 
     public static class Builder implements Cloneable {
 
-        private BootstrapParameters              bootstrap             = BootstrapParameters.newBuilder().build();
-        private int                              checkpointBlockDelta  = 10;
-        private int                              checkpointSegmentSize = 8192;
-        private ReliableBroadcaster.Parameters   combine               = ReliableBroadcaster.Parameters.newBuilder()
-                                                                                                       .build();
-        private DigestAlgorithm                  digestAlgorithm       = DigestAlgorithm.DEFAULT;
-        private ExponentialBackoffPolicy.Builder drainPolicy           = ExponentialBackoffPolicy.newBuilder()
-                                                                                                 .setInitialBackoff(Duration.ofMillis(5))
-                                                                                                 .setJitter(0.2)
-                                                                                                 .setMultiplier(1.2)
-                                                                                                 .setMaxBackoff(Duration.ofMillis(500));
+        private long                             blockCacheBytes         = Store.DEFAULT_CACHE_BYTES;
+        private BlockCodec                       blockCodec              = BlockCodec.NONE;
+        private BootstrapParameters              bootstrap               = BootstrapParameters.newBuilder().build();
+        private int                              checkpointBlockDelta    = 10;
+        private int                              checkpointSegmentSize   = 8192;
+        private ReliableBroadcaster.Parameters   combine                 = ReliableBroadcaster.Parameters.newBuilder()
+                                                                                                         .build();
+        private DigestAlgorithm                  digestAlgorithm         = DigestAlgorithm.DEFAULT;
+        private ExponentialBackoffPolicy.Builder drainPolicy             = ExponentialBackoffPolicy.newBuilder()
+                                                                                                   .setInitialBackoff(Duration.ofMillis(5))
+                                                                                                   .setJitter(0.2)
+                                                                                                   .setMultiplier(1.2)
+                                                                                                   .setMaxBackoff(Duration.ofMillis(500));
+        private DurabilityPolicy                 durability              = DurabilityPolicy.SYNC;
         private Digest                           genesisViewId;
-        private Duration                         gossipDuration        = Duration.ofSeconds(1);
-        private int                              maxCheckpointSegments = 200;
-        private MvStoreBuilder                   mvBuilder             = new MvStoreBuilder();
-        private ProducerParameters               producer              = ProducerParameters.newBuilder().build();
-        private int                              regenerationCycles    = 20;
-        private ExponentialBackoffPolicy.Builder submitPolicy          = ExponentialBackoffPolicy.newBuilder()
-                                                                                                 .setInitialBackoff(Duration.ofMillis(10))
-                                                                                                 .setJitter(0.2)
-                                                                                                 .setMultiplier(1.6)
-                                                                                                 .setMaxBackoff(Duration.ofMillis(500));
-        private Duration                         submitTimeout         = Duration.ofSeconds(30);
-        private int                              synchronizationCycles = 10;
-        private LimiterBuilder                   txnLimiterBuilder     = new LimiterBuilder();
-        private SignatureAlgorithm               viewSigAlgorithm      = SignatureAlgorithm.DEFAULT;
+        private Duration                         gossipDuration          = Duration.ofSeconds(1);
+        private int                              maxCheckpointSegments   = 200;
+        private MvStoreBuilder                   mvBuilder               = new MvStoreBuilder();
+        private ProducerParameters               producer                = ProducerParameters.newBuilder().build();
+        private int                              regenerationCycles      = 20;
+        private int                              reorderWindow           = 1_000;
+        private Duration                         submitBatchInterval     = Duration.ofMillis(5);
+        private int                              submitBatchSize         = 100;
+        private ExponentialBackoffPolicy.Builder submitPolicy            = ExponentialBackoffPolicy.newBuilder()
+                                                                                                   .setInitialBackoff(Duration.ofMillis(10))
+                                                                                                   .setJitter(0.2)
+                                                                                                   .setMultiplier(1.6)
+                                                                                                   .setMaxBackoff(Duration.ofMillis(500));
+        private Duration                         submitTimeout           = Duration.ofSeconds(30);
+        private int                              synchronizationCycles   = 10;
+        private LimiterBuilder                   txnLimiterBuilder       = new LimiterBuilder();
+        private int                              verificationParallelism = Runtime.getRuntime().availableProcessors();
+        private SignatureAlgorithm               viewSigAlgorithm        = SignatureAlgorithm.DEFAULT;
 
         public Parameters build(RuntimeParameters runtime) {
             return new Parameters(runtime, combine, gossipDuration, maxCheckpointSegments, submitTimeout, genesisViewId,
                                   checkpointBlockDelta, digestAlgorithm, viewSigAlgorithm, synchronizationCycles,
                                   regenerationCycles, bootstrap, producer, mvBuilder, txnLimiterBuilder, submitPolicy,
-                                  checkpointSegmentSize, drainPolicy);
+                                  checkpointSegmentSize, drainPolicy, verificationParallelism, durability,
+                                  submitBatchSize, submitBatchInterval, blockCacheBytes, blockCodec, reorderWindow,
+                                  new BatchVerifier(runtime.exec(), verificationParallelism));
         }
 
         @Override
@@ -664,6 +772,14 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             }
         }
 
+        public long getBlockCacheBytes() {
+            return blockCacheBytes;
+        }
+
+        public BlockCodec getBlockCodec() {
+            return blockCodec;
+        }
+
         public BootstrapParameters getBootstrap() {
             return bootstrap;
         }
@@ -688,6 +804,10 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return drainPolicy;
         }
 
+        public DurabilityPolicy getDurability() {
+            return durability;
+        }
+
         public Digest getGenesisViewId() {
             return genesisViewId;
         }
@@ -712,6 +832,18 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return regenerationCycles;
         }
 
+        public int getReorderWindow() {
+            return reorderWindow;
+        }
+
+        public Duration getSubmitBatchInterval() {
+            return submitBatchInterval;
+        }
+
+        public int getSubmitBatchSize() {
+            return submitBatchSize;
+        }
+
         public ExponentialBackoffPolicy.Builder getSubmitPolicy() {
             return submitPolicy;
         }
@@ -728,10 +860,24 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return txnLimiterBuilder;
         }
 
+        public int getVerificationParallelism() {
+            return verificationParallelism;
+        }
+
         public SignatureAlgorithm getViewSigAlgorithm() {
             return viewSigAlgorithm;
         }
 
+        public Builder setBlockCacheBytes(long blockCacheBytes) {
+            this.blockCacheBytes = blockCacheBytes;
+            return this;
+        }
+
+        public Builder setBlockCodec(BlockCodec blockCodec) {
+            this.blockCodec = blockCodec;
+            return this;
+        }
+
         public Builder setBootstrap(BootstrapParameters bootstrap) {
             this.bootstrap = bootstrap;
             return this;
@@ -762,6 +908,11 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return this;
         }
 
+        public Builder setDurability(DurabilityPolicy durability) {
+            this.durability = durability;
+            return this;
+        }
+
         public Builder setGenesisViewId(Digest genesisViewId) {
             this.genesisViewId = genesisViewId;
             return this;
@@ -792,6 +943,21 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return this;
         }
 
+        public Builder setReorderWindow(int reorderWindow) {
+            this.reorderWindow = reorderWindow;
+            return this;
+        }
+
+        public Builder setSubmitBatchInterval(Duration submitBatchInterval) {
+            this.submitBatchInterval = submitBatchInterval;
+            return this;
+        }
+
+        public Builder setSubmitBatchSize(int submitBatchSize) {
+            this.submitBatchSize = submitBatchSize;
+            return this;
+        }
+
         public Builder setSubmitPolicy(ExponentialBackoffPolicy.Builder submitPolicy) {
             this.submitPolicy = submitPolicy;
             return this;
@@ -812,6 +978,11 @@ public record Parameters(Parameters.RuntimeParameters runtime, ReliableBroadcast
             return this;
         }
 
+        public Builder setVerificationParallelism(int verificationParallelism) {
+            this.verificationParallelism = verificationParallelism;
+            return this;
+        }
+
         public Builder setViewSigAlgorithm(SignatureAlgorithm viewSigAlgorithm) {
             this.viewSigAlgorithm = viewSigAlgorithm;
             return this;
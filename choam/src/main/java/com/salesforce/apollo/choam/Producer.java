@@ -42,6 +42,8 @@ import com.salesforce.apollo.choam.fsm.Driven.Earner;
 import com.salesforce.apollo.choam.fsm.Driven.Transitions;
 import com.salesforce.apollo.choam.support.HashedBlock;
 import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
+import com.salesforce.apollo.choam.support.HashedTransaction;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
 import com.salesforce.apollo.choam.support.TxDataSource;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.ethereal.Config;
@@ -59,7 +61,8 @@ import com.salesforce.apollo.membership.Member;
  */
 public class Producer {
 
-    record PendingBlock(HashedBlock block, Map<Member, Validate> witnesses, AtomicBoolean published) {}
+    record PendingBlock(HashedBlock block, Map<Member, Validate> witnesses, AtomicBoolean published,
+                        List<HashedTransaction> transactions) {}
 
     /** Leaf action Driven coupling for the Earner FSM */
     private class DriveIn implements Driven {
@@ -71,7 +74,7 @@ public class Producer {
                                                   view.reconfigure(slate, nextViewId, previousBlock.get(),
                                                                    checkpoint.get()));
             var validation = view.generateValidation(reconfiguration);
-            final var p = new PendingBlock(reconfiguration, new HashMap<>(), new AtomicBoolean());
+            final var p = new PendingBlock(reconfiguration, new HashMap<>(), new AtomicBoolean(), List.of());
             pending.put(reconfiguration.hash, p);
             p.witnesses.put(params().member(), validation);
             ds.offer(validation);
@@ -111,7 +114,7 @@ public class Producer {
             checkpoint.set(next);
             var validation = view.generateValidation(next);
             ds.offer(validation);
-            final var p = new PendingBlock(next, new HashMap<>(), new AtomicBoolean());
+            final var p = new PendingBlock(next, new HashMap<>(), new AtomicBoolean(), List.of());
             pending.put(next.hash, p);
             p.witnesses.put(params().member(), validation);
             log.info("Produced checkpoint: {} height: {} for: {} on: {}", next.hash, next.height(), getViewId(),
@@ -163,7 +166,8 @@ public class Producer {
         public void startProduction() {
             log.debug("Starting production for: {} on: {}", getViewId(), params().member().getId());
             controller.start();
-            coordinator.start(params().producer().gossipDuration(), params().scheduler());
+            coordinator.start(params().producer().gossipDuration(), params().scheduler(),
+                              params().producer().pushFanout());
         }
     }
 
@@ -206,7 +210,8 @@ public class Producer {
         final var name = "Producer" + getViewId() + params().member().getId().toString();
         ds = new TxDataSource(params.member(), maxElements, params.metrics(), producerParams.maxBatchByteSize(),
                               producerParams.batchInterval(), producerParams.maxBatchCount(),
-                              params().drainPolicy().build());
+                              params().drainPolicy().build(), producerParams.batchPolicy(),
+                              params.digestAlgorithm());
 
         log.info("Producer max elements: {} reconfiguration epoch: {} on: {}", maxElements, lastEpoch,
                  params.member().getId());
@@ -273,7 +278,11 @@ public class Producer {
     }
 
     public SubmitResult submit(Transaction transaction) {
-        if (ds.offer(transaction)) {
+        final var hashed = new HashedTransaction(params().digestAlgorithm(), transaction);
+        if (ds.offer(hashed)) {
+            if (params().metrics() != null) {
+                params().metrics().traced(Stage.BUFFERED, hashed);
+            }
             return SubmitResult.newBuilder().setResult(Result.PUBLISHED).build();
         } else {
             return SubmitResult.newBuilder().setResult(Result.BUFFER_FULL).build();
@@ -297,13 +306,17 @@ public class Producer {
             }
         }).filter(e -> e != null).toList();
 
-        aggregate.stream()
-                 .flatMap(e -> e.getValidationsList().stream())
-                 .map(witness -> validate(witness))
-                 .filter(p -> p != null)
-                 .filter(p -> !p.published.get())
-                 .filter(p -> p.witnesses.size() >= params().majority())
-                 .forEach(p -> publish(p));
+        var validations = aggregate.stream().flatMap(e -> e.getValidationsList().stream()).toList();
+        var verified = params().verifier().verify(validations, v -> verify(v));
+        for (int i = 0; i < validations.size(); i++) {
+            if (!verified.get(i)) {
+                continue;
+            }
+            var p = witness(validations.get(i));
+            if (p != null && !p.published.get() && p.witnesses.size() >= params().majority()) {
+                publish(p);
+            }
+        }
 
         var reass = Reassemble.newBuilder();
         aggregate.stream().flatMap(e -> e.getReassembliesList().stream()).forEach(r -> {
@@ -323,17 +336,24 @@ public class Producer {
         }
 
         HashedBlock lb = previousBlock.get();
-        final var txns = aggregate.stream().flatMap(e -> e.getTransactionsList().stream()).toList();
+        final var txns = HashedTransaction.of(aggregate.stream()
+                                                       .flatMap(e -> e.getTransactionsList().stream())
+                                                       .toList(),
+                                              params().digestAlgorithm());
+        if (params().metrics() != null) {
+            for (var txn : txns) {
+                params().metrics().traced(Stage.PREBLOCK, txn);
+            }
+        }
 
         if (!txns.isEmpty()) {
-            log.trace("transactions: {} comb hash: {} height: {} on: {}", txns.size(),
-                      txns.stream()
-                          .map(t -> CHOAM.hashOf(t, params().digestAlgorithm()))
-                          .reduce((a, b) -> a.xor(b))
-                          .orElse(null),
-                      lb.height().add(1), params().member().getId());
+            if (log.isTraceEnabled()) {
+                log.trace("transactions: {} comb hash: {} height: {} on: {}", txns.size(),
+                          txns.stream().map(t -> t.hash).reduce((a, b) -> a.xor(b)).orElse(null),
+                          lb.height().add(1), params().member().getId());
+            }
             var builder = Executions.newBuilder();
-            txns.forEach(e -> builder.addExecutions(e));
+            txns.forEach(e -> builder.addExecutions(e.transaction));
 
             var next = new HashedBlock(params().digestAlgorithm(),
                                        view.produce(lb.height().add(1), lb.hash, builder.build(), checkpoint.get()));
@@ -341,7 +361,7 @@ public class Producer {
 
             final var validation = view.generateValidation(next);
             ds.offer(validation);
-            final var p = new PendingBlock(next, new HashMap<>(), new AtomicBoolean());
+            final var p = new PendingBlock(next, new HashMap<>(), new AtomicBoolean(), txns);
             pending.put(next.hash, p);
             p.witnesses.put(params().member(), validation);
             log.debug("Created block: {} height: {} prev: {} last: {} on: {}", next.hash, next.height(), lb.hash, last,
@@ -378,7 +398,7 @@ public class Producer {
                                                           checkpoint.get()));
         previousBlock.set(assemble);
         final var validation = view.generateValidation(assemble);
-        final var p = new PendingBlock(assemble, new HashMap<>(), new AtomicBoolean());
+        final var p = new PendingBlock(assemble, new HashMap<>(), new AtomicBoolean(), List.of());
         pending.put(assemble.hash, p);
         p.witnesses.put(params().member(), validation);
         ds.offer(validation);
@@ -400,17 +420,30 @@ public class Producer {
                                                                       .map(v -> v.getWitness())
                                                                       .toList())
                                      .build();
-        view.publish(new HashedCertifiedBlock(params().digestAlgorithm(), cb));
+        view.publish(new HashedCertifiedBlock(params().digestAlgorithm(), cb), p.transactions);
+        if (params().metrics() != null) {
+            for (var txn : p.transactions) {
+                params().metrics().traced(Stage.CERTIFIED, txn);
+            }
+        }
     }
 
-    private PendingBlock validate(Validate v) {
+    private boolean verify(Validate v) {
         Digest hash = Digest.from(v.getHash());
         var p = pending.get(hash);
         if (p == null) {
-            return null;
+            return false;
         }
         if (!view.validate(p.block, v)) {
             log.trace("Invalid validate for: {} on: {}", hash, params().member().getId());
+            return false;
+        }
+        return true;
+    }
+
+    private PendingBlock witness(Validate v) {
+        var p = pending.get(Digest.from(v.getHash()));
+        if (p == null) {
             return null;
         }
         p.witnesses.put(view.context().getMember(Digest.from(v.getWitness().getId())), v);
@@ -9,13 +9,19 @@ package com.salesforce.apollo.choam;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,11 +33,16 @@ import com.netflix.concurrency.limits.Limiter;
 import com.netflix.concurrency.limits.internal.EmptyMetricRegistry;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
 import com.salesfoce.apollo.choam.proto.SubmitResult.Result;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.support.ExponentialBackoffPolicy;
+import com.salesforce.apollo.choam.support.HashedTransaction;
 import com.salesforce.apollo.choam.support.InvalidTransaction;
 import com.salesforce.apollo.choam.support.SubmittedTransaction;
+import com.salesforce.apollo.choam.support.TimerWheel;
 import com.salesforce.apollo.choam.support.TransactionCancelled;
 import com.salesforce.apollo.choam.support.TransactionFailed;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.JohnHancock;
 import com.salesforce.apollo.crypto.Signer;
@@ -42,6 +53,23 @@ import com.salesforce.apollo.crypto.Verifier;
  *
  */
 public class Session {
+    /**
+     * The asynchronous submission of a batch of transactions
+     */
+    @FunctionalInterface
+    public interface BatchService {
+        /**
+         * @return the future results of the submission, in batch order
+         */
+        CompletableFuture<SubmitResults> submit(List<SubmittedTransaction> batch);
+    }
+
+    /**
+     * A queued asynchronous submission, retried with the backoff until the
+     * deadline
+     */
+    private record Pending(SubmittedTransaction stx, Limiter.Listener listener, ExponentialBackoffPolicy backoff,
+                           Instant deadline, ScheduledExecutorService scheduler) {}
 
     private final static Logger log = LoggerFactory.getLogger(Session.class);
 
@@ -65,19 +93,42 @@ public class Session {
         buff.putInt(transaction.getNonce());
         buff.flip();
         return verifier.verify(JohnHancock.of(transaction.getSignature()),
-                               transaction.getSource().toByteString().asReadOnlyByteBuffer(),
+                               transaction.getSource().toByteString().asReadOnlyByteBuffer(), buff,
                                transaction.getContent().asReadOnlyByteBuffer());
     }
 
+    private final BatchService                                 batchService;
     private final Limiter<Void>                                limiter;
     private AtomicInteger                                      nonce     = new AtomicInteger();
     private final Parameters                                   params;
+    private final ConcurrentLinkedQueue<Pending>               pending   = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger                                queued    = new AtomicInteger();
     private final Function<SubmittedTransaction, SubmitResult> service;
     private final Map<Digest, SubmittedTransaction>            submitted = new ConcurrentHashMap<>();
+    private final AtomicReference<ScheduledFuture<?>>          ticker    = new AtomicReference<>();
+    private final TimerWheel                                   timeouts;
 
     public Session(Parameters params, Function<SubmittedTransaction, SubmitResult> service) {
+        this(params, service, batch -> {
+            var results = SubmitResults.newBuilder();
+            batch.forEach(stx -> results.addResults(service.apply(stx)));
+            return CompletableFuture.completedFuture(results.build());
+        });
+    }
+
+    /**
+     * @param params       - the parameters of the session
+     * @param service      - the blocking submission of a single transaction
+     * @param batchService - the asynchronous submission of a batch of
+     *                     transactions, answering the result of each in batch
+     *                     order
+     */
+    public Session(Parameters params, Function<SubmittedTransaction, SubmitResult> service,
+                   BatchService batchService) {
         this.params = params;
         this.service = service;
+        this.batchService = batchService;
+        this.timeouts = new TimerWheel(params.submitBatchInterval(), 1024);
         final var metrics = params.metrics();
         this.limiter = params.txnLimiterBuilder()
                              .build(params.member().getId().shortString(),
@@ -114,15 +165,17 @@ public class Session {
         if (!txn.hasSource() || !txn.hasSignature()) {
             throw new InvalidTransaction();
         }
-        var hash = CHOAM.hashOf(txn, params.digestAlgorithm());
+        var hashed = new HashedTransaction(params.digestAlgorithm(), txn);
+        var hash = hashed.hash;
         final var timer = params.metrics() == null ? null : params.metrics().transactionLatency().time();
+        traced(Stage.SUBMITTED, txn, hash);
 
         var result = new CompletableFuture<T>();
         if (timeout == null) {
             timeout = params.submitTimeout();
         }
 
-        var stxn = new SubmittedTransaction(hash, txn, result, timer);
+        var stxn = new SubmittedTransaction(hashed, result, timer);
         submitted.put(stxn.hash(), stxn);
 
         var backoff = params.submitPolicy().build();
@@ -169,14 +222,94 @@ public class Session {
 
         return result.whenComplete((r, t) -> {
             futureTimeout.cancel(true);
+            traced(Stage.COMPLETED, txn, hash);
+            complete(hash, timer, t);
+        });
+    }
+
+    /**
+     * Submit a transaction asynchronously. The caller is never parked: if the
+     * limiter rejects the transaction the returned future fails immediately,
+     * otherwise the transaction is queued for batched submission to the
+     * committee. Queued transactions are flushed when a full batch accumulates,
+     * or at the session's batch interval. As with the blocking submission, a
+     * transaction that is not published is resubmitted with the session's submit
+     * policy backoff until its timeout expires, and then fails.
+     *
+     * @param transaction - the Message to submit as a transaction
+     * @param timeout     - the timeout of the transaction, the session's submit
+     *                    timeout if null
+     * @param scheduler   - the scheduler driving the batch interval and
+     *                    transaction timeouts
+     *
+     * @return onCompletion - the future result of the submitted transaction,
+     *         completed when the transaction is executed
+     * @throws InvalidTransaction - if the submitted transaction is invalid in any
+     *                            way
+     */
+    public <T> CompletableFuture<T> submitAsync(Message transaction, Duration timeout,
+                                                ScheduledExecutorService scheduler) throws InvalidTransaction {
+        final var txn = transactionOf(params.member().getId(), nonce.getAndIncrement(), transaction,
+                                      params.member());
+        if (!txn.hasSource() || !txn.hasSignature()) {
+            throw new InvalidTransaction();
+        }
+        var hashed = new HashedTransaction(params.digestAlgorithm(), txn);
+        var hash = hashed.hash;
+        final var timer = params.metrics() == null ? null : params.metrics().transactionLatency().time();
+        traced(Stage.SUBMITTED, txn, hash);
+        var result = new CompletableFuture<T>();
+        var stxn = new SubmittedTransaction(hashed, result, timer);
+        if (timeout == null) {
+            timeout = params.submitTimeout();
+        }
+
+        var listener = limiter.acquire(null);
+        if (listener.isEmpty()) {
+            log.debug("Transaction submission: {} rejected on: {}", hash, params.member().getId());
+            if (params.metrics() != null) {
+                params.metrics().transactionSubmittedFail();
+            }
+            final var rejected = new TransactionFailed("Transaction submission rejected");
+            result.completeExceptionally(rejected);
+            complete(hash, timer, rejected);
+            return result;
+        }
+        submitted.put(hash, stxn);
+        startTicker(scheduler);
+        var expiration = timeouts.schedule(() -> {
+            log.debug("Timeout of txn: {} on: {}", hash, params.member().getId());
+            final var to = new TimeoutException("Transaction timeout");
+            result.completeExceptionally(to);
+            if (params.metrics() != null) {
+                params.metrics().transactionComplete(to);
+            }
+        }, timeout);
+        result.whenComplete((r, t) -> {
+            expiration.cancel();
+            traced(Stage.COMPLETED, txn, hash);
             complete(hash, timer, t);
         });
+
+        queue(new Pending(stxn, listener.get(), params.submitPolicy().build(), Instant.now().plus(timeout),
+                          scheduler));
+        return result;
     }
 
     public int submitted() {
         return submitted.size();
     }
 
+    /**
+     * Stop the batching of asynchronous submissions
+     */
+    public void stop() {
+        var current = ticker.getAndSet(null);
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
     SubmittedTransaction complete(Digest hash) {
         final SubmittedTransaction stxn = submitted.remove(hash);
         if (stxn != null) {
@@ -194,6 +327,102 @@ public class Session {
         }
     }
 
+    /**
+     * Submit the queued transactions, in batches
+     */
+    private void flush() {
+        while (queued.get() > 0) {
+            var batch = new ArrayList<Pending>();
+            for (Pending p = null; batch.size() < params.submitBatchSize() && (p = pending.poll()) != null;) {
+                queued.decrementAndGet();
+                if (p.stx.onCompletion().isDone()) {
+                    p.listener.onIgnore();
+                } else {
+                    batch.add(p);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            log.trace("Submitting batch of: {} txns on: {}", batch.size(), params.member().getId());
+            CompletableFuture<SubmitResults> futureSailor;
+            try {
+                futureSailor = batchService.submit(batch.stream().map(p -> p.stx).toList());
+            } catch (Throwable t) {
+                futureSailor = CompletableFuture.failedFuture(t);
+            }
+            futureSailor.whenComplete((results, t) -> submitted(batch, results, t));
+        }
+    }
+
+    private void failed(Pending p, String reason) {
+        p.stx.onCompletion().completeExceptionally(new TransactionFailed("Transaction submission failed: " + reason));
+    }
+
+    private void queue(Pending p) {
+        pending.add(p);
+        if (queued.incrementAndGet() >= params.submitBatchSize()) {
+            flush();
+        }
+    }
+
+    /**
+     * Resubmit the transaction after the next backoff, failing the transaction if
+     * the backoff would exceed its deadline
+     */
+    private void retry(Pending p, String reason) {
+        if (p.stx.onCompletion().isDone()) {
+            return;
+        }
+        final var delay = p.backoff.nextBackoff();
+        if (Instant.now().plus(delay).isAfter(p.deadline)) {
+            if (params.metrics() != null) {
+                params.metrics().transactionSubmittedBufferFull();
+            }
+            failed(p, reason);
+            return;
+        }
+        log.debug("Failed submitting: {} reason: {} delay: {}ms on: {}", p.stx.hash(), reason, delay.toMillis(),
+                  params.member().getId());
+        if (params.metrics() != null) {
+            params.metrics().transactionSubmitRetry();
+        }
+        try {
+            p.scheduler.schedule(() -> {
+                if (p.stx.onCompletion().isDone()) {
+                    return;
+                }
+                var listener = limiter.acquire(null);
+                if (listener.isEmpty()) {
+                    log.debug("Transaction resubmission: {} rejected on: {}", p.stx.hash(), params.member().getId());
+                    retry(p, "Transaction submission rejected");
+                    return;
+                }
+                queue(new Pending(p.stx, listener.get(), p.backoff, p.deadline, p.scheduler));
+            }, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            failed(p, reason);
+        }
+    }
+
+    private void startTicker(ScheduledExecutorService scheduler) {
+        if (ticker.get() != null) {
+            return;
+        }
+        final var interval = params.submitBatchInterval().toNanos();
+        var scheduled = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+                timeouts.advance();
+            } catch (Throwable t) {
+                log.error("Error in submission batching on: {}", params.member().getId(), t);
+            }
+        }, interval, interval, TimeUnit.NANOSECONDS);
+        if (!ticker.compareAndSet(null, scheduled)) {
+            scheduled.cancel(false);
+        }
+    }
+
     private boolean submit(SubmittedTransaction stx) {
         var listener = limiter.acquire(null);
         if (listener.isEmpty()) {
@@ -208,6 +437,7 @@ public class Session {
 
         if (result.getResult() == Result.PUBLISHED) {
             listener.get().onSuccess();
+            traced(Stage.BUFFERED, stx.transaction(), stx.hash());
             log.trace("Transaction submitted: {} on: {}", stx.hash(), params.member().getId());
             if (params.metrics() != null) {
                 params.metrics().transactionSubmittedSuccess();
@@ -218,4 +448,36 @@ public class Session {
         }
         return true;
     }
+
+    private void submitted(List<Pending> batch, SubmitResults results, Throwable t) {
+        for (int i = 0; i < batch.size(); i++) {
+            var p = batch.get(i);
+            var result = t == null && i < results.getResultsCount() ? results.getResults(i) : null;
+            if (result != null && result.getResult() == Result.PUBLISHED) {
+                p.listener.onSuccess();
+                traced(Stage.BUFFERED, p.stx.transaction(), p.stx.hash());
+                log.trace("Transaction submitted: {} on: {}", p.stx.hash(), params.member().getId());
+                if (params.metrics() != null) {
+                    params.metrics().transactionSubmittedSuccess();
+                }
+            } else {
+                if (t == null) {
+                    p.listener.onDropped();
+                } else {
+                    p.listener.onIgnore();
+                }
+                if (params.metrics() != null) {
+                    params.metrics().transactionSubmittedFail();
+                }
+                retry(p, result != null ? result.getResult().toString() : t == null ? "No result" : t.toString());
+            }
+        }
+    }
+
+    private void traced(Stage stage, Transaction transaction, Digest hash) {
+        final var metrics = params.metrics();
+        if (metrics != null && metrics.sampled(transaction)) {
+            metrics.traced(stage, hash);
+        }
+    }
 }
@@ -9,6 +9,7 @@ package com.salesforce.apollo.choam;
 import static com.salesforce.apollo.crypto.QualifiedBase64.publicKey;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.joou.ULong;
@@ -25,6 +26,7 @@ import com.salesfoce.apollo.choam.proto.ViewMember;
 import com.salesforce.apollo.choam.CHOAM.BlockProducer;
 import com.salesforce.apollo.choam.support.HashedBlock;
 import com.salesforce.apollo.choam.support.HashedCertifiedBlock;
+import com.salesforce.apollo.choam.support.HashedTransaction;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.JohnHancock;
@@ -150,6 +152,10 @@ public class ViewContext {
         blockProducer.publish(block.certifiedBlock);
     }
 
+    public void publish(HashedCertifiedBlock block, List<HashedTransaction> executions) {
+        blockProducer.publish(block, executions);
+    }
+
     public Block reconfigure(Map<Member, Join> aggregate, Digest nextViewId, HashedBlock lastBlock,
                              HashedBlock checkpoint) {
         return blockProducer.reconfigure(aggregate, nextViewId, lastBlock, checkpoint);
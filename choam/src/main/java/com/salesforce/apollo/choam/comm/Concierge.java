@@ -6,8 +6,11 @@
  */
 package com.salesforce.apollo.choam.comm;
 
+import java.util.Iterator;
+
 import com.salesfoce.apollo.choam.proto.BlockReplication;
 import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
 import com.salesfoce.apollo.choam.proto.CheckpointReplication;
 import com.salesfoce.apollo.choam.proto.CheckpointSegments;
 import com.salesfoce.apollo.choam.proto.Initial;
@@ -29,6 +32,18 @@ public interface Concierge {
 
     ViewMember join(Digest nextView, Digest from);
 
+    /**
+     * Answer the lazy iteration of the certified blocks to stream in reply to the
+     * request, from the highest to the lowest height
+     */
+    Iterator<CertifiedBlock> streamBlocks(BlockReplication request, Digest from);
+
+    /**
+     * Answer the lazy iteration of the certified blocks of the view chain to
+     * stream in reply to the request, from the highest to the lowest height
+     */
+    Iterator<CertifiedBlock> streamViewChain(BlockReplication request, Digest from);
+
     Initial sync(Synchronize request, Digest from);
 
 }
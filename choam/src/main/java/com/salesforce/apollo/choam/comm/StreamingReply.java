@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.comm;
+
+import java.util.Iterator;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * The reply of a server streaming call, drawn from a lazy iteration while
+ * honoring the flow control of the transport. Elements are only pulled from the
+ * source while the client is ready to receive them, and the stream resumes from
+ * the on ready handler when the client's window opens. The stream is abandoned
+ * if the call is cancelled
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class StreamingReply<T> {
+    private boolean                           done;
+    private final ServerCallStreamObserver<T> observer;
+    private Iterator<T>                       source;
+
+    /**
+     * Must be constructed before the call's service method returns, so that the
+     * handlers are registered with the call
+     */
+    public StreamingReply(ServerCallStreamObserver<T> observer) {
+        this.observer = observer;
+        observer.setOnReadyHandler(() -> drain());
+        observer.setOnCancelHandler(() -> cancel());
+    }
+
+    /**
+     * Start streaming the source
+     */
+    public synchronized void start(Iterator<T> source) {
+        if (done) {
+            return;
+        }
+        this.source = source;
+        drain();
+    }
+
+    private synchronized void cancel() {
+        done = true;
+        source = null;
+    }
+
+    private synchronized void drain() {
+        if (done || source == null) {
+            return;
+        }
+        if (observer.isCancelled()) {
+            cancel();
+            return;
+        }
+        try {
+            while (observer.isReady() && source.hasNext()) {
+                observer.onNext(source.next());
+            }
+            if (!source.hasNext()) {
+                done = true;
+                source = null;
+                observer.onCompleted();
+            }
+        } catch (Throwable t) {
+            done = true;
+            source = null;
+            observer.onError(t);
+        }
+    }
+}
@@ -7,7 +7,9 @@
 package com.salesforce.apollo.choam.comm;
 
 import com.salesfoce.apollo.choam.proto.SubmitResult;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesfoce.apollo.choam.proto.Transactions;
 import com.salesforce.apollo.crypto.Digest;
 
 /**
@@ -18,4 +20,10 @@ public interface Submitter {
 
     SubmitResult submit(Transaction request, Digest from);
 
+    /**
+     * Submit a batch of transactions, answering the result of each in the order
+     * of the batch
+     */
+    SubmitResults submit(Transactions request, Digest from);
+
 }
@@ -10,6 +10,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.salesfoce.apollo.choam.proto.BlockReplication;
 import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
 import com.salesfoce.apollo.choam.proto.CheckpointReplication;
 import com.salesfoce.apollo.choam.proto.CheckpointSegments;
 import com.salesfoce.apollo.choam.proto.Initial;
@@ -20,6 +21,8 @@ import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.membership.Member;
 import com.salesforce.apollo.membership.SigningMember;
 
+import io.grpc.stub.StreamObserver;
+
 /**
  * Terminal RPC endpoint for CHOAM
  * 
@@ -62,6 +65,28 @@ public interface Terminal extends Link {
                 return f;
             }
 
+            @Override
+            public void streamBlocks(BlockReplication replication, StreamObserver<CertifiedBlock> observer) {
+                try {
+                    service.streamBlocks(replication, member.getId()).forEachRemaining(cb -> observer.onNext(cb));
+                } catch (Throwable t) {
+                    observer.onError(t);
+                    return;
+                }
+                observer.onCompleted();
+            }
+
+            @Override
+            public void streamViewChain(BlockReplication replication, StreamObserver<CertifiedBlock> observer) {
+                try {
+                    service.streamViewChain(replication, member.getId()).forEachRemaining(cb -> observer.onNext(cb));
+                } catch (Throwable t) {
+                    observer.onError(t);
+                    return;
+                }
+                observer.onCompleted();
+            }
+
             @Override
             public ListenableFuture<Initial> sync(Synchronize sync) {
                 return null;
@@ -77,5 +102,17 @@ public interface Terminal extends Link {
 
     ListenableFuture<ViewMember> join(Digest nextView);
 
+    /**
+     * Stream the certified blocks of the replication range, from the highest to
+     * the lowest height, to the observer
+     */
+    void streamBlocks(BlockReplication replication, StreamObserver<CertifiedBlock> observer);
+
+    /**
+     * Stream the certified blocks of the view chain of the replication range, from
+     * the highest to the lowest height, to the observer
+     */
+    void streamViewChain(BlockReplication replication, StreamObserver<CertifiedBlock> observer);
+
     ListenableFuture<Initial> sync(Synchronize sync);
 }
@@ -9,12 +9,14 @@ package com.salesforce.apollo.choam.comm;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.salesfoce.apollo.choam.proto.BlockReplication;
 import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
 import com.salesfoce.apollo.choam.proto.CheckpointReplication;
 import com.salesfoce.apollo.choam.proto.CheckpointSegments;
 import com.salesfoce.apollo.choam.proto.Initial;
 import com.salesfoce.apollo.choam.proto.Synchronize;
 import com.salesfoce.apollo.choam.proto.TerminalGrpc;
 import com.salesfoce.apollo.choam.proto.TerminalGrpc.TerminalFutureStub;
+import com.salesfoce.apollo.choam.proto.TerminalGrpc.TerminalStub;
 import com.salesfoce.apollo.choam.proto.ViewMember;
 import com.salesforce.apollo.archipelago.ManagedServerChannel;
 import com.salesforce.apollo.archipelago.ServerConnectionCache.CreateClientCommunications;
@@ -22,6 +24,8 @@ import com.salesforce.apollo.choam.support.ChoamMetrics;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.membership.Member;
 
+import io.grpc.stub.StreamObserver;
+
 /**
  * @author hal.hildebrand
  *
@@ -34,14 +38,15 @@ public class TerminalClient implements Terminal {
     }
 
     private final ManagedServerChannel channel;
-
-    private final TerminalFutureStub client;
+    private final TerminalFutureStub   client;
     @SuppressWarnings("unused")
-    private final ChoamMetrics       metrics;
+    private final ChoamMetrics         metrics;
+    private final TerminalStub         streaming;
 
     public TerminalClient(ManagedServerChannel channel, ChoamMetrics metrics) {
         this.channel = channel;
         this.client = TerminalGrpc.newFutureStub(channel).withCompression("gzip");
+        this.streaming = TerminalGrpc.newStub(channel).withCompression("gzip");
         this.metrics = metrics;
     }
 
@@ -79,6 +84,16 @@ public class TerminalClient implements Terminal {
         close();
     }
 
+    @Override
+    public void streamBlocks(BlockReplication replication, StreamObserver<CertifiedBlock> observer) {
+        streaming.streamBlocks(replication, observer);
+    }
+
+    @Override
+    public void streamViewChain(BlockReplication replication, StreamObserver<CertifiedBlock> observer) {
+        streaming.streamViewChain(replication, observer);
+    }
+
     @Override
     public ListenableFuture<Initial> sync(Synchronize sync) {
         return client.sync(sync);
@@ -8,6 +8,7 @@ package com.salesforce.apollo.choam.comm;
 
 import com.salesfoce.apollo.choam.proto.BlockReplication;
 import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
 import com.salesfoce.apollo.choam.proto.CheckpointReplication;
 import com.salesfoce.apollo.choam.proto.CheckpointSegments;
 import com.salesfoce.apollo.choam.proto.Initial;
@@ -20,6 +21,7 @@ import com.salesforce.apollo.choam.support.ChoamMetrics;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.protocols.ClientIdentity;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 /**
@@ -90,6 +92,36 @@ public class TerminalServer extends TerminalImplBase {
         });
     }
 
+    /**
+     * Stream the blocks of the request, honoring the flow control of the
+     * transport
+     */
+    @Override
+    public void streamBlocks(BlockReplication request, StreamObserver<CertifiedBlock> responseObserver) {
+        Digest from = identity.getFrom();
+        if (from == null) {
+            responseObserver.onError(new IllegalStateException("Member has been removed"));
+            return;
+        }
+        var reply = new StreamingReply<>((ServerCallStreamObserver<CertifiedBlock>) responseObserver);
+        router.evaluate(responseObserver, s -> reply.start(s.streamBlocks(request, from)));
+    }
+
+    /**
+     * Stream the view chain of the request, honoring the flow control of the
+     * transport
+     */
+    @Override
+    public void streamViewChain(BlockReplication request, StreamObserver<CertifiedBlock> responseObserver) {
+        Digest from = identity.getFrom();
+        if (from == null) {
+            responseObserver.onError(new IllegalStateException("Member has been removed"));
+            return;
+        }
+        var reply = new StreamingReply<>((ServerCallStreamObserver<CertifiedBlock>) responseObserver);
+        router.evaluate(responseObserver, s -> reply.start(s.streamViewChain(request, from)));
+    }
+
     @Override
     public void sync(Synchronize request, StreamObserver<Initial> responseObserver) {
         Digest from = identity.getFrom();
@@ -8,8 +8,12 @@ package com.salesforce.apollo.choam.comm;
 
 import java.io.IOException;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesfoce.apollo.choam.proto.Transactions;
 import com.salesforce.apollo.archipelago.Link;
 import com.salesforce.apollo.membership.Member;
 import com.salesforce.apollo.membership.SigningMember;
@@ -36,8 +40,17 @@ public interface TxnSubmission extends Link {
             public SubmitResult submit(Transaction request) {
                 return service.submit(request, member.getId());
             }
+
+            @Override
+            public ListenableFuture<SubmitResults> submitBatch(Transactions request) {
+                SettableFuture<SubmitResults> f = SettableFuture.create();
+                f.set(service.submit(request, member.getId()));
+                return f;
+            }
         };
     }
 
     SubmitResult submit(Transaction request);
+
+    ListenableFuture<SubmitResults> submitBatch(Transactions request);
 }
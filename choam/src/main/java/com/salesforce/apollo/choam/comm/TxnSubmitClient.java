@@ -6,10 +6,14 @@
  */
 package com.salesforce.apollo.choam.comm;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
 import com.salesfoce.apollo.choam.proto.TransactionSubmissionGrpc;
 import com.salesfoce.apollo.choam.proto.TransactionSubmissionGrpc.TransactionSubmissionBlockingStub;
+import com.salesfoce.apollo.choam.proto.TransactionSubmissionGrpc.TransactionSubmissionFutureStub;
+import com.salesfoce.apollo.choam.proto.Transactions;
 import com.salesforce.apollo.archipelago.ManagedServerChannel;
 import com.salesforce.apollo.archipelago.ServerConnectionCache.CreateClientCommunications;
 import com.salesforce.apollo.choam.support.ChoamMetrics;
@@ -26,13 +30,14 @@ public class TxnSubmitClient implements TxnSubmission {
 
     }
 
-    private final ManagedServerChannel channel;
-
+    private final TransactionSubmissionFutureStub   async;
+    private final ManagedServerChannel              channel;
     private final TransactionSubmissionBlockingStub client;
 
     public TxnSubmitClient(ManagedServerChannel channel, ChoamMetrics metrics) {
         this.channel = channel;
         this.client = TransactionSubmissionGrpc.newBlockingStub(channel).withCompression("gzip");
+        this.async = TransactionSubmissionGrpc.newFutureStub(channel).withCompression("gzip");
     }
 
     @Override
@@ -53,4 +58,9 @@ public class TxnSubmitClient implements TxnSubmission {
     public SubmitResult submit(Transaction request) {
         return client.submit(request);
     }
+
+    @Override
+    public ListenableFuture<SubmitResults> submitBatch(Transactions request) {
+        return async.submitBatch(request);
+    }
 }
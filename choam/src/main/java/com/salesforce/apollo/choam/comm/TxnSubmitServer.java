@@ -7,8 +7,10 @@
 package com.salesforce.apollo.choam.comm;
 
 import com.salesfoce.apollo.choam.proto.SubmitResult;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.choam.proto.Transaction;
 import com.salesfoce.apollo.choam.proto.TransactionSubmissionGrpc.TransactionSubmissionImplBase;
+import com.salesfoce.apollo.choam.proto.Transactions;
 import com.salesforce.apollo.archipelago.RoutableService;
 import com.salesforce.apollo.choam.support.ChoamMetrics;
 import com.salesforce.apollo.crypto.Digest;
@@ -49,4 +51,21 @@ public class TxnSubmitServer extends TransactionSubmissionImplBase {
             }
         });
     }
+
+    @Override
+    public void submitBatch(Transactions request, StreamObserver<SubmitResults> responseObserver) {
+        Digest from = identity.getFrom();
+        if (from == null) {
+            responseObserver.onError(new IllegalStateException("Member has been removed"));
+            return;
+        }
+        router.evaluate(responseObserver, s -> {
+            try {
+                responseObserver.onNext(s.submit(request, from));
+                responseObserver.onCompleted();
+            } catch (StatusRuntimeException e) {
+                responseObserver.onError(e);
+            }
+        });
+    }
 }
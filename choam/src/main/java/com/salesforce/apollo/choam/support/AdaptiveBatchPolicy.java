@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.time.Duration;
+
+/**
+ * Adapts the batch interval and unit byte size of the TxDataSource to the
+ * depth of its transaction queue, within the configured bounds. When the queue
+ * is drained by a unit, the interval is halved toward the minimum so that light
+ * traffic is not held for the full interval, and the unit size decays toward
+ * its minimum. When a backlog remains after a unit is produced, the unit size
+ * doubles toward the maximum and the interval grows additively back toward its
+ * maximum, so that larger units have the time to fill.
+ * <p>
+ * Not thread safe; driven by the single thread pulling unit data.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class AdaptiveBatchPolicy {
+
+    private int            byteSize;
+    private Duration       interval;
+    private final int      maxByteSize;
+    private final Duration maxInterval;
+    private final int      minByteSize;
+    private final Duration minInterval;
+
+    public AdaptiveBatchPolicy(Duration minInterval, Duration maxInterval, int minByteSize, int maxByteSize) {
+        checkArgument(minInterval.compareTo(maxInterval) <= 0, "min interval: %s > max interval: %s", minInterval,
+                      maxInterval);
+        checkArgument(minByteSize > 0 && minByteSize <= maxByteSize, "invalid byte size bounds: [%s, %s]", minByteSize,
+                      maxByteSize);
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.minByteSize = minByteSize;
+        this.maxByteSize = maxByteSize;
+        this.interval = maxInterval;
+        this.byteSize = minByteSize;
+    }
+
+    /**
+     * Adapt the parameters to the depth of the queue remaining after a unit has
+     * been produced
+     */
+    public void adapt(int depth) {
+        if (depth == 0) {
+            interval = max(minInterval, interval.dividedBy(2));
+            byteSize = Math.max(minByteSize, byteSize - (byteSize >>> 2));
+        } else {
+            interval = min(maxInterval, interval.plus(minInterval.isZero() ? Duration.ofMillis(1) : minInterval));
+            byteSize = (int) Math.min(maxByteSize, 2L * byteSize);
+        }
+    }
+
+    /** The current unit byte size */
+    public int byteSize() {
+        return byteSize;
+    }
+
+    /** The current batch interval */
+    public Duration interval() {
+        return interval;
+    }
+
+    private Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fans a batch of signature verifications out across a bounded number of
+ * concurrent tasks, answering the verification results in the order of the
+ * batch. The batch is divided into chunks that are claimed by the calling
+ * thread and the tasks submitted to the executor, and the caller only waits
+ * upon chunks that are already being verified. The executor may thus be
+ * bounded, or the caller's own, without starving the verification
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class BatchVerifier {
+    private final static Logger log = LoggerFactory.getLogger(BatchVerifier.class);
+
+    private final Executor executor;
+    private final int      parallelism;
+
+    public BatchVerifier(Executor executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Verify the batch
+     *
+     * @param batch        - the items to verify
+     * @param verification - the verification of a single item
+     * @return the BitSet where the bit at an item's index in the batch is set if
+     *         and only if the item verified
+     */
+    public <T> BitSet verify(List<T> batch, Predicate<T> verification) {
+        final var size = batch.size();
+        final var results = new boolean[size];
+        final int tasks = Math.min(parallelism, size);
+        if (tasks < 2) {
+            verify(batch, verification, results, 0, size);
+        } else {
+            final int chunk = (size + tasks - 1) / tasks;
+            final var claimed = new AtomicInteger();
+            final var verified = new CountDownLatch(tasks);
+            Runnable worker = () -> {
+                for (int t = claimed.getAndIncrement(); t < tasks; t = claimed.getAndIncrement()) {
+                    try {
+                        verify(batch, verification, results, t * chunk, Math.min(size, (t + 1) * chunk));
+                    } finally {
+                        verified.countDown();
+                    }
+                }
+            };
+            for (int t = 1; t < tasks; t++) {
+                try {
+                    executor.execute(worker);
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+            worker.run();
+            awaitUninterruptibly(verified);
+        }
+        var verified = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (results[i]) {
+                verified.set(i);
+            }
+        }
+        return verified;
+    }
+
+    private void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> void verify(List<T> batch, Predicate<T> verification, boolean[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = verification.test(batch.get(i));
+            } catch (Throwable t) {
+                log.debug("Error verifying: {}", i, t);
+                results[i] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.joou.ULong;
+
+import com.salesforce.apollo.crypto.Digest;
+
+/**
+ * A bounded cache of decoded certified blocks, keyed by height and by hash.
+ * Blocks are evicted in least recently used order once the serialized size of
+ * the cached blocks exceeds the maximum byte size.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class BlockCache {
+
+    private final Map<ULong, HashedCertifiedBlock> blocks  = new LinkedHashMap<>(16, 0.75f, true);
+    private long                                   bytes;
+    private long                                   generation;
+    private final Map<Digest, ULong>               heights = new HashMap<>();
+    private final LongAdder                        hits    = new LongAdder();
+    private final long                             maxBytes;
+    private final ChoamMetrics                     metrics;
+    private final LongAdder                        misses  = new LongAdder();
+
+    public BlockCache(long maxBytes, ChoamMetrics metrics) {
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the serialized size of the cached blocks
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Invalidate the cache
+     */
+    public synchronized void clear() {
+        blocks.clear();
+        heights.clear();
+        bytes = 0;
+        generation++;
+    }
+
+    public HashedCertifiedBlock get(Digest hash) {
+        ULong height;
+        synchronized (this) {
+            height = heights.get(hash);
+        }
+        if (height == null) {
+            miss();
+            return null;
+        }
+        return get(height);
+    }
+
+    public HashedCertifiedBlock get(ULong height) {
+        HashedCertifiedBlock cached;
+        synchronized (this) {
+            cached = blocks.get(height);
+        }
+        if (cached == null) {
+            miss();
+        } else {
+            hits.increment();
+            if (metrics != null) {
+                metrics.blockCacheHit();
+            }
+        }
+        return cached;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public synchronized void put(HashedCertifiedBlock cb) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        final var size = cb.certifiedBlock.getSerializedSize();
+        if (size > maxBytes) {
+            return;
+        }
+        final var height = cb.height();
+        final var previous = blocks.put(height, cb);
+        if (previous != null) {
+            bytes -= previous.certifiedBlock.getSerializedSize();
+            heights.remove(previous.hash);
+        }
+        heights.put(cb.hash, height);
+        bytes += size;
+        evict();
+    }
+
+    public synchronized void remove(ULong height) {
+        generation++;
+        final var removed = blocks.remove(height);
+        if (removed != null) {
+            bytes -= removed.certifiedBlock.getSerializedSize();
+            heights.remove(removed.hash);
+        }
+    }
+
+    public synchronized int size() {
+        return blocks.size();
+    }
+
+    /**
+     * @return the generation of the cache, incremented on each invalidation or
+     *         removal
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Cache the block loaded from the store, unless the cache has been
+     * invalidated since the load began
+     */
+    synchronized void load(HashedCertifiedBlock cb, long loadedAt) {
+        if (generation == loadedAt) {
+            put(cb);
+        }
+    }
+
+    private void evict() {
+        Iterator<HashedCertifiedBlock> eldest = blocks.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            final var evicted = eldest.next();
+            eldest.remove();
+            bytes -= evicted.certifiedBlock.getSerializedSize();
+            heights.remove(evicted.hash);
+        }
+    }
+
+    private void miss() {
+        misses.increment();
+        if (metrics != null) {
+            metrics.blockCacheMiss();
+        }
+    }
+}
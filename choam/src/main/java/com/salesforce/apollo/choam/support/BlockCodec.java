@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static java.util.zip.Deflater.BEST_SPEED;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The encoding of serialized blocks at rest. Encoded blocks are self
+ * describing: an encoded block begins with a zero byte, which can never begin
+ * a serialized protobuf message, followed by the codec id and the length of
+ * the canonical serialized form. Bytes without that prefix are the canonical
+ * serialized form itself, so stores written with any codec, or none, remain
+ * readable. Block hashes are always computed over the canonical form.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public enum BlockCodec {
+    /** Blocks are stored in their canonical form */
+    NONE((byte) 0) {
+        @Override
+        public byte[] encode(byte[] canonical) {
+            return canonical;
+        }
+
+        @Override
+        byte[] decode(byte[] encoded, int offset, int length) {
+            throw new IllegalStateException("Not an encoded block");
+        }
+    },
+    /** Blocks are deflated at the fastest compression level */
+    DEFLATE((byte) 1) {
+        @Override
+        public byte[] encode(byte[] canonical) {
+            final var deflater = DEFLATERS.get();
+            deflater.reset();
+            deflater.setInput(canonical);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(canonical.length / 2 + HEADER);
+            out.write(MARKER);
+            out.write(id);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(canonical.length).array());
+            var buffer = new byte[Math.max(64, Math.min(canonical.length, 64 * 1024))];
+            while (!deflater.finished()) {
+                final var deflated = deflater.deflate(buffer);
+                out.write(buffer, 0, deflated);
+                if (out.size() >= canonical.length) {
+                    // incompressible
+                    return canonical;
+                }
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        byte[] decode(byte[] encoded, int offset, int length) {
+            final var inflater = INFLATERS.get();
+            inflater.reset();
+            inflater.setInput(encoded, offset, encoded.length - offset);
+            var canonical = new byte[length];
+            try {
+                int inflated = 0;
+                while (inflated < length) {
+                    final var n = inflater.inflate(canonical, inflated, length - inflated);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        break;
+                    }
+                    inflated += n;
+                }
+                if (inflated != length) {
+                    throw new IllegalStateException("Truncated encoded block, inflated: " + inflated + " expected: "
+                    + length);
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Invalid encoded block", e);
+            }
+            return canonical;
+        }
+    };
+
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(BEST_SPEED));
+    private static final int                   HEADER    = 6;
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater());
+    private static final byte                  MARKER    = 0;
+
+    /**
+     * Answer the canonical form of the stored bytes, whatever codec they were
+     * encoded with
+     */
+    public static byte[] decode(byte[] stored) {
+        if (!isEncoded(stored)) {
+            return stored;
+        }
+        final var length = ByteBuffer.wrap(stored, 2, 4).getInt();
+        for (var codec : values()) {
+            if (codec.id == stored[1]) {
+                return codec.decode(stored, HEADER, length);
+            }
+        }
+        throw new IllegalStateException("Unknown block codec: " + stored[1]);
+    }
+
+    /**
+     * @return true if the stored bytes are encoded, rather than canonical
+     */
+    public static boolean isEncoded(byte[] stored) {
+        return stored != null && stored.length >= HEADER && stored[0] == MARKER;
+    }
+
+    protected final byte id;
+
+    private BlockCodec(byte id) {
+        this.id = id;
+    }
+
+    /**
+     * Encode the canonical serialized form of a block. Answers the canonical
+     * form if encoding does not reduce its size
+     */
+    public abstract byte[] encode(byte[] canonical);
+
+    abstract byte[] decode(byte[] encoded, int offset, int length);
+}
@@ -6,11 +6,14 @@
  */
 package com.salesforce.apollo.choam.support;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -42,6 +45,8 @@ import com.salesforce.apollo.utils.Pair;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter.ULongBloomFilter;
 
+import io.grpc.stub.StreamObserver;
+
 /**
  * @author hal.hildebrand
  *
@@ -67,6 +72,120 @@ public class Bootstrapper {
         }
     }
 
+    /**
+     * A contiguous range of the anchor chain, or of the view chain, streamed from
+     * a single member. The shard completes when the member completes or fails the
+     * stream, or when the stream makes no progress for a bootstrap gossip interval
+     */
+    private class Shard implements StreamObserver<CertifiedBlock> {
+        private final CompletableFuture<Void> completed = new CompletableFuture<>();
+        private final ULong                   from;
+        private volatile long                 lastActivity = System.nanoTime();
+        private final Terminal                link;
+        private final ULong                   to;
+        private final boolean                 viewChain;
+        private volatile ScheduledFuture<?>   watchdog;
+
+        private Shard(Terminal link, ULong from, ULong to, boolean viewChain) {
+            this.link = link;
+            this.from = from;
+            this.to = to;
+            this.viewChain = viewChain;
+        }
+
+        @Override
+        public void onCompleted() {
+            log.debug("{} shard ({} to {}) streamed from: {} on: {}", kind(), from, to, link.getMember().getId(),
+                      params.member().getId());
+            complete();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Error streaming {} shard ({} to {}) from: {} on: {}", kind(), from, to,
+                      link.getMember().getId(), params.member().getId(), t);
+            complete();
+        }
+
+        @Override
+        public void onNext(CertifiedBlock cb) {
+            if (completed.isDone()) {
+                return;
+            }
+            lastActivity = System.nanoTime();
+            var block = new HashedCertifiedBlock(params.digestAlgorithm(), cb);
+            if (block.height().compareTo(to) < 0 || block.height().compareTo(from) > 0) {
+                log.debug("Ignoring {} completion: {} outside of shard ({} to {}) from: {} on: {}", kind(),
+                          block.height(), from, to, link.getMember().getId(), params.member().getId());
+                return;
+            }
+            log.trace("Adding {} completion: {} block[{}] from: {} on: {}", kind(), block.height(), block.hash,
+                      link.getMember().getId(), params.member().getId());
+            try {
+                // Puts are serialized by the store, and a failed put only undoes its own
+                // block, so the shards streaming concurrently are unaffected
+                store.put(block);
+            } catch (Throwable t) {
+                log.warn("Unable to store {} completion: {} from: {}, abandoning shard on: {}", kind(),
+                         block.height(), link.getMember().getId(), params.member().getId(), t);
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (!completed.complete(null)) {
+                return;
+            }
+            final var current = watchdog;
+            if (current != null) {
+                current.cancel(false);
+            }
+            try {
+                link.close();
+            } catch (Throwable e) {
+                log.trace("Error closing link to: {} on: {}", link.getMember().getId(), params.member().getId(), e);
+            }
+        }
+
+        private String kind() {
+            return viewChain ? "View chain" : "Anchor";
+        }
+
+        private CompletableFuture<Void> stream() {
+            long seed = Entropy.nextBitsStreamLong();
+            final var expected = viewChain ? params.bootstrap().maxViewBlocks() : params.bootstrap().maxSyncBlocks();
+            BloomFilter<ULong> blocksBff = new BloomFilter.ULongBloomFilter(seed, expected * 2,
+                                                                            params.bootstrap().falsePositiveRate());
+            (viewChain ? store.viewChainFrom(from, to)
+                       : store.blocksFrom(from, to, expected)).forEachRemaining(h -> blocksBff.add(h));
+            final var idle = params.bootstrap().gossipDuration().toNanos();
+            watchdog = params.scheduler().scheduleWithFixedDelay(() -> {
+                if (System.nanoTime() - lastActivity > idle) {
+                    log.debug("{} shard ({} to {}) stalled from: {} on: {}", kind(), from, to,
+                              link.getMember().getId(), params.member().getId());
+                    complete();
+                }
+            }, idle, idle, TimeUnit.NANOSECONDS);
+            log.debug("Streaming {} shard ({} to {}) from: {} on: {}", kind(), from, to, link.getMember().getId(),
+                      params.member().getId());
+            final var replication = BlockReplication.newBuilder()
+                                                    .setBlocksBff(blocksBff.toBff())
+                                                    .setFrom(from.longValue())
+                                                    .setTo(to.longValue())
+                                                    .build();
+            try {
+                if (viewChain) {
+                    link.streamViewChain(replication, this);
+                } else {
+                    link.streamBlocks(replication, this);
+                }
+            } catch (Throwable t) {
+                onError(t);
+            }
+            return completed;
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(Bootstrapper.class);
 
     public static Digest randomCut(DigestAlgorithm algo) {
@@ -130,7 +249,7 @@ public class Bootstrapper {
                   params.member().getId());
         long seed = Entropy.nextBitsStreamLong();
         BloomFilter<ULong> blocksBff = new BloomFilter.ULongBloomFilter(seed, params.bootstrap().maxViewBlocks() * 2,
-                                                                        params.combine().falsePositiveRate());
+                                                                        params.bootstrap().falsePositiveRate());
 
         start.set(store.firstGap(start.get(), end));
         store.blocksFrom(start.get(), end, params.bootstrap().maxSyncBlocks()).forEachRemaining(h -> blocksBff.add(h));
@@ -155,8 +274,11 @@ public class Bootstrapper {
 
         CheckpointAssembler assembler = new CheckpointAssembler(params.gossipDuration(), checkpoint.height(),
                                                                 checkpoint.block.getCheckpoint(), params.member(),
-                                                                store, comms, params.context(), threshold,
-                                                                params.digestAlgorithm());
+                                                                store, comms, params.context(),
+                                                                params.bootstrap().falsePositiveRate(),
+                                                                params.digestAlgorithm(),
+                                                                params.bootstrap().streamingPeers(),
+                                                                params.maxCheckpointSegments());
 
         // assemble the checkpoint
         checkpointAssembled = assembler.assemble(params.scheduler(), params.gossipDuration(), params.exec())
@@ -173,7 +295,7 @@ public class Bootstrapper {
                   .forEach(reconfigure -> {
                       store.put(reconfigure);
                   });
-        scheduleViewChainCompletion(new AtomicReference<>(checkpointView.height()), ULong.valueOf(0));
+        streamViewChain(new AtomicReference<>(checkpointView.height()), ULong.valueOf(0));
     }
 
     private boolean completeAnchor(Optional<ListenableFuture<Blocks>> futureSailor, AtomicReference<ULong> start,
@@ -261,7 +383,7 @@ public class Bootstrapper {
                   link.getMember().getId(), params.member().getId());
         long seed = Entropy.nextBitsStreamLong();
         ULongBloomFilter blocksBff = new BloomFilter.ULongBloomFilter(seed, params.bootstrap().maxViewBlocks() * 2,
-                                                                      params.combine().falsePositiveRate());
+                                                                      params.bootstrap().falsePositiveRate());
         start.set(store.lastViewChainFrom(start.get()));
         store.viewChainFrom(start.get(), end).forEachRemaining(h -> blocksBff.add(h));
         BlockReplication replication = BlockReplication.newBuilder()
@@ -371,7 +493,7 @@ public class Bootstrapper {
             anchorTo = ULong.valueOf(0);
         }
 
-        anchor(new AtomicReference<>(anchor.height()), anchorTo);
+        streamAnchor(anchor.height(), anchorTo);
 
         // Checkpoint must be assembled, view chain synchronized, and blocks spanning
         // the anchor block to the checkpoint must be filled
@@ -520,6 +642,92 @@ public class Bootstrapper {
         return link.sync(s);
     }
 
+    /**
+     * Complete the anchor chain by streaming disjoint shards of the range from
+     * multiple members concurrently. Any gaps remaining after the streams complete
+     * are filled by the incremental anchor completion
+     */
+    private void streamAnchor(ULong start, ULong end) {
+        var gap = store.firstGap(start, end);
+        if (gap.equals(end)) {
+            validateAnchor();
+            return;
+        }
+        List<Member> members = params.context()
+                                     .successors(randomCut(params.digestAlgorithm()),
+                                                 m -> !m.equals(params.member()))
+                                     .stream()
+                                     .distinct()
+                                     .limit(Math.max(1, params.bootstrap().streamingPeers()))
+                                     .toList();
+        long remaining = gap.longValue() - end.longValue() + 1;
+        int count = (int) Math.min(members.size(), remaining);
+        var shards = new ArrayList<CompletableFuture<Void>>();
+        long shardFrom = gap.longValue();
+        for (int i = 0; i < count; i++) {
+            long size = remaining / count + (i < remaining % count ? 1 : 0);
+            long shardTo = shardFrom - size + 1;
+            Terminal link = comms.connect(members.get(i));
+            if (link != null) {
+                shards.add(new Shard(link, ULong.valueOf(shardFrom), ULong.valueOf(shardTo), false).stream());
+            }
+            shardFrom = shardTo - 1;
+        }
+        log.info("Streaming anchor ({} to {}) in: {} shards on: {}", gap, end, shards.size(),
+                 params.member().getId());
+        CompletableFuture.allOf(shards.toArray(new CompletableFuture[shards.size()])).whenComplete((v, t) -> {
+            if (sync.isDone() || anchorSynchronized.isDone()) {
+                return;
+            }
+            try {
+                if (store.firstGap(start, end).equals(end)) {
+                    validateAnchor();
+                } else {
+                    anchor(new AtomicReference<>(start), end);
+                }
+            } catch (Throwable e) {
+                log.error("Cannot complete anchor on: {}", params.member().getId(), e);
+                sync.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Complete the view chain by streaming it from a member. Should the chain
+     * remain incomplete, it is completed by the incremental view chain completion
+     */
+    private void streamViewChain(AtomicReference<ULong> start, ULong end) {
+        start.set(store.lastViewChainFrom(start.get()));
+        if (store.completeFrom(start.get())) {
+            validateViewChain();
+            return;
+        }
+        var member = params.context()
+                           .successors(randomCut(params.digestAlgorithm()), m -> !m.equals(params.member()))
+                           .stream()
+                           .findFirst();
+        Terminal link = member.isEmpty() ? null : comms.connect(member.get());
+        if (link == null) {
+            scheduleViewChainCompletion(start, end);
+            return;
+        }
+        new Shard(link, start.get(), end, true).stream().whenComplete((v, t) -> {
+            if (sync.isDone() || viewChainSynchronized.isDone()) {
+                return;
+            }
+            try {
+                if (store.completeFrom(store.lastViewChainFrom(start.get()))) {
+                    validateViewChain();
+                } else {
+                    scheduleViewChainCompletion(start, end);
+                }
+            } catch (Throwable e) {
+                log.error("Cannot complete view chain on: {}", params.member().getId(), e);
+                sync.completeExceptionally(e);
+            }
+        });
+    }
+
     private void validateAnchor() {
         ULong to = checkpoint == null ? ULong.valueOf(0) : checkpoint.height();
         try {
@@ -10,13 +10,16 @@ import static com.salesforce.apollo.choam.support.Bootstrapper.randomCut;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import org.h2.mvstore.MVMap;
@@ -24,6 +27,7 @@ import org.joou.ULong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.salesfoce.apollo.choam.proto.Checkpoint;
 import com.salesfoce.apollo.choam.proto.CheckpointReplication;
@@ -41,12 +45,27 @@ import com.salesforce.apollo.utils.Entropy;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
 
 /**
+ * Assembles a checkpoint by fetching its segments from the members of the
+ * context. The missing segments are divided into disjoint ranges, which are
+ * fetched from several members concurrently, each member with a number of
+ * requests in flight. A range that is not completed by its member - a failure,
+ * a timeout or a partial reply - is returned to the work queue and retried on
+ * another member. Should all the members drop out, assembly falls back to ring
+ * gossip of the remaining segments
+ *
  * @author hal.hildebrand
  *
  */
 public class CheckpointAssembler {
-    private static final Logger log = LoggerFactory.getLogger(CheckpointAssembler.class);
+    /** a disjoint range of segment indexes, [from, to) */
+    private record Range(int from, int to) {}
+
+    private static final int    DEFAULT_PEERS      = 3;
+    private static final int    DEFAULT_RANGE_SIZE = 100;
+    private static final Logger log                = LoggerFactory.getLogger(CheckpointAssembler.class);
+    private static final int    PIPELINE           = 2;
 
+    private final AtomicInteger                             active    = new AtomicInteger();
     private final CompletableFuture<CheckpointState>        assembled = new CompletableFuture<>();
     private final Checkpoint                                checkpoint;
     private final CommonCommunications<Terminal, Concierge> comms;
@@ -57,11 +76,21 @@ public class CheckpointAssembler {
     private final List<Digest>                              hashes    = new ArrayList<>();
     private final ULong                                     height;
     private final SigningMember                             member;
+    private final int                                       peers;
+    private final int                                       rangeSize;
+    private final ConcurrentLinkedDeque<Range>              ranges    = new ConcurrentLinkedDeque<>();
     private final MVMap<Integer, byte[]>                    state;
 
     public CheckpointAssembler(Duration frequency, ULong height, Checkpoint checkpoint, SigningMember member,
                                Store store, CommonCommunications<Terminal, Concierge> comms, Context<Member> context,
                                double falsePositiveRate, DigestAlgorithm digestAlgorithm) {
+        this(frequency, height, checkpoint, member, store, comms, context, falsePositiveRate, digestAlgorithm,
+             DEFAULT_PEERS, DEFAULT_RANGE_SIZE);
+    }
+
+    public CheckpointAssembler(Duration frequency, ULong height, Checkpoint checkpoint, SigningMember member,
+                               Store store, CommonCommunications<Terminal, Concierge> comms, Context<Member> context,
+                               double falsePositiveRate, DigestAlgorithm digestAlgorithm, int peers, int rangeSize) {
         this.height = height;
         this.member = member;
         this.checkpoint = checkpoint;
@@ -70,6 +99,8 @@ public class CheckpointAssembler {
         this.fpr = falsePositiveRate;
         this.digestAlgorithm = digestAlgorithm;
         this.frequency = frequency;
+        this.peers = Math.max(1, peers);
+        this.rangeSize = Math.max(1, rangeSize);
         state = store.createCheckpoint(height);
         checkpoint.getSegmentsList().stream().map(bs -> new Digest(bs)).forEach(hash -> hashes.add(hash));
     }
@@ -81,33 +112,155 @@ public class CheckpointAssembler {
                      member.getId());
             assembled.complete(new CheckpointState(checkpoint, state));
         } else {
-            gossip(scheduler, duration, exec);
+            fetch(scheduler, duration, exec);
         }
         return assembled;
     }
 
     private CheckpointReplication buildRequest() {
+        return buildRequest(new Range(0, checkpoint.getSegmentsCount()));
+    }
+
+    private CheckpointReplication buildRequest(Range range) {
         long seed = Entropy.nextBitsStreamLong();
-        BloomFilter<Integer> segmentsBff = new BloomFilter.IntBloomFilter(seed, checkpoint.getSegmentsCount(), fpr);
-        IntStream.range(0, checkpoint.getSegmentsCount()).filter(i -> state.containsKey(i)).forEach(i -> {
+        BloomFilter<Integer> segmentsBff = new BloomFilter.IntBloomFilter(seed, range.to - range.from, fpr);
+        IntStream.range(range.from, range.to).filter(i -> state.containsKey(i)).forEach(i -> {
             segmentsBff.add(i);
         });
         return CheckpointReplication.newBuilder()
                                     .setCheckpoint(height.longValue())
                                     .setCheckpointSegments(segmentsBff.toBff())
+                                    .setFrom(range.from)
+                                    .setTo(range.to)
                                     .build();
     }
 
+    private boolean complete() {
+        if (state.size() != hashes.size()) {
+            return false;
+        }
+        if (assembled.complete(new CheckpointState(checkpoint, state))) {
+            log.info("Assembled checkpoint: {} segments: {} on: {}", height, checkpoint.getSegmentsCount(),
+                     member.getId());
+        }
+        return true;
+    }
+
+    private void dropped(Member m, Terminal link, ScheduledExecutorService scheduler, Duration duration,
+                         Executor exec) {
+        try {
+            link.close();
+        } catch (Throwable e) {
+            log.trace("Error closing link to: {} on: {}", m.getId(), member.getId(), e);
+        }
+        if (active.decrementAndGet() == 0 && !complete()) {
+            log.info("No remaining members for parallel assembly of checkpoint: {} on: {}", height, member.getId());
+            gossip(scheduler, duration, exec);
+        }
+    }
+
+    /**
+     * Fetch the missing segments from multiple members in parallel
+     */
+    private void fetch(ScheduledExecutorService scheduler, Duration duration, Executor exec) {
+        for (int from = 0; from < hashes.size(); from += rangeSize) {
+            final var range = new Range(from, Math.min(hashes.size(), from + rangeSize));
+            if (IntStream.range(range.from, range.to).anyMatch(i -> !state.containsKey(i))) {
+                ranges.add(range);
+            }
+        }
+        if (complete()) {
+            return;
+        }
+        var links = new LinkedHashMap<Member, Terminal>();
+        for (var m : context.successors(randomCut(digestAlgorithm), m -> !m.equals(member))
+                            .stream()
+                            .distinct()
+                            .limit(peers)
+                            .toList()) {
+            var link = comms.connect(m);
+            if (link != null) {
+                links.put(m, link);
+            }
+        }
+        if (links.isEmpty()) {
+            gossip(scheduler, duration, exec);
+            return;
+        }
+        log.info("Parallel assembly of checkpoint: {} segments: {} ranges: {} members: {} on: {}", height,
+                 checkpoint.getSegmentsCount(), ranges.size(), links.size(), member.getId());
+        active.set(links.size());
+        links.forEach((m, link) -> {
+            var inFlight = new AtomicInteger(PIPELINE);
+            for (int i = 0; i < PIPELINE; i++) {
+                fetch(m, link, inFlight, scheduler, duration, exec);
+            }
+        });
+    }
+
+    /**
+     * Pipeline the next range with the member. The member is dropped when the
+     * work queue is exhausted, or when a request to it fails
+     */
+    private void fetch(Member m, Terminal link, AtomicInteger inFlight, ScheduledExecutorService scheduler,
+                       Duration duration, Executor exec) {
+        final var range = assembled.isDone() ? null : ranges.poll();
+        if (range == null) {
+            retire(m, link, inFlight, scheduler, duration, exec);
+            return;
+        }
+        log.trace("Fetching checkpoint: {} segments [{}, {}) from: {} on: {}", height, range.from, range.to,
+                  m.getId(), member.getId());
+        ListenableFuture<CheckpointSegments> futureSailor;
+        try {
+            futureSailor = Futures.withTimeout(link.fetch(buildRequest(range)), duration.toNanos(),
+                                               TimeUnit.NANOSECONDS, scheduler);
+        } catch (Throwable t) {
+            log.debug("Error fetching checkpoint: {} segments from: {} on: {}", height, m.getId(), member.getId(),
+                      t);
+            ranges.addFirst(range);
+            retire(m, link, inFlight, scheduler, duration, exec);
+            return;
+        }
+        futureSailor.addListener(() -> {
+            int stored;
+            try {
+                stored = process(futureSailor.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ranges.addFirst(range);
+                retire(m, link, inFlight, scheduler, duration, exec);
+                return;
+            } catch (ExecutionException e) {
+                log.debug("Failed to retrieve checkpoint: {} segments [{}, {}) from: {} on: {}", height, range.from,
+                          range.to, m.getId(), member.getId(), e.getCause());
+                ranges.addFirst(range);
+                retire(m, link, inFlight, scheduler, duration, exec);
+                return;
+            }
+            if (complete()) {
+                ranges.clear();
+            } else if (IntStream.range(range.from, range.to).anyMatch(i -> !state.containsKey(i))) {
+                // partial reply, straggler goes to the back of the queue for another member
+                ranges.addLast(range);
+                if (stored == 0) {
+                    log.debug("No progress on checkpoint: {} segments [{}, {}) from: {} on: {}", height, range.from,
+                              range.to, m.getId(), member.getId());
+                    retire(m, link, inFlight, scheduler, duration, exec);
+                    return;
+                }
+            }
+            fetch(m, link, inFlight, scheduler, duration, exec);
+        }, exec);
+    }
+
     private boolean gossip(Optional<ListenableFuture<CheckpointSegments>> futureSailor) {
         if (futureSailor.isEmpty()) {
             return true;
         }
         try {
-            if (process(futureSailor.get().get())) {
-                CheckpointState cs = new CheckpointState(checkpoint, state);
-                log.info("Assembled checkpoint: {} segments: {} on: {}", height, checkpoint.getSegmentsCount(),
-                         member.getId());
-                assembled.complete(cs);
+            process(futureSailor.get().get());
+            if (complete()) {
                 return false;
             }
         } catch (InterruptedException e) {
@@ -142,16 +295,34 @@ public class CheckpointAssembler {
         return link.fetch(buildRequest());
     }
 
-    private boolean process(CheckpointSegments segments) {
-        segments.getSegmentsList().forEach(segment -> {
-            Digest hash = digestAlgorithm.digest(segment.getBlock());
+    /**
+     * Store the valid segments of the reply directly into the checkpoint state
+     *
+     * @return the number of segments newly stored
+     */
+    private int process(CheckpointSegments segments) {
+        int stored = 0;
+        for (var segment : segments.getSegmentsList()) {
             int index = segment.getIndex();
-            if (index >= 0 && index < hashes.size()) {
-                if (hash.equals(hashes.get(index))) {
-                    state.computeIfAbsent(index, i -> segment.getBlock().toByteArray());
+            if (index >= 0 && index < hashes.size() && !state.containsKey(index)) {
+                Digest hash = digestAlgorithm.digest(segment.getBlock());
+                if (hash.equals(hashes.get(index)) &&
+                    state.putIfAbsent(index, segment.getBlock().toByteArray()) == null) {
+                    stored++;
                 }
             }
-        });
-        return state.size() == hashes.size();
+        }
+        return stored;
+    }
+
+    /**
+     * Retire one of the pipelined requests with the member, dropping the member
+     * when none remain
+     */
+    private void retire(Member m, Terminal link, AtomicInteger inFlight, ScheduledExecutorService scheduler,
+                        Duration duration, Executor exec) {
+        if (inFlight.decrementAndGet() == 0) {
+            dropped(m, link, scheduler, duration, exec);
+        }
     }
 }
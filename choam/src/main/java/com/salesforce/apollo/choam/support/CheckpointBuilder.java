@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.salesfoce.apollo.choam.proto.Checkpoint;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * Builds the Checkpoint of a state file in a single pass. The file is memory
+ * mapped and its segments are hashed concurrently, each task hashing a
+ * contiguous run of segments. The state hash of the checkpoint is the root of
+ * the MerkleTree over the segment digests, so that any segment may be verified
+ * on its own against the root
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class CheckpointBuilder {
+    /** maximum size of a single mapping of the state file */
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    private final DigestAlgorithm algo;
+    private final Executor        executor;
+    private final int             parallelism;
+    private final int             segmentSize;
+
+    public CheckpointBuilder(DigestAlgorithm algo, int segmentSize, Executor executor, int parallelism) {
+        this.algo = algo;
+        this.segmentSize = segmentSize;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public Checkpoint build(File state) throws IOException {
+        if (state == null) {
+            return Checkpoint.newBuilder()
+                             .setByteSize(0)
+                             .setSegmentSize(segmentSize)
+                             .setStateHash(algo.getOrigin().toDigeste())
+                             .build();
+        }
+        var tree = new MerkleTree(algo, Arrays.asList(segments(state)));
+        var builder = Checkpoint.newBuilder()
+                                .setByteSize(state.length())
+                                .setSegmentSize(segmentSize)
+                                .setStateHash(tree.root().toDigeste());
+        for (int i = 0; i < tree.leaves(); i++) {
+            builder.addSegments(tree.leaf(i).toDigeste());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Answer the digests of the segments of the state file, in order
+     */
+    public Digest[] segments(File state) throws IOException {
+        try (var channel = FileChannel.open(state.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            final int count = (int) ((length + segmentSize - 1) / segmentSize);
+            final var digests = new Digest[count];
+            final int tasks = Math.max(1, Math.min(parallelism, count));
+            final int chunk = count == 0 ? 0 : (count + tasks - 1) / tasks;
+            var futures = new CompletableFuture<?>[tasks];
+            for (int t = 0; t < tasks; t++) {
+                final int from = Math.min(count, t * chunk);
+                final int to = Math.min(count, from + chunk);
+                futures[t] = CompletableFuture.runAsync(() -> {
+                    try {
+                        hash(channel, length, digests, from, to);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor);
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw e;
+            }
+            return digests;
+        }
+    }
+
+    private void hash(FileChannel channel, long length, Digest[] digests, int from, int to) throws IOException {
+        final long perMapping = Math.max(1, MAX_MAPPING / segmentSize);
+        final byte[] buff = new byte[segmentSize];
+        int segment = from;
+        while (segment < to) {
+            final int last = (int) Math.min(to, segment + perMapping);
+            final long position = (long) segment * segmentSize;
+            final long size = Math.min(length, (long) last * segmentSize) - position;
+            var mapped = channel.map(MapMode.READ_ONLY, position, size);
+            for (; segment < last; segment++) {
+                final int read = Math.min(segmentSize, mapped.remaining());
+                mapped.get(buff, 0, read);
+                digests[segment] = algo.digest(buff, read);
+            }
+        }
+    }
+}
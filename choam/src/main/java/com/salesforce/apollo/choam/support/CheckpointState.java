@@ -20,7 +20,7 @@ import java.util.zip.GZIPInputStream;
 
 import org.h2.mvstore.MVMap;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import com.salesfoce.apollo.choam.proto.Checkpoint;
 import com.salesfoce.apollo.choam.proto.Slice;
 import com.salesforce.apollo.utils.Utils;
@@ -74,10 +74,21 @@ public class CheckpointState {
     }
 
     public List<Slice> fetchSegments(BloomFilter<Integer> bff, int maxSegments) {
+        return fetchSegments(bff, maxSegments, 0, checkpoint.getSegmentsCount());
+    }
+
+    /**
+     * Answer the segments in the range [from, to) not contained in the filter.
+     * The stored segments are immutable, and so are wrapped rather than copied
+     */
+    public List<Slice> fetchSegments(BloomFilter<Integer> bff, int maxSegments, int from, int to) {
         List<Slice> slices = new ArrayList<>();
-        for (int i = 0; i < checkpoint.getSegmentsCount(); i++) {
+        for (int i = Math.max(0, from); i < Math.min(to, checkpoint.getSegmentsCount()); i++) {
             if (!bff.contains(i)) {
-                slices.add(Slice.newBuilder().setIndex(i).setBlock(ByteString.copyFrom(state.get(i))).build());
+                slices.add(Slice.newBuilder()
+                                .setIndex(i)
+                                .setBlock(UnsafeByteOperations.unsafeWrap(state.get(i)))
+                                .build());
                 if (slices.size() >= maxSegments) {
                     break;
                 }
@@ -6,8 +6,14 @@
  */
 package com.salesforce.apollo.choam.support;
 
+import java.time.Duration;
+
 import com.codahale.metrics.Timer;
 import com.netflix.concurrency.limits.MetricRegistry;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.ethereal.memberships.comm.EtherealMetrics;
 import com.salesforce.apollo.membership.messaging.rbc.RbcMetrics;
 import com.salesforce.apollo.protocols.EndpointMetrics;
@@ -18,6 +24,20 @@ import com.salesforce.apollo.protocols.EndpointMetrics;
  */
 public interface ChoamMetrics extends EndpointMetrics {
 
+    /**
+     * Record the transaction queue depth of the data source, and the batch
+     * interval and unit byte size chosen for it
+     */
+    void batchParameters(int queueDepth, Duration interval, int byteSize);
+
+    void blockCacheHit();
+
+    void blockCacheMiss();
+
+    void blockDecoded(long nanos);
+
+    void blockEncoded(int canonicalBytes, int encodedBytes, long nanos);
+
     void dropped(int transactions, int validations, int reassemblies);
 
     RbcMetrics getCombineMetrics();
@@ -30,6 +50,55 @@ public interface ChoamMetrics extends EndpointMetrics {
 
     void publishedBatch(int batchSize, int byteSize, int validations, int reassemblies);
 
+    /**
+     * Record the number of certified blocks held in the reorder window
+     */
+    void reorderWindow(int depth);
+
+    /**
+     * Record a block rejected or displaced because the reorder window is full
+     */
+    void reorderWindowOverflow();
+
+    /**
+     * Answer true if the lifecycle of the transaction is sampled for tracing. The
+     * decision is a function of the transaction alone, so that every member
+     * samples the same transactions
+     */
+    boolean sampled(Transaction transaction);
+
+    /**
+     * Answer the trace of the sampled transaction, or null if the transaction is
+     * not sampled or its trace has been evicted
+     */
+    TransactionTrace traceOf(Digest hash);
+
+    /**
+     * Record the observation of the lifecycle stage of a sampled transaction,
+     * updating the latency histogram of the stage
+     */
+    void traced(Stage stage, Digest hash);
+
+    /**
+     * Record the observation of the lifecycle stage of the transaction, if
+     * sampled
+     */
+    default void traced(Stage stage, Transaction transaction, DigestAlgorithm algo) {
+        if (sampled(transaction)) {
+            traced(stage, HashedTransaction.hash(transaction, algo));
+        }
+    }
+
+    /**
+     * Record the observation of the lifecycle stage of the hashed transaction, if
+     * sampled
+     */
+    default void traced(Stage stage, HashedTransaction transaction) {
+        if (sampled(transaction.transaction)) {
+            traced(stage, transaction.hash);
+        }
+    }
+
     void transactionComplete(Throwable t);
 
     Timer transactionLatency();
@@ -8,13 +8,21 @@ package com.salesforce.apollo.choam.support;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.ethereal.memberships.comm.EtherealMetrics;
 import com.salesforce.apollo.ethereal.memberships.comm.EtherealMetricsImpl;
@@ -24,34 +32,67 @@ import com.salesforce.apollo.protocols.EndpointMetricsImpl;
 import com.salesforce.apollo.protocols.LimitsRegistry;
 
 /**
+ * The metrics of CHOAM. Transactions are sampled for lifecycle tracing by
+ * nonce, one in every <code>sampleRate</code>. The traces of the most recently
+ * sampled transactions are retained, and the latency of each lifecycle stage of
+ * a sampled transaction is recorded in the stage's timer.
+ *
  * @author hal.hildebrand
  *
  */
 public class ChoamMetricsImpl extends EndpointMetricsImpl implements ChoamMetrics {
+    public static final int DEFAULT_MAX_TRACES  = 1_000;
+    public static final int DEFAULT_SAMPLE_RATE = 100;
 
-    private final RbcMetrics      combineMetrics;
-    private final Meter           completedTransactions;
-    private final Counter         droppedReassemblies;
-    private final Counter         droppedTransactions;
-    private final Counter         droppedValidations;
-    private final Meter           failedTransactions;
-    private final EtherealMetrics genesisMetrics;
-    private final EtherealMetrics producerMetrics;
-    private final Histogram       publishedBytes;
-    private final Meter           publishedReassemblies;
-    private final Meter           publishedTransactions;
-    private final Meter           publishedValidations;
-    private final MetricRegistry  registry;
-    private final Timer           transactionLatency;
-    private final Meter           transactionSubmitFailed;
-    private final Meter           transactionSubmitRetry;
-    private final Meter           transactionSubmitSuccess;
-    private final Meter           transactionSubmittedBufferFull;
-    private final Meter           transactionTimeout;
+    private volatile int                        batchByteSize;
+    private volatile long                       batchInterval;
+    private volatile int                        batchQueueDepth;
+    private final Meter                         blockCacheHits;
+    private final Meter                         blockCacheMisses;
+    private final Histogram                     blockCompression;
+    private final Timer                         blockDecode;
+    private final Timer                         blockEncode;
+    private final RbcMetrics                    combineMetrics;
+    private final Meter                         completedTransactions;
+    private final Counter                       droppedReassemblies;
+    private final Counter                       droppedTransactions;
+    private final Counter                       droppedValidations;
+    private final Meter                         failedTransactions;
+    private final EtherealMetrics               genesisMetrics;
+    private final EtherealMetrics               producerMetrics;
+    private final Histogram                     publishedBytes;
+    private final Meter                         publishedReassemblies;
+    private final Meter                         publishedTransactions;
+    private final Meter                         publishedValidations;
+    private final MetricRegistry                registry;
+    private volatile int                        reorderDepth;
+    private final Meter                         reorderOverflow;
+    private final int                           sampleRate;
+    private final Map<Stage, Timer>             stages = new EnumMap<>(Stage.class);
+    private final Map<Digest, TransactionTrace> traces;
+    private final Timer                         transactionLatency;
+    private final Meter                         transactionSubmitFailed;
+    private final Meter                         transactionSubmitRetry;
+    private final Meter                         transactionSubmitSuccess;
+    private final Meter                         transactionSubmittedBufferFull;
+    private final Meter                         transactionTimeout;
 
     public ChoamMetricsImpl(Digest context, MetricRegistry registry) {
+        this(context, registry, DEFAULT_SAMPLE_RATE, DEFAULT_MAX_TRACES);
+    }
+
+    public ChoamMetricsImpl(Digest context, MetricRegistry registry, int sampleRate, int maxTraces) {
         super(registry);
         this.registry = registry;
+        this.sampleRate = sampleRate;
+        this.traces = new LinkedHashMap<>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Digest, TransactionTrace> eldest) {
+                return size() > maxTraces;
+            }
+        };
         combineMetrics = new RbcMetricsImpl(context, "combine", registry);
         producerMetrics = new EtherealMetricsImpl(context, "producer", registry);
         genesisMetrics = new EtherealMetricsImpl(context, "genesis", registry);
@@ -71,6 +112,53 @@ public class ChoamMetricsImpl extends EndpointMetricsImpl implements ChoamMetric
         completedTransactions = registry.meter(name(context.shortString(), "transactions.completed"));
         failedTransactions = registry.meter(name(context.shortString(), "transactions.failed"));
         transactionSubmittedBufferFull = registry.meter(name(context.shortString(), "transaction.submit.buffer.full"));
+        registry.gauge(name(context.shortString(), "unit.queue.depth"), () -> (Gauge<Integer>) () -> batchQueueDepth);
+        registry.gauge(name(context.shortString(), "unit.batch.interval.ms"),
+                       () -> (Gauge<Long>) () -> batchInterval);
+        registry.gauge(name(context.shortString(), "unit.batch.bytes"), () -> (Gauge<Integer>) () -> batchByteSize);
+        blockCacheHits = registry.meter(name(context.shortString(), "block.cache.hit"));
+        blockCacheMisses = registry.meter(name(context.shortString(), "block.cache.miss"));
+        blockCompression = registry.histogram(name(context.shortString(), "block.compression.percent"));
+        blockDecode = registry.timer(name(context.shortString(), "block.decode"));
+        blockEncode = registry.timer(name(context.shortString(), "block.encode"));
+        registry.gauge(name(context.shortString(), "block.reorder.depth"), () -> (Gauge<Integer>) () -> reorderDepth);
+        reorderOverflow = registry.meter(name(context.shortString(), "block.reorder.overflow"));
+        for (var stage : Stage.values()) {
+            if (stage != Stage.SUBMITTED) {
+                stages.put(stage, registry.timer(name(context.shortString(), "transaction.stage",
+                                                      stage.name().toLowerCase())));
+            }
+        }
+    }
+
+    @Override
+    public void batchParameters(int queueDepth, Duration interval, int byteSize) {
+        batchQueueDepth = queueDepth;
+        batchInterval = interval.toMillis();
+        batchByteSize = byteSize;
+    }
+
+    @Override
+    public void blockCacheHit() {
+        blockCacheHits.mark();
+    }
+
+    @Override
+    public void blockCacheMiss() {
+        blockCacheMisses.mark();
+    }
+
+    @Override
+    public void blockDecoded(long nanos) {
+        blockDecode.update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void blockEncoded(int canonicalBytes, int encodedBytes, long nanos) {
+        blockEncode.update(nanos, TimeUnit.NANOSECONDS);
+        if (canonicalBytes > 0) {
+            blockCompression.update((100L * encodedBytes) / canonicalBytes);
+        }
     }
 
     @Override
@@ -108,6 +196,44 @@ public class ChoamMetricsImpl extends EndpointMetricsImpl implements ChoamMetric
         publishedReassemblies.mark(reassemblies);
     }
 
+    @Override
+    public void reorderWindow(int depth) {
+        reorderDepth = depth;
+    }
+
+    @Override
+    public void reorderWindowOverflow() {
+        reorderOverflow.mark();
+    }
+
+    @Override
+    public boolean sampled(Transaction transaction) {
+        return sampleRate > 0 && Math.floorMod(transaction.getNonce(), sampleRate) == 0;
+    }
+
+    @Override
+    public TransactionTrace traceOf(Digest hash) {
+        synchronized (traces) {
+            return traces.get(hash);
+        }
+    }
+
+    @Override
+    public void traced(Stage stage, Digest hash) {
+        TransactionTrace trace;
+        synchronized (traces) {
+            trace = traces.computeIfAbsent(hash, h -> new TransactionTrace(h));
+        }
+        if (!trace.observe(stage, System.nanoTime())) {
+            return;
+        }
+        // The stages may be observed out of order, so complete both adjacent stages
+        publish(trace, stage);
+        if (stage.ordinal() + 1 < Stage.values().length) {
+            publish(trace, Stage.values()[stage.ordinal() + 1]);
+        }
+    }
+
     @Override
     public void transactionComplete(Throwable t) {
         if (t != null) {
@@ -153,4 +279,11 @@ public class ChoamMetricsImpl extends EndpointMetricsImpl implements ChoamMetric
     public void transactionTimeout() {
         transactionTimeout.mark();
     }
+
+    private void publish(TransactionTrace trace, Stage stage) {
+        final var latency = trace.latencyNanos(stage);
+        if (latency >= 0 && trace.publish(stage)) {
+            stages.get(stage).update(latency, TimeUnit.NANOSECONDS);
+        }
+    }
 }
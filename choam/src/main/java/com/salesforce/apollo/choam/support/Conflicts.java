@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+
+/**
+ * The read and write sets of a transaction. Two transactions conflict if either
+ * writes a key the other reads or writes. Transactions that do not conflict may
+ * be executed concurrently within a block.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public record Conflicts(Set<?> reads, Set<?> writes) {
+
+    /**
+     * Execute the waves of a block in order. The transactions of a wave are
+     * executed concurrently on the executor, and each wave is joined before the
+     * next is started. A wave of a single transaction is executed on the calling
+     * thread. Every wave is executed: the join does not respond to interruption,
+     * so a block is never partially applied, and the interrupt status of the
+     * calling thread is preserved for the caller to act upon once the block is
+     * complete
+     *
+     * @param waves     - the waves of transaction indexes
+     * @param execution - executes the transaction of the index
+     * @param executor  - executes the transactions of a wave
+     *
+     * @throws IllegalStateException if the execution of a transaction fails,
+     *                               after its wave has been joined. The block has
+     *                               been partially applied, and the caller must
+     *                               treat this as fatal
+     */
+    public static void execute(List<List<Integer>> waves, IntConsumer execution, Executor executor) {
+        for (var wave : waves) {
+            if (wave.size() == 1) {
+                execution.accept(wave.get(0));
+                continue;
+            }
+            var futures = wave.stream()
+                              .map(index -> CompletableFuture.runAsync(() -> execution.accept(index), executor))
+                              .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Failed executing wave: " + wave, e.getCause());
+            }
+        }
+    }
+
+    public static Conflicts of(Set<?> reads, Set<?> writes) {
+        return new Conflicts(reads == null ? Collections.emptySet() : reads,
+                             writes == null ? Collections.emptySet() : writes);
+    }
+
+    public static Conflicts writes(Set<?> writes) {
+        return of(null, writes);
+    }
+
+    /**
+     * Partition the transactions of a block into waves of mutually non
+     * conflicting transactions. Each wave may be executed concurrently, and the
+     * waves must be executed in order. A transaction is always scheduled in a
+     * later wave than any preceding transaction it conflicts with. A null entry
+     * represents a transaction with unknown conflicts, and acts as a barrier: it
+     * is scheduled alone, after all preceding transactions and before all
+     * following ones. The partitioning is a pure function of the block, so every
+     * replica derives the same schedule.
+     *
+     * @param conflicts - the conflicts of each transaction, in block order
+     * @return the waves of transaction indexes, each wave in block order
+     */
+    public static List<List<Integer>> waves(List<Conflicts> conflicts) {
+        var waves = new ArrayList<List<Integer>>();
+        Map<Object, Integer> lastRead = new HashMap<>();
+        Map<Object, Integer> lastWrite = new HashMap<>();
+        int barrier = -1;
+        for (int i = 0; i < conflicts.size(); i++) {
+            var c = conflicts.get(i);
+            int wave;
+            if (c == null) {
+                wave = waves.size();
+                barrier = wave;
+            } else {
+                int after = barrier;
+                for (var key : c.reads()) {
+                    after = Math.max(after, lastWrite.getOrDefault(key, -1));
+                }
+                for (var key : c.writes()) {
+                    after = Math.max(after, lastWrite.getOrDefault(key, -1));
+                    after = Math.max(after, lastRead.getOrDefault(key, -1));
+                }
+                wave = after + 1;
+                for (var key : c.reads()) {
+                    lastRead.merge(key, wave, Math::max);
+                }
+                for (var key : c.writes()) {
+                    lastWrite.merge(key, wave, Math::max);
+                }
+            }
+            if (wave == waves.size()) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(wave).add(i);
+        }
+        return waves;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.time.Duration;
+
+/**
+ * The group commit policy of the block Store. Blocks are committed once the
+ * number of uncommitted blocks reaches the blocks threshold, or once the
+ * interval has elapsed since the last commit, whichever occurs first. Genesis,
+ * reconfiguration and checkpoint blocks are always committed immediately.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public record DurabilityPolicy(int blocks, Duration interval) {
+
+    /** Commit every block as it is stored */
+    public static final DurabilityPolicy SYNC = new DurabilityPolicy(1, null);
+
+    /** Commit after every n blocks */
+    public static DurabilityPolicy everyBlocks(int n) {
+        return new DurabilityPolicy(n, null);
+    }
+
+    /** Commit the stored blocks on the supplied interval */
+    public static DurabilityPolicy every(Duration interval) {
+        return new DurabilityPolicy(Integer.MAX_VALUE, interval);
+    }
+
+    public boolean elapsed(long lastCommitNanos) {
+        return interval != null && System.nanoTime() - lastCommitNanos >= interval.toNanos();
+    }
+
+    public boolean sync() {
+        return blocks <= 1;
+    }
+}
@@ -48,7 +48,7 @@ public class HashedCertifiedBlock extends HashedBlock {
         this.certifiedBlock = null;
     }
 
-    private HashedCertifiedBlock(Digest hash, CertifiedBlock block) {
+    HashedCertifiedBlock(Digest hash, CertifiedBlock block) {
         super(hash, block.getBlock());
         this.certifiedBlock = block;
     }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.util.List;
+
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.JohnHancock;
+
+/**
+ * A transaction and its canonical hash, computed once when the transaction is
+ * created or first enters the block pipeline, and reused thereafter
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class HashedTransaction {
+
+    /** Canonical hash of the transaction */
+    public static Digest hash(Transaction transaction, DigestAlgorithm algo) {
+        return JohnHancock.from(transaction.getSignature()).toDigest(algo);
+    }
+
+    public static List<HashedTransaction> of(List<Transaction> transactions, DigestAlgorithm algo) {
+        return transactions.stream().map(tx -> new HashedTransaction(algo, tx)).toList();
+    }
+
+    public final Digest      hash;
+    public final Transaction transaction;
+
+    public HashedTransaction(Digest hash, Transaction transaction) {
+        this.hash = hash;
+        this.transaction = transaction;
+    }
+
+    public HashedTransaction(DigestAlgorithm algo, Transaction transaction) {
+        this(hash(transaction, algo), transaction);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof HashedTransaction ht) {
+            return hash.equals(ht.hash);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "htx" + hash.toString();
+    }
+}
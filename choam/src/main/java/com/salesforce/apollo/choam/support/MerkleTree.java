@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * A binary Merkle tree over an ordered list of leaf digests. An interior node
+ * is the digest of its children; a node without a sibling is promoted
+ * unchanged to the next level. The root of an empty tree is the origin of the
+ * digest algorithm
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class MerkleTree {
+    private static final byte[] INTERIOR = new byte[] { 1 };
+
+    /**
+     * Verify the leaf at the index against the root, using the proof of the leaf
+     *
+     * @param algo   - the digest algorithm of the tree
+     * @param root   - the root of the tree
+     * @param index  - the index of the leaf
+     * @param leaves - the number of leaves in the tree
+     * @param leaf   - the leaf digest
+     * @param proof  - the sibling digests from the leaf to the root
+     * @return true if the leaf is a member of the tree at the index
+     */
+    public static boolean verify(DigestAlgorithm algo, Digest root, int index, int leaves, Digest leaf,
+                                 List<Digest> proof) {
+        if (index < 0 || index >= leaves) {
+            return false;
+        }
+        var current = leaf;
+        var siblings = proof.iterator();
+        for (int width = leaves; width > 1; width = (width + 1) / 2) {
+            int sibling = index ^ 1;
+            if (sibling < width) {
+                if (!siblings.hasNext()) {
+                    return false;
+                }
+                current = (index & 1) == 0 ? node(algo, current, siblings.next())
+                                           : node(algo, siblings.next(), current);
+            }
+            index = index / 2;
+        }
+        return !siblings.hasNext() && current.equals(root);
+    }
+
+    private static Digest node(DigestAlgorithm algo, Digest left, Digest right) {
+        return algo.digest(INTERIOR, left.getBytes(), right.getBytes());
+    }
+
+    private final DigestAlgorithm algo;
+    private final List<Digest[]>  levels = new ArrayList<>();
+
+    public MerkleTree(DigestAlgorithm algo, List<Digest> leaves) {
+        this.algo = algo;
+        var level = leaves.toArray(new Digest[leaves.size()]);
+        levels.add(level);
+        while (level.length > 1) {
+            var next = new Digest[(level.length + 1) / 2];
+            for (int i = 0; i < next.length; i++) {
+                int left = i * 2;
+                next[i] = left + 1 < level.length ? node(algo, level[left], level[left + 1]) : level[left];
+            }
+            levels.add(next);
+            level = next;
+        }
+    }
+
+    public Digest leaf(int index) {
+        return levels.get(0)[index];
+    }
+
+    public int leaves() {
+        return levels.get(0).length;
+    }
+
+    /**
+     * Answer the proof of the leaf at the index: the sibling digests on the path
+     * from the leaf to the root
+     */
+    public List<Digest> proof(int index) {
+        var proof = new ArrayList<Digest>();
+        for (int l = 0; l < levels.size() - 1; l++) {
+            var level = levels.get(l);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                proof.add(level[sibling]);
+            }
+            index = index / 2;
+        }
+        return proof;
+    }
+
+    public Digest root() {
+        var top = levels.get(levels.size() - 1);
+        return top.length == 0 ? algo.getOrigin() : top[0];
+    }
+}
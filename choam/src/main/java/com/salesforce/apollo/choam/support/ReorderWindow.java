@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.joou.ULong;
+
+import com.salesforce.apollo.crypto.Digest;
+
+/**
+ * A bounded window of certified blocks received ahead of the head of the
+ * chain, keyed by height. Duplicate blocks are admitted once. Each admitted
+ * block carries the verdict of its certification validation, which may be
+ * computed ahead of the block's turn, in parallel, and is reused when the
+ * block is processed if the validating committee is unchanged.
+ * <p>
+ * The window holds at most <code>capacity</code> blocks. When full, a block
+ * lower than the highest in the window displaces the highest block, as the
+ * lowest blocks are required to make progress, and any other block is
+ * rejected. Rejections are the back pressure signal of the window: they are
+ * counted, reported to the metrics, and answered to the caller, which may
+ * resort to synchronization to close the gap.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class ReorderWindow {
+
+    /**
+     * A block admitted to the window
+     */
+    public static class Entry {
+        public final HashedCertifiedBlock block;
+        private volatile Verdict          verdict;
+
+        private Entry(HashedCertifiedBlock block) {
+            this.block = block;
+        }
+
+        public ULong height() {
+            return block.height();
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [" + block.hash + ", height: " + block.height() + "]";
+        }
+
+        /**
+         * Record the result of validating the block's certifications by the
+         * validator
+         */
+        public void validated(Object validator, boolean valid) {
+            verdict = new Verdict(validator, valid);
+        }
+
+        /**
+         * @return the result of validating the block's certifications by the
+         *         validator, or null if the block has not been validated by the
+         *         validator
+         */
+        public Boolean validatedBy(Object validator) {
+            final var v = verdict;
+            return v == null || v.validator != validator ? null : v.valid;
+        }
+    }
+
+    private record Verdict(Object validator, boolean valid) {}
+
+    private final NavigableMap<ULong, Map<Digest, Entry>> blocks    = new TreeMap<>();
+    private final int                                     capacity;
+    private final ChoamMetrics                            metrics;
+    private final LongAdder                               overflows = new LongAdder();
+    private int                                           size;
+
+    public ReorderWindow(int capacity, ChoamMetrics metrics) {
+        checkArgument(capacity > 0, "invalid capacity: %s", capacity);
+        this.capacity = capacity;
+        this.metrics = metrics;
+    }
+
+    public synchronized void clear() {
+        blocks.clear();
+        size = 0;
+        depth();
+    }
+
+    /**
+     * @return the lowest block in the window, or null if the window is empty
+     */
+    public synchronized Entry first() {
+        final var lowest = blocks.firstEntry();
+        return lowest == null ? null : lowest.getValue().values().iterator().next();
+    }
+
+    public synchronized boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * Admit the block to the window
+     *
+     * @return the admitted entry, or null if the block is a duplicate or the
+     *         window is full
+     */
+    public synchronized Entry offer(HashedCertifiedBlock block) {
+        final var height = block.height();
+        final var existing = blocks.get(height);
+        if (existing != null && existing.containsKey(block.hash)) {
+            return null;
+        }
+        if (size >= capacity) {
+            final var highest = blocks.lastKey();
+            if (height.compareTo(highest) >= 0) {
+                overflow();
+                return null;
+            }
+            final var displaced = blocks.get(highest);
+            final Iterator<Entry> last = displaced.values().iterator();
+            last.next();
+            last.remove();
+            size--;
+            if (displaced.isEmpty()) {
+                blocks.remove(highest);
+            }
+            overflow();
+        }
+        final var entry = new Entry(block);
+        blocks.computeIfAbsent(height, h -> new LinkedHashMap<>()).put(block.hash, entry);
+        size++;
+        depth();
+        return entry;
+    }
+
+    /**
+     * @return the number of blocks rejected or displaced because the window was
+     *         full
+     */
+    public long overflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * Remove and answer the lowest block in the window
+     */
+    public synchronized HashedCertifiedBlock poll() {
+        final var lowest = first();
+        if (lowest == null) {
+            return null;
+        }
+        remove(lowest);
+        return lowest.block;
+    }
+
+    /**
+     * Remove all blocks at or below the height
+     */
+    public synchronized void prune(ULong height) {
+        final var pruned = blocks.headMap(height, true);
+        pruned.values().forEach(m -> size -= m.size());
+        pruned.clear();
+        depth();
+    }
+
+    public synchronized boolean remove(Entry entry) {
+        final var height = entry.height();
+        final var atHeight = blocks.get(height);
+        if (atHeight == null || atHeight.get(entry.block.hash) != entry) {
+            return false;
+        }
+        atHeight.remove(entry.block.hash);
+        if (atHeight.isEmpty()) {
+            blocks.remove(height);
+        }
+        size--;
+        depth();
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void depth() {
+        if (metrics != null) {
+            metrics.reorderWindow(size);
+        }
+    }
+
+    private void overflow() {
+        overflows.increment();
+        if (metrics != null) {
+            metrics.reorderWindowOverflow();
+        }
+    }
+}
@@ -17,10 +17,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.StreamSupport;
 
 import org.h2.mvstore.MVMap;
@@ -48,6 +51,44 @@ import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
  */
 public class Store {
 
+    /**
+     * The entries of the height of a block prior to its put, restored should the
+     * put fail
+     */
+    private record Prior(byte[] block, byte[] certifications, Digest hash, ULong height, ULong viewChain,
+                         boolean uncommitted) {
+
+        private static Prior of(Store store, HashedCertifiedBlock cb) {
+            final var height = cb.height();
+            return new Prior(store.blocks.get(height), store.certifications.get(height), store.hashes.get(height),
+                             store.hashToHeight.get(cb.hash), store.viewChain.get(height),
+                             store.uncommitted.contains(height));
+        }
+
+        private static <K, V> void restore(MVMap<K, V> map, K key, V prior) {
+            if (prior == null) {
+                map.remove(key);
+            } else {
+                map.put(key, prior);
+            }
+        }
+
+        private void restore(Store store, HashedCertifiedBlock cb) {
+            final var height = cb.height();
+            restore(store.blocks, height, block);
+            restore(store.certifications, height, certifications);
+            restore(store.hashes, height, hash);
+            restore(store.hashToHeight, cb.hash, this.height);
+            restore(store.viewChain, height, viewChain);
+            if (!uncommitted) {
+                store.uncommitted.remove(height);
+            }
+            store.cache.remove(height);
+        }
+    }
+
+    public static final long DEFAULT_CACHE_BYTES = 32 * 1024 * 1024;
+
     private static final String BLOCKS              = "BLOCKS";
     private static final String CERTIFICATIONS      = "CERTIFICATIONS";
     private static final String CHECKPOINT_TEMPLATE = "CHECKPOINT-%s";
@@ -57,29 +98,56 @@ public class Store {
     private static final String VIEW_CHAIN          = "VIEW_CHAIN";
 
     private final MVMap<ULong, byte[]>                   blocks;
+    private final BlockCache                             cache;
+    private final LongAdder                              canonicalBytes = new LongAdder();
     private final MVMap<ULong, byte[]>                   certifications;
-    private final TreeMap<ULong, MVMap<Integer, byte[]>> checkpoints = new TreeMap<>();
+    private final TreeMap<ULong, MVMap<Integer, byte[]>> checkpoints    = new TreeMap<>();
+    private final BlockCodec                             codec;
     private final DigestAlgorithm                        digestAlgorithm;
+    private volatile ULong                               durable;
+    private final DurabilityPolicy                       durability;
+    private final LongAdder                              encodedBytes   = new LongAdder();
     private final MVMap<ULong, Digest>                   hashes;
     private final MVMap<Digest, ULong>                   hashToHeight;
+    private long                                         lastCommit     = System.nanoTime();
+    private final ChoamMetrics                           metrics;
+    private final Set<ULong>                             uncommitted    = ConcurrentHashMap.newKeySet();
     private final MVMap<ULong, ULong>                    viewChain;
 
     public Store(DigestAlgorithm digestAlgorithm, MVStore store) {
+        this(digestAlgorithm, store, DurabilityPolicy.SYNC);
+    }
+
+    public Store(DigestAlgorithm digestAlgorithm, MVStore store, DurabilityPolicy durability) {
+        this(digestAlgorithm, store, durability, DEFAULT_CACHE_BYTES, BlockCodec.NONE, null);
+    }
+
+    public Store(DigestAlgorithm digestAlgorithm, MVStore store, DurabilityPolicy durability, long cacheBytes,
+                 BlockCodec codec, ChoamMetrics metrics) {
         this.digestAlgorithm = digestAlgorithm;
+        this.durability = durability;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.cache = new BlockCache(cacheBytes, metrics);
         hashes = store.openMap(HASHES, new MVMap.Builder<ULong, Digest>().valueType(new DigestType()));
         blocks = store.openMap(BLOCKS);
         hashToHeight = store.openMap(HASH_TO_HEIGHT, new MVMap.Builder<Digest, ULong>().keyType(new DigestType()));
         certifications = store.openMap(CERTIFICATIONS);
         viewChain = store.openMap(VIEW_CHAIN);
+        durable = blocks.lastKey();
+        if (!durability.sync() && store.getAutoCommitDelay() > 0) {
+            log.warn("Disabling auto commit of the store, as blocks are committed by the durability policy");
+            store.setAutoCommitDelay(0);
+        }
     }
 
     public byte[] block(Digest hash) {
         ULong height = hashToHeight.get(hash);
-        return height == null ? null : blocks.get(height);
+        return height == null ? null : bits(height);
     }
 
     public byte[] block(ULong height) {
-        return blocks.get(height);
+        return bits(height);
     }
 
     public Iterator<ULong> blocksFrom(ULong from, ULong to, int max) {
@@ -147,6 +215,15 @@ public class Store {
         return lastViewChainFrom(from).equals(ULong.valueOf(0));
     }
 
+    /**
+     * @return the ratio of the encoded size to the canonical size of the blocks
+     *         encoded by this store, 1.0 if none have been encoded
+     */
+    public double compressionRatio() {
+        final var canonical = canonicalBytes.sum();
+        return canonical == 0 ? 1.0 : (double) encodedBytes.sum() / canonical;
+    }
+
     public boolean containsBlock(ULong l) {
         return blocks.containsKey(l);
     }
@@ -155,9 +232,18 @@ public class Store {
         return blocks.store.openMap(String.format(CHECKPOINT_TEMPLATE, blockHeight));
     }
 
+    /**
+     * @return the highest block height committed to the underlying store, or null
+     *         if no blocks have been committed
+     */
+    public ULong durableHeight() {
+        return durable;
+    }
+
     public void fetchBlocks(BloomFilter<ULong> blocksBff, Blocks.Builder replication, int max, ULong from,
                             ULong to) throws IllegalStateException {
         StreamSupport.stream(((Iterable<ULong>) () -> blocksFrom(from, to, max)).spliterator(), false)
+                     .filter(s -> isDurable(s))
                      .filter(s -> !blocksBff.contains(s))
                      .map(height -> getCertifiedBlock(height))
                      .forEach(block -> replication.addBlocks(block));
@@ -166,11 +252,41 @@ public class Store {
     public void fetchViewChain(BloomFilter<ULong> chainBff, Blocks.Builder replication, int maxChainCount,
                                ULong incompleteStart, ULong target) throws IllegalStateException {
         StreamSupport.stream(((Iterable<ULong>) () -> viewChainFrom(incompleteStart, target)).spliterator(), false)
+                     .filter(s -> isDurable(s))
                      .filter(s -> !chainBff.contains(s))
                      .map(height -> getCertifiedBlock(height))
                      .forEach(block -> replication.addBlocks(block));
     }
 
+    /**
+     * Answer the lazy iteration of the durable certified blocks from the height
+     * down to the target height, inclusive, excluding those in the filter
+     */
+    public Iterator<CertifiedBlock> streamBlocks(BloomFilter<ULong> blocksBff, ULong from, ULong to) {
+        Iterable<ULong> heights = () -> blocks.keyIteratorReverse(from);
+        return StreamSupport.stream(heights.spliterator(), false)
+                            .takeWhile(h -> h.compareTo(to) >= 0)
+                            .filter(h -> isDurable(h))
+                            .filter(h -> !blocksBff.contains(h))
+                            .map(h -> getCertifiedBlock(h))
+                            .filter(cb -> cb != null)
+                            .iterator();
+    }
+
+    /**
+     * Answer the lazy iteration of the durable certified blocks of the view chain
+     * from the height down to the target height, excluding those in the filter
+     */
+    public Iterator<CertifiedBlock> streamViewChain(BloomFilter<ULong> chainBff, ULong from, ULong to) {
+        Iterable<ULong> heights = () -> viewChainFrom(from, to);
+        return StreamSupport.stream(heights.spliterator(), false)
+                            .filter(h -> isDurable(h))
+                            .filter(h -> !chainBff.contains(h))
+                            .map(h -> getCertifiedBlock(h))
+                            .filter(cb -> cb != null)
+                            .iterator();
+    }
+
     public ULong firstGap(ULong from, ULong to) {
         ULong current = from;
         while (current.compareTo(to) > 0) {
@@ -201,42 +317,49 @@ public class Store {
     }
 
     public HashedBlock getBlock(ULong height) {
-        byte[] block = block(height);
-        try {
-            return block == null ? null : new HashedBlock(hash(height), Block.parseFrom(block));
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Cannot deserialize block height: {}", height, e);
-            return null;
-        }
+        return cached(height);
     }
 
     public byte[] getBlockBits(ULong height) {
-        return blocks.get(height);
+        return bits(height);
+    }
+
+    public BlockCache getCache() {
+        return cache;
     }
 
     public CertifiedBlock getCertifiedBlock(ULong height) {
-        CertifiedBlock.Builder builder = CertifiedBlock.newBuilder();
-        HashedBlock block = getBlock(height);
-        if (block != null) {
-            builder.setBlock(block.block);
-        } else {
-            return null;
-        }
-        List<Certification> certs = certifications(height);
-        if (certs != null) {
-            builder.addAllCertifications(certs);
+        final var cb = cached(height);
+        return cb == null ? null : cb.certifiedBlock;
+    }
+
+    public HashedCertifiedBlock getHashedCertifiedBlock(Digest hash) {
+        final var cb = cache.get(hash);
+        if (cb != null) {
+            return cb;
         }
-        return builder.build();
+        ULong height = hashToHeight.get(hash);
+        // the miss is already counted by the lookup of the hash
+        return height == null ? null : load(height);
     }
 
     public HashedCertifiedBlock getLastBlock() {
         ULong lastBlock = blocks.lastKey();
-        return lastBlock == null ? null : new HashedCertifiedBlock(digestAlgorithm, getCertifiedBlock(lastBlock));
+        return lastBlock == null ? null : cached(lastBlock);
     }
 
     public HashedCertifiedBlock getLastView() {
         ULong lastView = checkpoints.lastKey();
-        return new HashedCertifiedBlock(digestAlgorithm, getCertifiedBlock(lastView));
+        return cached(lastView);
+    }
+
+    /**
+     * Commit all blocks buffered by the durability policy
+     */
+    public synchronized void flush() {
+        if (!uncommitted.isEmpty()) {
+            commit();
+        }
     }
 
     public Digest hash(ULong height) {
@@ -247,6 +370,14 @@ public class Store {
         return hashes;
     }
 
+    /**
+     * @return true if the block at the height has been committed to the
+     *         underlying store
+     */
+    public boolean isDurable(ULong height) {
+        return !uncommitted.contains(height) && blocks.containsKey(height);
+    }
+
     public ULong lastViewChainFrom(ULong height) {
         ULong last = height;
         ULong next = viewChain.get(height);
@@ -263,14 +394,26 @@ public class Store {
         return last;
     }
 
-    public void put(HashedCertifiedBlock cb) {
-        transactionally(() -> {
-            Certifications certs = Certifications.newBuilder()
-                                                 .addAllCerts(cb.certifiedBlock.getCertificationsList())
-                                                 .build();
-            put(cb.hash, cb.block);
-            certifications.put(cb.height(), certs.toByteArray());
-        });
+    /**
+     * Store the certified block. The block, its hash, height and certifications
+     * are written atomically with respect to commits of the store. Should the put
+     * fail, only the writes of the block are undone, and the buffered writes of
+     * other blocks are retained
+     */
+    public synchronized void put(HashedCertifiedBlock cb) {
+        final var prior = Prior.of(this, cb);
+        uncommitted.add(cb.height());
+        try {
+            write(cb);
+            if (durability.sync()) {
+                commit();
+                return;
+            }
+        } catch (RuntimeException e) {
+            prior.restore(this, cb);
+            throw e;
+        }
+        buffered(cb);
     }
 
     public MVMap<Integer, byte[]> putCheckpoint(ULong blockHeight, File state, Checkpoint checkpoint) {
@@ -301,8 +444,11 @@ public class Store {
         }
     }
 
-    public void rollbackTo(long version) {
+    public synchronized void rollbackTo(long version) {
         blocks.store.rollbackTo(version);
+        cache.clear();
+        uncommitted.clear();
+        durable = blocks.lastKey();
     }
 
     public void validate(ULong from, ULong to) throws IllegalStateException {
@@ -395,13 +541,60 @@ public class Store {
         };
     }
 
+    /**
+     * Answer the canonical serialized block at the height
+     */
+    private byte[] bits(ULong height) {
+        final var stored = blocks.get(height);
+        if (!BlockCodec.isEncoded(stored)) {
+            return stored;
+        }
+        final var start = System.nanoTime();
+        final var canonical = BlockCodec.decode(stored);
+        if (metrics != null) {
+            metrics.blockDecoded(System.nanoTime() - start);
+        }
+        return canonical;
+    }
+
+    private synchronized void buffered(HashedCertifiedBlock cb) {
+        final var block = cb.block;
+        if (block.hasGenesis() || block.hasReconfigure() || block.hasCheckpoint() ||
+            uncommitted.size() >= durability.blocks() || durability.elapsed(lastCommit)) {
+            commit();
+        }
+    }
+
+    /**
+     * Answer the decoded certified block at the height, from the cache if present,
+     * otherwise decoded from the store and cached
+     */
+    private HashedCertifiedBlock cached(ULong height) {
+        var cb = cache.get(height);
+        if (cb != null) {
+            return cb;
+        }
+        return load(height);
+    }
+
+    private synchronized void commit() {
+        blocks.store.commit();
+        for (var height : uncommitted) {
+            if (durable == null || height.compareTo(durable) > 0) {
+                durable = height;
+            }
+        }
+        uncommitted.clear();
+        lastCommit = System.nanoTime();
+    }
+
     private void delete(ULong block) {
         if (viewChain.containsKey(block)) {
             log.trace("Retaining reconfiguration: {}", block);
             return;
         }
         transactionally(() -> {
-            var bytes = blocks.remove(block);
+            var bytes = BlockCodec.decode(blocks.remove(block));
             if (bytes != null) {
                 try {
                     final var b = Block.parseFrom(bytes);
@@ -413,12 +606,13 @@ public class Store {
             certifications.remove(block);
             var digest = hashes.remove(block);
             hashToHeight.remove(digest);
+            cache.remove(block);
         });
     }
 
     private void put(Digest hash, Block block) {
         ULong height = height(block);
-        blocks.put(height, block.toByteArray());
+        blocks.put(height, encode(block.toByteArray()));
         hashes.put(height, hash);
         hashToHeight.put(hash, height);
         if (block.hasReconfigure() || block.hasGenesis()) {
@@ -428,24 +622,90 @@ public class Store {
         log.trace("insert: {}:{}", height, hash);
     }
 
-    private <T> T transactionally(Callable<T> action) throws ExecutionException {
+    private byte[] encode(byte[] canonical) {
+        if (codec == BlockCodec.NONE) {
+            return canonical;
+        }
+        final var start = System.nanoTime();
+        final var encoded = codec.encode(canonical);
+        canonicalBytes.add(canonical.length);
+        encodedBytes.add(encoded.length);
+        if (metrics != null) {
+            metrics.blockEncoded(canonical.length, encoded.length, System.nanoTime() - start);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decode the certified block at the height from the store and cache it,
+     * without counting a cache lookup
+     */
+    private HashedCertifiedBlock load(ULong height) {
+        final var generation = cache.generation();
+        byte[] bits = bits(height);
+        if (bits == null) {
+            return null;
+        }
+        Block block;
+        try {
+            block = Block.parseFrom(bits);
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Cannot deserialize block height: {}", height, e);
+            return null;
+        }
+        var builder = CertifiedBlock.newBuilder().setBlock(block);
+        List<Certification> certs = certifications(height);
+        if (certs != null) {
+            builder.addAllCertifications(certs);
+        }
+        Digest hash = hash(height);
+        final var cb = hash == null ? new HashedCertifiedBlock(digestAlgorithm, builder.build())
+                                    : new HashedCertifiedBlock(hash, builder.build());
+        cache.load(cb, generation);
+        return cb;
+    }
+
+    /**
+     * Roll back the uncommitted writes of the store. As the writes buffered by the
+     * durability policy are committed before each transaction, only the writes of
+     * the failed transaction are discarded
+     */
+    private synchronized void rollback() {
+        blocks.store.rollback();
+        cache.clear();
+        uncommitted.clear();
+        durable = blocks.lastKey();
+    }
+
+    private synchronized <T> T transactionally(Callable<T> action) throws ExecutionException {
+        flush();
         try {
             T result = action.call();
-            blocks.store.commit();
+            commit();
             return result;
         } catch (Throwable t) {
-            blocks.store.rollback();
+            rollback();
             throw new ExecutionException(t);
         }
     }
 
-    private void transactionally(Runnable action) {
+    private synchronized void transactionally(Runnable action) {
+        flush();
         try {
             action.run();
-            blocks.store.commit();
+            commit();
         } catch (Exception t) {
-            blocks.store.rollback();
+            rollback();
             throw t;
         }
     }
+
+    private void write(HashedCertifiedBlock cb) {
+        Certifications certs = Certifications.newBuilder()
+                                             .addAllCerts(cb.certifiedBlock.getCertificationsList())
+                                             .build();
+        put(cb.hash, cb.block);
+        certifications.put(cb.height(), certs.toByteArray());
+        cache.put(cb);
+    }
 }
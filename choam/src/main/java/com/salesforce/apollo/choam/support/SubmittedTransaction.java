@@ -18,4 +18,9 @@ import com.salesforce.apollo.crypto.Digest;
  */
 @SuppressWarnings("rawtypes")
 public record SubmittedTransaction(Digest hash, Transaction transaction, CompletableFuture onCompletion,
-                                   Timer.Context timer) {}
+                                   Timer.Context timer) {
+
+    public SubmittedTransaction(HashedTransaction hashed, CompletableFuture onCompletion, Timer.Context timer) {
+        this(hashed.hash, hashed.transaction, onCompletion, timer);
+    }
+}
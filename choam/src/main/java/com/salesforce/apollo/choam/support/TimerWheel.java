@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hashed timer wheel, for tracking large numbers of timeouts that are almost
+ * always cancelled before they expire. Scheduling and cancelling are constant
+ * time and allocate a single entry; there is no per timeout task submitted to a
+ * scheduler. The wheel is driven by periodic calls to advance(), and timeouts
+ * expire with the resolution of the tick
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class TimerWheel {
+    public class Timeout {
+        private final Runnable      action;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final long          tick;
+
+        private Timeout(long tick, Runnable action) {
+            this.tick = tick;
+            this.action = action;
+        }
+
+        /**
+         * Cancel the timeout
+         *
+         * @return true if the timeout was cancelled before it expired
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    action.run();
+                } catch (Throwable t) {
+                    log.warn("Error running timeout", t);
+                }
+            }
+        }
+
+        private boolean isPending() {
+            return state.get() == PENDING;
+        }
+    }
+
+    private static final int    CANCELLED = 2;
+    private static final int    EXPIRED   = 1;
+    private static final Logger log       = LoggerFactory.getLogger(TimerWheel.class);
+    private static final int    PENDING   = 0;
+
+    private final Queue<Timeout>[] buckets;
+    private final AtomicLong       current = new AtomicLong();
+    private final int              mask;
+    private final long             start   = System.nanoTime();
+    private final long             tickNanos;
+
+    /**
+     * @param tick    - the resolution of the wheel
+     * @param buckets - the number of buckets in the wheel, rounded up to a power
+     *                of 2
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(Duration tick, int buckets) {
+        this.tickNanos = Math.max(1, tick.toNanos());
+        int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Advance the wheel to the current time, expiring the timeouts that are due
+     */
+    public void advance() {
+        final long now = (System.nanoTime() - start) / tickNanos;
+        for (long tick = current.get(); tick < now; tick = current.get()) {
+            final long next = tick + 1;
+            current.set(next);
+            var bucket = buckets[(int) (next & mask)];
+            for (var it = bucket.iterator(); it.hasNext();) {
+                var timeout = it.next();
+                if (!timeout.isPending()) {
+                    it.remove();
+                } else if (timeout.tick <= next) {
+                    it.remove();
+                    timeout.expire();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule the action to run after the delay
+     *
+     * @return the Timeout, which may be cancelled
+     */
+    public Timeout schedule(Runnable action, Duration delay) {
+        final long deadline = (System.nanoTime() - start + delay.toNanos() + tickNanos - 1) / tickNanos;
+        final var timeout = new Timeout(Math.max(current.get() + 1, deadline), action);
+        buckets[(int) (timeout.tick & mask)].add(timeout);
+        if (timeout.tick <= current.get()) {
+            // raced with advance() past the bucket, so expire now rather than on the next revolution
+            timeout.expire();
+        }
+        return timeout;
+    }
+}
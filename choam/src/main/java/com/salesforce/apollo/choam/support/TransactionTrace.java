@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.salesforce.apollo.crypto.Digest;
+
+/**
+ * The lifecycle trace of a sampled transaction. Records the instant each stage
+ * of the transaction's lifecycle was first observed by this member. Stages
+ * observed on other members are absent from the trace.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class TransactionTrace {
+
+    /**
+     * The stages of the transaction lifecycle, in order
+     */
+    public enum Stage {
+        /** Submitted to the Session */
+        SUBMITTED,
+        /** Accepted into the TxDataSource of a committee member */
+        BUFFERED,
+        /** Included in the unit data of an Ethereal unit */
+        UNIT,
+        /** Ordered in an Ethereal preblock */
+        PREBLOCK,
+        /** Included in a certified block accepted by this member */
+        CERTIFIED,
+        /** Execution started by the TransactionExecutor */
+        EXECUTING,
+        /** Executed by the TransactionExecutor */
+        EXECUTED,
+        /** The Session's future completed */
+        COMPLETED;
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final Digest          hash;
+    private final AtomicLongArray observed  = new AtomicLongArray(STAGES.length);
+    private final AtomicInteger   published = new AtomicInteger();
+
+    public TransactionTrace(Digest hash) {
+        this.hash = hash;
+    }
+
+    public Digest getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the latency of the stage, measured from the observation of the
+     *         preceding stage, or null if either was not observed by this member
+     */
+    public Duration latency(Stage stage) {
+        final var nanos = latencyNanos(stage);
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * @return the System.nanoTime() the stage was observed, or 0 if not observed
+     *         by this member
+     */
+    public long observed(Stage stage) {
+        return observed.get(stage.ordinal());
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("TransactionTrace [").append(hash);
+        for (var stage : STAGES) {
+            final var latency = latency(stage);
+            if (latency != null) {
+                builder.append(", ").append(stage).append('=').append(latency.toNanos() / 1_000).append("us");
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Answer the latency of the stage in nanoseconds, or -1 if not measurable
+     */
+    long latencyNanos(Stage stage) {
+        if (stage.ordinal() == 0) {
+            return -1;
+        }
+        final var from = observed.get(stage.ordinal() - 1);
+        final var to = observed.get(stage.ordinal());
+        if (from == 0 || to == 0) {
+            return -1;
+        }
+        return Math.max(0, to - from);
+    }
+
+    /**
+     * Observe the stage, if not already observed
+     *
+     * @return true if this is the first observation of the stage
+     */
+    boolean observe(Stage stage, long nanos) {
+        return observed.compareAndSet(stage.ordinal(), 0, nanos == 0 ? 1 : nanos);
+    }
+
+    /**
+     * Claim the publication of the stage's latency, so that it is recorded at
+     * most once
+     */
+    boolean publish(Stage stage) {
+        final var bit = 1 << stage.ordinal();
+        while (true) {
+            final var current = published.get();
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (published.compareAndSet(current, current | bit)) {
+                return true;
+            }
+        }
+    }
+}
@@ -21,6 +21,8 @@ import com.salesfoce.apollo.choam.proto.Reassemble;
 import com.salesfoce.apollo.choam.proto.Transaction;
 import com.salesfoce.apollo.choam.proto.UnitData;
 import com.salesfoce.apollo.choam.proto.Validate;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.ethereal.DataSource;
 import com.salesforce.apollo.membership.Member;
 import com.salesforce.apollo.utils.BatchingQueue;
@@ -34,6 +36,9 @@ import com.salesforce.apollo.utils.BatchingQueue;
  * the remaining capacity is reduced by the max buffer size. The receiver will
  * not accept any more data after the capacity has been used, regardless of
  * whether there is space available.
+ * <p>
+ * If supplied an {@link AdaptiveBatchPolicy}, the batch interval and unit byte
+ * size are adapted to the depth of the transaction queue after each unit.
  * 
  * @author hal.hildebrand
  *
@@ -42,23 +47,38 @@ public class TxDataSource implements DataSource {
 
     private final static Logger log = LoggerFactory.getLogger(TxDataSource.class);
 
-    private final Duration                   batchInterval;
-    private volatile Thread                  blockingThread;
-    private final AtomicBoolean              draining     = new AtomicBoolean();
-    private final ExponentialBackoffPolicy   drainPolicy;
-    private final Member                     member;
-    private final ChoamMetrics               metrics;
-    private final BatchingQueue<Transaction> processing;
-    private final BlockingQueue<Reassemble>  reassemblies = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Validate>    validations  = new LinkedBlockingQueue<>();
+    private final Duration                         batchInterval;
+    private final AdaptiveBatchPolicy              batchPolicy;
+    private volatile Thread                        blockingThread;
+    private final DigestAlgorithm                  digestAlgorithm;
+    private final AtomicBoolean                    draining     = new AtomicBoolean();
+    private final ExponentialBackoffPolicy         drainPolicy;
+    private final int                              maxBatchByteSize;
+    private final Member                           member;
+    private final ChoamMetrics                     metrics;
+    private final BatchingQueue<HashedTransaction> processing;
+    private final BlockingQueue<Reassemble>        reassemblies = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Validate>          validations  = new LinkedBlockingQueue<>();
 
     public TxDataSource(Member member, int maxElements, ChoamMetrics metrics, int maxBatchByteSize,
                         Duration batchInterval, int maxBatchCount, ExponentialBackoffPolicy drainPolicy) {
+        this(member, maxElements, metrics, maxBatchByteSize, batchInterval, maxBatchCount, drainPolicy, null,
+             DigestAlgorithm.DEFAULT);
+    }
+
+    public TxDataSource(Member member, int maxElements, ChoamMetrics metrics, int maxBatchByteSize,
+                        Duration batchInterval, int maxBatchCount, ExponentialBackoffPolicy drainPolicy,
+                        AdaptiveBatchPolicy batchPolicy, DigestAlgorithm digestAlgorithm) {
         this.member = member;
+        this.digestAlgorithm = digestAlgorithm;
         this.batchInterval = batchInterval;
         this.drainPolicy = drainPolicy;
-        processing = new BatchingQueue<Transaction>(maxElements, maxBatchCount, tx -> tx.toByteString().size(),
-                                                    maxBatchByteSize);
+        this.maxBatchByteSize = maxBatchByteSize;
+        this.batchPolicy = batchPolicy;
+        processing = new BatchingQueue<HashedTransaction>(maxElements, maxBatchCount,
+                                                          htx -> htx.transaction.getSerializedSize(),
+                                                          batchPolicy == null ? maxBatchByteSize
+                                                                              : batchPolicy.byteSize());
         this.metrics = metrics;
     }
 
@@ -117,14 +137,20 @@ public class TxDataSource implements DataSource {
                 }
             } else {
                 try {
-                    var batch = processing.take(batchInterval);
+                    var batch = processing.take(batchPolicy == null ? batchInterval : batchPolicy.interval());
                     if (batch != null) {
-                        builder.addAllTransactions(batch);
+                        for (var htx : batch) {
+                            builder.addTransactions(htx.transaction);
+                            if (metrics != null) {
+                                metrics.traced(Stage.UNIT, htx);
+                            }
+                        }
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     return ByteString.EMPTY;
                 }
+                adapt();
             }
 
             // One more time into ye breech
@@ -166,7 +192,7 @@ public class TxDataSource implements DataSource {
         reassemblies.offer(reassembly);
     }
 
-    public boolean offer(Transaction txn) {
+    public boolean offer(HashedTransaction txn) {
         if (!draining.get()) {
             return processing.offer(txn);
         } else {
@@ -174,7 +200,26 @@ public class TxDataSource implements DataSource {
         }
     }
 
+    public boolean offer(Transaction txn) {
+        return offer(new HashedTransaction(digestAlgorithm, txn));
+    }
+
     public void offer(Validate generateValidation) {
         validations.offer(generateValidation);
     }
+
+    private void adapt() {
+        final var depth = processing.size();
+        if (batchPolicy != null) {
+            batchPolicy.adapt(depth);
+            processing.setMaxByteSize(batchPolicy.byteSize());
+        }
+        if (metrics != null) {
+            if (batchPolicy == null) {
+                metrics.batchParameters(depth, batchInterval, maxBatchByteSize);
+            } else {
+                metrics.batchParameters(depth, batchPolicy.interval(), batchPolicy.byteSize());
+            }
+        }
+    }
 }
@@ -7,18 +7,24 @@
 package com.salesforce.apollo.choam;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
@@ -33,10 +39,14 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.salesfoce.apollo.choam.proto.SubmitResult;
 import com.salesfoce.apollo.choam.proto.SubmitResult.Result;
+import com.salesfoce.apollo.choam.proto.SubmitResults;
 import com.salesfoce.apollo.test.proto.ByteMessage;
 import com.salesforce.apollo.choam.Parameters.RuntimeParameters;
+import com.salesforce.apollo.choam.support.ExponentialBackoffPolicy;
 import com.salesforce.apollo.choam.support.InvalidTransaction;
 import com.salesforce.apollo.choam.support.SubmittedTransaction;
+import com.salesforce.apollo.choam.support.TransactionFailed;
+import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.membership.Context;
 import com.salesforce.apollo.membership.ContextImpl;
@@ -59,6 +69,132 @@ public class SessionTest {
         });
     }
 
+    @Test
+    public void batched() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        Context<Member> context = new ContextImpl<>(DigestAlgorithm.DEFAULT.getOrigin(), 9, 0.2, 2);
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        Parameters params = Parameters.newBuilder()
+                                      .setSubmitBatchSize(10)
+                                      .setSubmitBatchInterval(Duration.ofMillis(1))
+                                      .build(RuntimeParameters.newBuilder()
+                                                              .setContext(context)
+                                                              .setMember(new ControlledIdentifierMember(new StereotomyImpl(new MemKeyStore(),
+                                                                                                                           new MemKERL(DigestAlgorithm.DEFAULT),
+                                                                                                                           entropy).newIdentifier()
+                                                                                                                                   .get()))
+                                                              .build());
+        var batches = new AtomicInteger();
+        Session session = new Session(params, stx -> {
+            throw new IllegalStateException("Should not be called");
+        }, batch -> {
+            batches.incrementAndGet();
+            var results = SubmitResults.newBuilder();
+            batch.forEach(stx -> {
+                results.addResults(SubmitResult.newBuilder().setResult(Result.PUBLISHED));
+                ForkJoinPool.commonPool().execute(() -> {
+                    try {
+                        stx.onCompletion()
+                           .complete(ByteMessage.parseFrom(stx.transaction().getContent())
+                                                .getContents()
+                                                .toStringUtf8());
+                    } catch (InvalidProtocolBufferException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            });
+            return CompletableFuture.completedFuture(results.build());
+        });
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            Message tx = ByteMessage.newBuilder().setContents(ByteString.copyFromUtf8("Txn: " + i)).build();
+            futures.add(session.submitAsync(tx, null, scheduler));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("Txn: " + i, futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(0, session.submitted());
+        assertTrue(batches.get() < futures.size());
+
+        session.stop();
+
+        Session unresponsive = new Session(params, stx -> null, batch -> new CompletableFuture<>());
+        Message tx = ByteMessage.newBuilder().setContents(ByteString.copyFromUtf8("Timeout")).build();
+        var timeout = unresponsive.submitAsync(tx, Duration.ofMillis(10), scheduler);
+        var e = assertThrows(ExecutionException.class, () -> timeout.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, unresponsive.submitted());
+        unresponsive.stop();
+    }
+
+    @Test
+    public void batchedBackoff() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        Context<Member> context = new ContextImpl<>(DigestAlgorithm.DEFAULT.getOrigin(), 9, 0.2, 2);
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        Parameters params = Parameters.newBuilder()
+                                      .setSubmitBatchSize(10)
+                                      .setSubmitBatchInterval(Duration.ofMillis(1))
+                                      .setSubmitPolicy(ExponentialBackoffPolicy.newBuilder()
+                                                                               .setInitialBackoff(Duration.ofMillis(1))
+                                                                               .setMaxBackoff(Duration.ofMillis(5)))
+                                      .build(RuntimeParameters.newBuilder()
+                                                              .setContext(context)
+                                                              .setMember(new ControlledIdentifierMember(new StereotomyImpl(new MemKeyStore(),
+                                                                                                                           new MemKERL(DigestAlgorithm.DEFAULT),
+                                                                                                                           entropy).newIdentifier()
+                                                                                                                                   .get()))
+                                                              .build());
+
+        // The committee's buffer is full for the first two submissions of each
+        // transaction
+        var attempts = new ConcurrentHashMap<Digest, AtomicInteger>();
+        Session session = new Session(params, stx -> {
+            throw new IllegalStateException("Should not be called");
+        }, batch -> {
+            var results = SubmitResults.newBuilder();
+            batch.forEach(stx -> {
+                if (attempts.computeIfAbsent(stx.hash(), h -> new AtomicInteger()).incrementAndGet() <= 2) {
+                    results.addResults(SubmitResult.newBuilder().setResult(Result.BUFFER_FULL));
+                    return;
+                }
+                results.addResults(SubmitResult.newBuilder().setResult(Result.PUBLISHED));
+                stx.onCompletion().complete(stx.hash());
+            });
+            return CompletableFuture.completedFuture(results.build());
+        });
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Message tx = ByteMessage.newBuilder().setContents(ByteString.copyFromUtf8("Txn: " + i)).build();
+            futures.add(session.submitAsync(tx, Duration.ofSeconds(10), scheduler));
+        }
+        for (var f : futures) {
+            var hash = (Digest) f.get(5, TimeUnit.SECONDS);
+            assertEquals(3, attempts.get(hash).get());
+        }
+        assertEquals(0, session.submitted());
+        session.stop();
+
+        // Resubmission ends at the transaction's timeout
+        var submissions = new AtomicInteger();
+        Session full = new Session(params, stx -> null, batch -> {
+            submissions.addAndGet(batch.size());
+            var results = SubmitResults.newBuilder();
+            batch.forEach(stx -> results.addResults(SubmitResult.newBuilder().setResult(Result.BUFFER_FULL)));
+            return CompletableFuture.completedFuture(results.build());
+        });
+        Message tx = ByteMessage.newBuilder().setContents(ByteString.copyFromUtf8("Full")).build();
+        var failed = full.submitAsync(tx, Duration.ofMillis(100), scheduler);
+        var e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionFailed || e.getCause() instanceof TimeoutException,
+                   "Unexpected failure: " + e.getCause());
+        assertTrue(submissions.get() > 1, "Not resubmitted: " + submissions.get());
+        assertEquals(0, full.submitted());
+        full.stop();
+    }
+
     @Test
     public void func() throws Exception {
         ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
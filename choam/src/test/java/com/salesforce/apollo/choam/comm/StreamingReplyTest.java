@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.comm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class StreamingReplyTest {
+
+    private static class Reply {
+        private final Runnable                          onCancel;
+        private final Runnable                          onReady;
+        private final ServerCallStreamObserver<Integer> observer;
+        private final AtomicBoolean                     ready = new AtomicBoolean(true);
+        private final StreamingReply<Integer>           reply;
+        private final List<Integer>                     sent  = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        private Reply(int window) {
+            observer = mock(ServerCallStreamObserver.class);
+            when(observer.isReady()).then(invocation -> ready.get());
+            doAnswer(invocation -> {
+                sent.add(invocation.getArgument(0));
+                if (window > 0 && sent.size() % window == 0) {
+                    ready.set(false);
+                }
+                return null;
+            }).when(observer).onNext(any());
+            reply = new StreamingReply<Integer>(observer);
+            ArgumentCaptor<Runnable> readyHandler = ArgumentCaptor.forClass(Runnable.class);
+            ArgumentCaptor<Runnable> cancelHandler = ArgumentCaptor.forClass(Runnable.class);
+            verify(observer).setOnReadyHandler(readyHandler.capture());
+            verify(observer).setOnCancelHandler(cancelHandler.capture());
+            onReady = readyHandler.getValue();
+            onCancel = cancelHandler.getValue();
+        }
+
+        private void open() {
+            ready.set(true);
+            onReady.run();
+        }
+    }
+
+    @Test
+    public void backPressure() {
+        var pulled = new AtomicInteger();
+        var reply = new Reply(4);
+        reply.reply.start(source(10, pulled));
+
+        // Only the client's window is pulled from the source and sent
+        assertEquals(List.of(0, 1, 2, 3), reply.sent);
+        assertEquals(4, pulled.get());
+        verify(reply.observer, never()).onCompleted();
+
+        // Spurious ready signals while the window is closed send nothing
+        reply.onReady.run();
+        assertEquals(4, reply.sent.size());
+
+        reply.open();
+        assertEquals(8, reply.sent.size());
+        verify(reply.observer, never()).onCompleted();
+
+        reply.open();
+        assertEquals(IntStream.range(0, 10).boxed().toList(), reply.sent);
+        verify(reply.observer, times(1)).onCompleted();
+
+        // Completion is signalled once
+        reply.open();
+        verify(reply.observer, times(1)).onCompleted();
+    }
+
+    @Test
+    public void cancelled() {
+        var pulled = new AtomicInteger();
+        var reply = new Reply(3);
+        reply.reply.start(source(10, pulled));
+        assertEquals(3, reply.sent.size());
+
+        reply.onCancel.run();
+        reply.open();
+        assertEquals(3, reply.sent.size());
+        assertEquals(3, pulled.get());
+        verify(reply.observer, never()).onCompleted();
+        verify(reply.observer, never()).onError(any());
+    }
+
+    @Test
+    public void sourceFailure() {
+        var reply = new Reply(0);
+        reply.reply.start(new Iterator<Integer>() {
+            int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == 2) {
+                    throw new IllegalStateException("Store failure");
+                }
+                return next++;
+            }
+        });
+        assertEquals(List.of(0, 1), reply.sent);
+        verify(reply.observer).onError(any(IllegalStateException.class));
+        verify(reply.observer, never()).onCompleted();
+    }
+
+    private Iterator<Integer> source(int count, AtomicInteger pulled) {
+        var elements = IntStream.range(0, count).iterator();
+        return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return elements.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                pulled.incrementAndGet();
+                return elements.next();
+            }
+        };
+    }
+}
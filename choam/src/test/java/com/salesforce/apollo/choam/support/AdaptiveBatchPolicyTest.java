@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class AdaptiveBatchPolicyTest {
+
+    @Test
+    public void backlog() {
+        var policy = new AdaptiveBatchPolicy(Duration.ofMillis(5), Duration.ofMillis(100), 1024, 16 * 1024);
+        for (int i = 0; i < 10; i++) {
+            policy.adapt(0);
+        }
+        assertEquals(Duration.ofMillis(5), policy.interval());
+        assertEquals(1024, policy.byteSize());
+
+        policy.adapt(1_000);
+        assertEquals(Duration.ofMillis(10), policy.interval());
+        assertEquals(2048, policy.byteSize());
+
+        for (int i = 0; i < 100; i++) {
+            policy.adapt(1_000);
+        }
+        assertEquals(Duration.ofMillis(100), policy.interval());
+        assertEquals(16 * 1024, policy.byteSize());
+    }
+
+    @Test
+    public void shallow() {
+        var policy = new AdaptiveBatchPolicy(Duration.ofMillis(5), Duration.ofMillis(100), 1024, 16 * 1024);
+        assertEquals(Duration.ofMillis(100), policy.interval());
+        policy.adapt(0);
+        assertEquals(Duration.ofMillis(50), policy.interval());
+        policy.adapt(0);
+        policy.adapt(0);
+        policy.adapt(0);
+        assertTrue(policy.interval().compareTo(Duration.ofMillis(5)) >= 0);
+        policy.adapt(0);
+        assertEquals(Duration.ofMillis(5), policy.interval());
+    }
+}
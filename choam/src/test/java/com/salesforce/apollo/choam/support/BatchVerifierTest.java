@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class BatchVerifierTest {
+
+    @Test
+    public void ordered() {
+        var batch = IntStream.range(0, 1_000).boxed().toList();
+        var verifier = new BatchVerifier(ForkJoinPool.commonPool(), 7);
+        var verified = verifier.verify(batch, i -> {
+            if (i == 12) {
+                throw new IllegalStateException("Unlucky");
+            }
+            return i % 3 == 0;
+        });
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(i % 3 == 0 && i != 12, verified.get(i), "Mismatch at: " + i);
+        }
+        assertTrue(new BatchVerifier(ForkJoinPool.commonPool(), 7).verify(batch.subList(0, 0), i -> true).isEmpty());
+    }
+
+    @Test
+    public void saturatedExecutor() throws Exception {
+        var batch = IntStream.range(0, 1_000).boxed().toList();
+        var exec = Executors.newFixedThreadPool(1);
+        try {
+            var verifier = new BatchVerifier(exec, 7);
+            // Verify from the executor's only thread, which must not wait upon its own
+            // queued tasks
+            var verified = exec.submit(() -> verifier.verify(batch, i -> i % 3 == 0)).get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(i % 3 == 0, verified.get(i), "Mismatch at: " + i);
+            }
+            verified = new BatchVerifier(r -> r.run(), 7).verify(batch, i -> i % 5 == 0);
+            assertEquals(200, verified.cardinality());
+        } finally {
+            exec.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+import com.salesfoce.apollo.choam.proto.Block;
+import com.salesfoce.apollo.choam.proto.Executions;
+import com.salesfoce.apollo.choam.proto.Transaction;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class BlockCodecTest {
+
+    @Test
+    public void deflate() throws Exception {
+        var executions = Executions.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            executions.addExecutions(Transaction.newBuilder()
+                                                .setNonce(i)
+                                                .setContent(ByteString.copyFromUtf8("INSERT INTO books VALUES (" + i +
+                                                ", 'Java Concurrency in Practice', 'Brian Goetz', 2006)")));
+        }
+        var canonical = Block.newBuilder().setExecutions(executions).build().toByteArray();
+        var encoded = BlockCodec.DEFLATE.encode(canonical);
+        assertTrue(BlockCodec.isEncoded(encoded));
+        assertTrue(encoded.length < canonical.length / 2);
+        assertArrayEquals(canonical, BlockCodec.decode(encoded));
+
+        var random = new byte[1024];
+        new Random(0x1638).nextBytes(random);
+        canonical = Block.newBuilder()
+                         .setExecutions(Executions.newBuilder()
+                                                  .addExecutions(Transaction.newBuilder()
+                                                                            .setContent(ByteString.copyFrom(random))))
+                         .build()
+                         .toByteArray();
+        encoded = BlockCodec.DEFLATE.encode(canonical);
+        assertSame(canonical, encoded);
+        assertFalse(BlockCodec.isEncoded(encoded));
+        assertSame(canonical, BlockCodec.decode(encoded));
+    }
+}
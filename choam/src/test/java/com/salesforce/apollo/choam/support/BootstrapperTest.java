@@ -8,6 +8,7 @@ package com.salesforce.apollo.choam.support;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import com.google.common.util.concurrent.SettableFuture;
 import com.salesfoce.apollo.choam.proto.BlockReplication;
 import com.salesfoce.apollo.choam.proto.Blocks;
+import com.salesfoce.apollo.choam.proto.CertifiedBlock;
 import com.salesfoce.apollo.choam.proto.Initial;
 import com.salesforce.apollo.archipelago.Router.CommonCommunications;
 import com.salesforce.apollo.choam.Parameters;
@@ -46,6 +48,8 @@ import com.salesforce.apollo.stereotomy.mem.MemKERL;
 import com.salesforce.apollo.stereotomy.mem.MemKeyStore;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
 
+import io.grpc.stub.StreamObserver;
+
 /**
  * @author hal.hildebrand
  *
@@ -157,6 +161,26 @@ public class BootstrapperTest {
             futureSailor.set(blocks.build());
             return futureSailor;
         });
+        doAnswer(invocation -> {
+            BlockReplication rep = invocation.getArgument(0, BlockReplication.class);
+            @SuppressWarnings("unchecked")
+            StreamObserver<CertifiedBlock> observer = invocation.getArgument(1, StreamObserver.class);
+            BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
+            bootstrapStore.streamBlocks(bff, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()))
+                          .forEachRemaining(cb -> observer.onNext(cb));
+            observer.onCompleted();
+            return null;
+        }).when(client).streamBlocks(any(), any());
+        doAnswer(invocation -> {
+            BlockReplication rep = invocation.getArgument(0, BlockReplication.class);
+            @SuppressWarnings("unchecked")
+            StreamObserver<CertifiedBlock> observer = invocation.getArgument(1, StreamObserver.class);
+            BloomFilter<ULong> bff = BloomFilter.from(rep.getBlocksBff());
+            bootstrapStore.streamViewChain(bff, ULong.valueOf(rep.getFrom()), ULong.valueOf(rep.getTo()))
+                          .forEachRemaining(cb -> observer.onNext(cb));
+            observer.onCompleted();
+            return null;
+        }).when(client).streamViewChain(any(), any());
         return client;
     }
 
@@ -8,9 +8,13 @@ package com.salesforce.apollo.choam.support;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -21,12 +25,16 @@ import java.io.FileOutputStream;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -170,4 +178,109 @@ public class CheckpointAssemblerTest {
         File assembledFile = File.createTempFile("assembled-", "chkpt", checkpointDir);
         assembledCs.assemble(assembledFile);
     }
+
+    @Test
+    public void parallelWithFailingMember() throws Exception {
+        File checkpointDir = new File("target/checkpoint-parallel");
+        Utils.clean(checkpointDir);
+        checkpointDir.mkdirs();
+
+        File chkptFile = new File(checkpointDir, "chkpt.chk");
+        chkptFile.deleteOnExit();
+        var bytes = new byte[32 * 1024];
+        new Random(0x666).nextBytes(bytes);
+        try (FileOutputStream os = new FileOutputStream(chkptFile); GZIPOutputStream gos = new GZIPOutputStream(os)) {
+            gos.write(bytes);
+        }
+
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        var stereotomy = new StereotomyImpl(new MemKeyStore(), new MemKERL(DigestAlgorithm.DEFAULT), entropy);
+
+        List<SigningMember> members = IntStream.range(0, 4).mapToObj(i -> {
+            try {
+                return stereotomy.newIdentifier().get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }).map(cpk -> new ControlledIdentifierMember(cpk)).map(e -> (SigningMember) e).toList();
+        @SuppressWarnings("unchecked")
+        Context<Member> context = mock(Context.class);
+        when(context.successors(any(Digest.class), any())).thenReturn(List.copyOf(members.subList(1, 4)));
+
+        Checkpoint checkpoint = CHOAM.checkpoint(DigestAlgorithm.DEFAULT, chkptFile, SEGMENT_SIZE);
+        assertTrue(checkpoint.getSegmentsCount() > 3 * 2 * 4, "Too few segments: " + checkpoint.getSegmentsCount());
+        Store store1 = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open());
+        CheckpointState state = new CheckpointState(checkpoint,
+                                                    store1.putCheckpoint(ULong.valueOf(0), chkptFile, checkpoint));
+
+        // Replies complete asynchronously, so every member receives its pipelined
+        // requests before any reply is processed. The first member connected fails
+        // every request, and the others serve at most 2 segments of each range
+        var replies = Executors.newFixedThreadPool(2);
+        var failing = new AtomicReference<Terminal>();
+        var links = new ConcurrentHashMap<Member, Terminal>();
+        var requested = new ConcurrentHashMap<Member, AtomicInteger>();
+        var served = new ConcurrentHashMap<Member, AtomicInteger>();
+        @SuppressWarnings("unchecked")
+        CommonCommunications<Terminal, Concierge> comm = mock(CommonCommunications.class);
+        when(comm.connect(any())).then(invocation -> {
+            Member m = invocation.getArgument(0, Member.class);
+            return links.computeIfAbsent(m, k -> {
+                Terminal link = mock(Terminal.class);
+                when(link.getMember()).thenReturn(m);
+                boolean fails = failing.compareAndSet(null, link);
+                when(link.fetch(any())).then(fetch -> {
+                    CheckpointReplication rep = fetch.getArgument(0, CheckpointReplication.class);
+                    assertTrue(rep.getTo() > rep.getFrom());
+                    requested.computeIfAbsent(m, x -> new AtomicInteger()).incrementAndGet();
+                    SettableFuture<CheckpointSegments> futureSailor = SettableFuture.create();
+                    replies.execute(() -> {
+                        if (fails) {
+                            futureSailor.setException(new IllegalStateException("Unavailable"));
+                            return;
+                        }
+                        var fetched = state.fetchSegments(BloomFilter.from(rep.getCheckpointSegments()), 2,
+                                                          rep.getFrom(), rep.getTo());
+                        served.computeIfAbsent(m, x -> new AtomicInteger()).addAndGet(fetched.size());
+                        futureSailor.set(CheckpointSegments.newBuilder().addAllSegments(fetched).build());
+                    });
+                    return futureSailor;
+                });
+                return link;
+            });
+        });
+
+        Store store2 = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open());
+        CheckpointAssembler boot = new CheckpointAssembler(Duration.ofMillis(10), ULong.valueOf(0), checkpoint,
+                                                           members.get(0), store2, comm, context, 0.00125,
+                                                           DigestAlgorithm.DEFAULT, 3, 4);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            assembled = boot.assemble(scheduler, Duration.ofSeconds(10), r -> r.run());
+            CheckpointState assembledCs = assembled.get(60, TimeUnit.SECONDS);
+            assertNotNull(assembledCs);
+
+            assertEquals(3, links.size());
+            for (var m : links.keySet()) {
+                assertTrue(requested.get(m).get() > 0, "No requests to: " + m.getId());
+            }
+            var failed = failing.get().getMember();
+            assertNull(served.get(failed));
+            verify(failing.get(), timeout(10_000)).close();
+            assertEquals(2, served.size());
+            assertTrue(served.values().stream().mapToInt(c -> c.get()).sum() >= checkpoint.getSegmentsCount());
+
+            File assembledFile = File.createTempFile("assembled-", "chkpt", checkpointDir);
+            assembledCs.assemble(assembledFile);
+            Digest assembledHash;
+            try (FileInputStream fis = new FileInputStream(assembledFile)) {
+                assembledHash = DigestAlgorithm.DEFAULT.digest(fis);
+            }
+            assertEquals(DigestAlgorithm.DEFAULT.digest(bytes), assembledHash);
+        } finally {
+            replies.shutdownNow();
+            scheduler.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.utils.Entropy;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class CheckpointBuilderTest {
+    private static final int SEGMENT_SIZE = 128;
+
+    @Test
+    public void merkleProofs() {
+        var algo = DigestAlgorithm.DEFAULT;
+        for (int leaves = 1; leaves < 12; leaves++) {
+            var digests = new Digest[leaves];
+            for (int i = 0; i < leaves; i++) {
+                digests[i] = algo.digest("leaf " + i);
+            }
+            var tree = new MerkleTree(algo, Arrays.asList(digests));
+            for (int i = 0; i < leaves; i++) {
+                assertTrue(MerkleTree.verify(algo, tree.root(), i, leaves, digests[i], tree.proof(i)));
+                assertFalse(MerkleTree.verify(algo, tree.root(), i, leaves, algo.digest("bogus"), tree.proof(i)));
+            }
+        }
+        assertEquals(algo.getOrigin(), new MerkleTree(algo, List.of()).root());
+    }
+
+    @Test
+    public void segments() throws Exception {
+        var algo = DigestAlgorithm.DEFAULT;
+        File state = File.createTempFile("state", ".chkpt");
+        state.deleteOnExit();
+        byte[] bytes = new byte[SEGMENT_SIZE * 37 + 17];
+        Entropy.nextBitsStreamBytes(bytes);
+        try (var fos = new FileOutputStream(state)) {
+            fos.write(bytes);
+        }
+
+        var builder = new CheckpointBuilder(algo, SEGMENT_SIZE, Executors.newFixedThreadPool(3), 4);
+        var checkpoint = builder.build(state);
+        assertEquals(bytes.length, checkpoint.getByteSize());
+        assertEquals(38, checkpoint.getSegmentsCount());
+
+        var leaves = checkpoint.getSegmentsList().stream().map(d -> new Digest(d)).toList();
+        for (int i = 0; i < leaves.size(); i++) {
+            int from = i * SEGMENT_SIZE;
+            var expected = algo.digest(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + SEGMENT_SIZE)));
+            assertEquals(expected, leaves.get(i));
+        }
+        assertEquals(new MerkleTree(algo, leaves).root(), new Digest(checkpoint.getStateHash()));
+    }
+}
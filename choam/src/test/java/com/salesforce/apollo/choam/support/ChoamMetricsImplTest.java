@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.salesfoce.apollo.choam.proto.Transaction;
+import com.salesforce.apollo.choam.support.TransactionTrace.Stage;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class ChoamMetricsImplTest {
+
+    @Test
+    public void traces() {
+        var registry = new MetricRegistry();
+        var context = DigestAlgorithm.DEFAULT.getOrigin();
+        var metrics = new ChoamMetricsImpl(context, registry, 10, 2);
+
+        assertTrue(metrics.sampled(Transaction.newBuilder().setNonce(20).build()));
+        assertFalse(metrics.sampled(Transaction.newBuilder().setNonce(21).build()));
+
+        var hash = DigestAlgorithm.DEFAULT.digest("hello".getBytes());
+        metrics.traced(Stage.SUBMITTED, hash);
+        metrics.traced(Stage.UNIT, hash);
+        metrics.traced(Stage.BUFFERED, hash);
+        metrics.traced(Stage.BUFFERED, hash);
+
+        var trace = metrics.traceOf(hash);
+        assertNotNull(trace);
+        assertNotNull(trace.latency(Stage.BUFFERED));
+        assertNotNull(trace.latency(Stage.UNIT));
+        assertNull(trace.latency(Stage.PREBLOCK));
+
+        final var prefix = context.shortString() + ".transaction.stage.";
+        assertEquals(1, registry.timer(prefix + "buffered").getCount());
+        assertEquals(1, registry.timer(prefix + "unit").getCount());
+        assertEquals(0, registry.timer(prefix + "preblock").getCount());
+
+        metrics.traced(Stage.SUBMITTED, DigestAlgorithm.DEFAULT.digest("a".getBytes()));
+        metrics.traced(Stage.SUBMITTED, DigestAlgorithm.DEFAULT.digest("b".getBytes()));
+        assertNull(metrics.traceOf(hash));
+    }
+
+    @Test
+    public void executionStages() {
+        var registry = new MetricRegistry();
+        var context = DigestAlgorithm.DEFAULT.getOrigin();
+        var metrics = new ChoamMetricsImpl(context, registry, 10, 2);
+
+        var hash = DigestAlgorithm.DEFAULT.digest("hello".getBytes());
+        metrics.traced(Stage.SUBMITTED, hash);
+        metrics.traced(Stage.CERTIFIED, hash);
+        var trace = metrics.traceOf(hash);
+        assertNull(trace.latency(Stage.EXECUTING));
+
+        metrics.traced(Stage.EXECUTING, hash);
+        metrics.traced(Stage.EXECUTED, hash);
+        assertNotNull(trace.latency(Stage.EXECUTING));
+        assertNotNull(trace.latency(Stage.EXECUTED));
+        assertTrue(trace.observed(Stage.CERTIFIED) <= trace.observed(Stage.EXECUTING));
+        assertTrue(trace.observed(Stage.EXECUTING) <= trace.observed(Stage.EXECUTED));
+
+        final var prefix = context.shortString() + ".transaction.stage.";
+        assertEquals(1, registry.timer(prefix + "executing").getCount());
+        assertEquals(1, registry.timer(prefix + "executed").getCount());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class ConflictsTest {
+
+    @Test
+    public void barriers() {
+        var waves = Conflicts.waves(Arrays.asList(Conflicts.writes(Set.of("a")), null, Conflicts.writes(Set.of("b")),
+                                                  Conflicts.writes(Set.of("c"))));
+        assertEquals(List.of(List.of(0), List.of(1), List.of(2, 3)), waves);
+
+        waves = Conflicts.waves(Arrays.asList(null, null, null));
+        assertEquals(List.of(List.of(0), List.of(1), List.of(2)), waves);
+    }
+
+    @Test
+    public void readsAndWrites() {
+        var waves = Conflicts.waves(List.of(Conflicts.of(Set.of("a"), null), Conflicts.of(Set.of("a"), null),
+                                            Conflicts.writes(Set.of("a")), Conflicts.of(Set.of("a"), Set.of("b")),
+                                            Conflicts.writes(Set.of("c"))));
+        assertEquals(List.of(List.of(0, 1, 4), List.of(2), List.of(3)), waves);
+    }
+
+    @Test
+    public void executeWavesInOrder() throws Exception {
+        var waves = Conflicts.waves(List.of(Conflicts.writes(Set.of("a")), Conflicts.writes(Set.of("b")),
+                                            Conflicts.writes(Set.of("c")), Conflicts.of(Set.of("a", "b"), null),
+                                            Conflicts.writes(Set.of("c")), Conflicts.writes(Set.of("d"))));
+        assertEquals(List.of(List.of(0, 1, 2, 5), List.of(3, 4)), waves);
+
+        var clock = new AtomicInteger();
+        var started = new int[6];
+        var finished = new int[6];
+        var exec = Executors.newFixedThreadPool(4);
+        try {
+            Conflicts.execute(waves, index -> {
+                started[index] = clock.incrementAndGet();
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                finished[index] = clock.incrementAndGet();
+            }, exec);
+        } finally {
+            exec.shutdown();
+        }
+        for (int later : waves.get(1)) {
+            for (int earlier : waves.get(0)) {
+                assertTrue(finished[earlier] < started[later],
+                           "Transaction: " + later + " started before: " + earlier + " finished");
+            }
+        }
+    }
+
+    @Test
+    public void executeFailure() {
+        var waves = List.of(List.of(0, 1), List.of(2));
+        var executed = Collections.synchronizedList(new ArrayList<Integer>());
+        var exec = Executors.newFixedThreadPool(2);
+        try {
+            assertThrows(IllegalStateException.class, () -> Conflicts.execute(waves, index -> {
+                if (index == 0) {
+                    throw new IllegalArgumentException("Failed");
+                }
+                executed.add(index);
+            }, exec));
+        } finally {
+            exec.shutdown();
+        }
+        assertEquals(List.of(1), executed);
+    }
+
+    @Test
+    public void executeWhenInterrupted() {
+        var waves = List.of(List.of(0, 1), List.of(2), List.of(3, 4));
+        var executed = Collections.synchronizedList(new ArrayList<Integer>());
+        var exec = Executors.newFixedThreadPool(2);
+        try {
+            Thread.currentThread().interrupt();
+            Conflicts.execute(waves, index -> executed.add(index), exec);
+            assertTrue(Thread.interrupted(), "Interrupt status not preserved");
+        } finally {
+            exec.shutdown();
+        }
+        Collections.sort(executed);
+        assertEquals(List.of(0, 1, 2, 3, 4), executed);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.h2.mvstore.MVStore;
+import org.joou.ULong;
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.apollo.choam.TestChain;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class ReorderWindowTest {
+
+    @Test
+    public void smokin() throws Exception {
+        var blocks = blocks(6);
+        var window = new ReorderWindow(3, null);
+
+        assertNotNull(window.offer(blocks.get(4)));
+        assertNotNull(window.offer(blocks.get(2)));
+        assertNull(window.offer(blocks.get(2)), "duplicates are admitted once");
+        assertNotNull(window.offer(blocks.get(3)));
+        assertTrue(window.isFull());
+
+        assertNull(window.offer(blocks.get(5)), "higher blocks are rejected when full");
+        assertEquals(1, window.overflows());
+
+        assertNotNull(window.offer(blocks.get(1)), "lower blocks displace the highest when full");
+        assertEquals(2, window.overflows());
+        assertEquals(3, window.size());
+
+        var first = window.first();
+        assertSame(blocks.get(1), first.block);
+        assertTrue(window.remove(first));
+        assertFalse(window.remove(first));
+
+        window.prune(ULong.valueOf(2));
+        assertEquals(1, window.size());
+        assertSame(blocks.get(3), window.poll());
+        assertNull(window.poll());
+    }
+
+    @Test
+    public void verdicts() throws Exception {
+        var blocks = blocks(1);
+        var window = new ReorderWindow(10, null);
+        var entry = window.offer(blocks.get(1));
+        var committee = new Object();
+
+        assertNull(entry.validatedBy(committee));
+        entry.validated(committee, true);
+        assertTrue(entry.validatedBy(committee));
+        assertNull(entry.validatedBy(new Object()), "verdicts are specific to the validating committee");
+    }
+
+    private List<HashedCertifiedBlock> blocks(int count) {
+        var store = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open(), DurabilityPolicy.SYNC, 0,
+                              BlockCodec.NONE, null);
+        new TestChain(store).genesis().userBlocks(count);
+        var blocks = new ArrayList<HashedCertifiedBlock>();
+        for (int i = 0; i <= count; i++) {
+            blocks.add(new HashedCertifiedBlock(DigestAlgorithm.DEFAULT, store.getCertifiedBlock(ULong.valueOf(i))));
+        }
+        return blocks;
+    }
+}
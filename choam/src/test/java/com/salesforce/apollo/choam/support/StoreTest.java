@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.h2.mvstore.MVStore;
+import org.joou.ULong;
+import org.junit.jupiter.api.Test;
+
+import com.salesfoce.apollo.choam.proto.Checkpoint;
+import com.salesforce.apollo.choam.TestChain;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class StoreTest {
+
+    @Test
+    public void blockCache() throws Exception {
+        var store = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open(), DurabilityPolicy.SYNC,
+                              Store.DEFAULT_CACHE_BYTES, BlockCodec.NONE, null);
+        var chain = new TestChain(store);
+        chain.genesis().userBlocks(3);
+        var cache = store.getCache();
+        assertEquals(4, cache.size());
+
+        final var last = chain.getLastBlock();
+        assertSame(store.getLastBlock(), store.getBlock(last.height()));
+        assertEquals(last.hash, store.getLastBlock().hash);
+        assertSame(store.getLastBlock(), store.getHashedCertifiedBlock(last.hash));
+        assertEquals(0, cache.misses());
+
+        store.gcFrom(last.height(), ULong.valueOf(0));
+        assertEquals(2, cache.size());
+        assertEquals(null, store.getBlock(ULong.valueOf(1)));
+        assertEquals(1, cache.misses());
+
+        var bounded = new BlockCache(last.certifiedBlock.getSerializedSize(), null);
+        bounded.put(chain.getGenesis());
+        bounded.put(last);
+        assertEquals(1, bounded.size());
+        assertSame(last, bounded.get(last.height()));
+        assertSame(last, bounded.get(last.hash));
+        assertEquals(last.certifiedBlock.getSerializedSize(), bounded.bytes());
+    }
+
+    @Test
+    public void coldHashLookup() throws Exception {
+        var store = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open(), DurabilityPolicy.SYNC,
+                              Store.DEFAULT_CACHE_BYTES, BlockCodec.NONE, null);
+        var chain = new TestChain(store);
+        chain.genesis().userBlocks(3);
+        var cache = store.getCache();
+        cache.clear();
+        final var misses = cache.misses();
+        final var hits = cache.hits();
+
+        // A cold lookup by hash counts a single miss
+        final var last = chain.getLastBlock();
+        assertEquals(last.hash, store.getHashedCertifiedBlock(last.hash).hash);
+        assertEquals(misses + 1, cache.misses());
+        assertEquals(hits, cache.hits());
+
+        assertSame(store.getHashedCertifiedBlock(last.hash), store.getHashedCertifiedBlock(last.hash));
+        assertEquals(misses + 1, cache.misses());
+        assertEquals(hits + 2, cache.hits());
+    }
+
+    @Test
+    public void codec() throws Exception {
+        var mvStore = new MVStore.Builder().open();
+        var store = new Store(DigestAlgorithm.DEFAULT, mvStore, DurabilityPolicy.SYNC, 0, BlockCodec.DEFLATE, null);
+        var chain = new TestChain(store);
+        chain.genesis().userBlocks(3);
+        final var last = chain.getLastBlock();
+
+        assertEquals(last.block, store.getBlock(last.height()).block);
+        assertEquals(last.hash, store.getLastBlock().hash);
+        assertArrayEquals(last.block.toByteArray(), store.getBlockBits(last.height()));
+        store.validate(last.height(), ULong.valueOf(0));
+
+        // Stores written with a codec remain readable without it
+        var plain = new Store(DigestAlgorithm.DEFAULT, mvStore);
+        assertEquals(last.block, plain.getBlock(last.height()).block);
+    }
+
+    @Test
+    public void failedTransactionRetainsBufferedBlocks() throws Exception {
+        var store = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open(),
+                              DurabilityPolicy.everyBlocks(10));
+        var chain = new TestChain(store);
+        chain.genesis().userBlocks(2);
+        assertFalse(store.isDurable(ULong.valueOf(2)));
+
+        assertThrows(IllegalStateException.class,
+                     () -> store.putCheckpoint(ULong.valueOf(2), new File("target/does-not-exist.state"),
+                                               Checkpoint.newBuilder().setSegmentSize(1024).build()));
+        assertTrue(store.containsBlock(ULong.valueOf(2)));
+        assertTrue(store.isDurable(ULong.valueOf(2)));
+        assertEquals(chain.getLastBlock().hash, store.getLastBlock().hash);
+    }
+
+    @Test
+    public void groupCommit() throws Exception {
+        var store = new Store(DigestAlgorithm.DEFAULT, new MVStore.Builder().open(), DurabilityPolicy.everyBlocks(3));
+        var chain = new TestChain(store);
+
+        chain.genesis();
+        assertEquals(ULong.valueOf(0), store.durableHeight());
+
+        chain.userBlocks(2);
+        assertTrue(store.containsBlock(ULong.valueOf(2)));
+        assertFalse(store.isDurable(ULong.valueOf(1)));
+        assertFalse(store.isDurable(ULong.valueOf(2)));
+        assertEquals(ULong.valueOf(0), store.durableHeight());
+
+        chain.userBlocks(1);
+        assertTrue(store.isDurable(ULong.valueOf(3)));
+        assertEquals(ULong.valueOf(3), store.durableHeight());
+
+        chain.userBlocks(1);
+        assertFalse(store.isDurable(ULong.valueOf(4)));
+        chain.viewChange();
+        assertEquals(ULong.valueOf(5), store.durableHeight());
+
+        chain.userBlocks(1);
+        assertFalse(store.isDurable(ULong.valueOf(6)));
+        store.flush();
+        assertTrue(store.isDurable(ULong.valueOf(6)));
+        assertEquals(ULong.valueOf(6), store.durableHeight());
+    }
+}
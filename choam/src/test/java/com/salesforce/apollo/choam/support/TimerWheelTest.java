@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.choam.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class TimerWheelTest {
+
+    @Test
+    public void expiration() throws Exception {
+        var wheel = new TimerWheel(Duration.ofMillis(1), 8);
+        var expired = new AtomicInteger();
+        var cancelled = wheel.schedule(() -> expired.incrementAndGet(), Duration.ofMillis(5));
+        wheel.schedule(() -> expired.incrementAndGet(), Duration.ofMillis(5));
+        // longer than a revolution of the wheel
+        var later = wheel.schedule(() -> expired.addAndGet(10), Duration.ofMillis(50));
+
+        assertTrue(cancelled.cancel());
+        Thread.sleep(10);
+        wheel.advance();
+        assertEquals(1, expired.get());
+
+        Thread.sleep(50);
+        wheel.advance();
+        assertEquals(11, expired.get());
+        assertFalse(later.cancel());
+    }
+}
@@ -10,32 +10,38 @@ import static com.salesforce.apollo.ethereal.Creator.parentsOnPreviousLevel;
 import static com.salesforce.apollo.ethereal.PreUnit.id;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.protobuf.ByteString;
 import com.salesfoce.apollo.ethereal.proto.Commit;
 import com.salesfoce.apollo.ethereal.proto.Have;
+import com.salesfoce.apollo.ethereal.proto.Heights;
 import com.salesfoce.apollo.ethereal.proto.Missing;
 import com.salesfoce.apollo.ethereal.proto.PreUnit_s;
 import com.salesfoce.apollo.ethereal.proto.PreVote;
 import com.salesfoce.apollo.ethereal.proto.SignedCommit;
 import com.salesfoce.apollo.ethereal.proto.SignedPreVote;
 import com.salesfoce.apollo.utils.proto.Biff;
+import com.salesfoce.apollo.utils.proto.Digeste;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.JohnHancock;
 import com.salesforce.apollo.crypto.Signer;
 import com.salesforce.apollo.utils.Entropy;
+import com.salesforce.apollo.utils.LongHashMap;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter.DigestBloomFilter;
 
@@ -63,12 +69,18 @@ public class Adder {
 
     public record Signed<T> (Digest hash, T signed) {}
 
-    private static final Logger log = LoggerFactory.getLogger(Adder.class);
+    private record Proposal(Digest digest, PreUnit preunit, PreUnit_s serialized) {}
+
+    /**
+     * The maximum number of digests in the exception sets of the exact Heights form
+     * of the Have state, beyond which the Bloom filter form is used
+     */
+    private static final int    MAX_EXCEPTIONS = 1_024;
+    private static final Logger log            = LoggerFactory.getLogger(Adder.class);
 
     public static Signed<SignedCommit> commit(final Long id, final Digest hash, final short pid, Signer signer,
                                               DigestAlgorithm algo) {
         final var commit = Commit.newBuilder().setUnit(id).setSource(pid).setHash(hash.toDigeste()).build();
-        signer.sign(commit.toByteString());
         JohnHancock signature = signer.sign(commit.toByteString());
         return new Signed<>(signature.toDigest(algo),
                             SignedCommit.newBuilder().setCommit(commit).setSignature(signature.toSig()).build());
@@ -77,28 +89,30 @@ public class Adder {
     public static Signed<SignedPreVote> prevote(final Long id, final Digest hash, final short pid, Signer signer,
                                                 DigestAlgorithm algo) {
         final var prevote = PreVote.newBuilder().setUnit(id).setSource(pid).setHash(hash.toDigeste()).build();
-        signer.sign(prevote.toByteString());
         JohnHancock signature = signer.sign(prevote.toByteString());
         return new Signed<>(signature.toDigest(algo),
                             SignedPreVote.newBuilder().setVote(prevote).setSignature(signature.toSig()).build());
     }
 
-    private final Map<Digest, Set<Short>>    commits         = new TreeMap<>();
+    private final Map<Digest, BitSet>        commits         = new HashMap<>();
     private final Config                     conf;
     private final Dag                        dag;
     private final int                        epoch;
+    private boolean                          exact           = false;
     private final Set<Digest>                failed;
+    private boolean                          legacy          = false;
     private final ReentrantLock              lock            = new ReentrantLock(true);
     private final int                        maxSize;
-    private final Map<Long, List<Waiting>>   missing         = new TreeMap<>();
-    private final Map<Digest, Set<Short>>    prevotes        = new TreeMap<>();
+    private final LongHashMap<List<Waiting>> missing         = new LongHashMap<>();
+    private Missing.Builder                  outbound        = Missing.newBuilder();
+    private final Map<Digest, BitSet>        prevotes        = new HashMap<>();
     private volatile int                     round           = 0;
-    private final Map<Digest, SignedCommit>  signedCommits   = new TreeMap<>();
-    private final Map<Digest, SignedPreVote> signedPrevotes  = new TreeMap<>();
+    private final Map<Digest, SignedCommit>  signedCommits   = new ConcurrentHashMap<>();
+    private final Map<Digest, SignedPreVote> signedPrevotes  = new ConcurrentHashMap<>();
     private final int                        threshold;
-    private final Map<Digest, Waiting>       waiting         = new TreeMap<>();
-    private final Map<Long, Waiting>         waitingById     = new TreeMap<>();
-    private final Map<Digest, Waiting>       waitingForRound = new TreeMap<>();
+    private final Map<Digest, Waiting>       waiting         = new HashMap<>();
+    private final LongHashMap<Waiting>       waitingById     = new LongHashMap<>();
+    private final Map<Digest, Waiting>       waitingForRound = new HashMap<>();
 
     public Adder(int epoch, Dag dag, int maxSize, Config conf, Set<Digest> failed) {
         this.epoch = epoch;
@@ -118,6 +132,8 @@ public class Adder {
             signedCommits.clear();
             signedPrevotes.clear();
             prevotes.clear();
+            commits.clear();
+            outbound = Missing.newBuilder();
             missing.clear();
         });
     }
@@ -149,7 +165,7 @@ public class Adder {
                 .append("commits: ")
                 .append(commits.entrySet()
                                .stream()
-                               .filter(e -> e.getValue().size() < 2 * threshold + 1)
+                               .filter(e -> e.getValue().cardinality() < 2 * threshold + 1)
                                .map(e -> e.getKey() + ":" + e.getValue())
                                .toList())
                 .append('\n')
@@ -157,7 +173,7 @@ public class Adder {
                 .append("prevotes: ")
                 .append(prevotes.entrySet()
                                 .stream()
-                                .filter(e -> e.getValue().size() < 2 * threshold + 1)
+                                .filter(e -> e.getValue().cardinality() < 2 * threshold + 1)
                                 .map(e -> e.getKey() + ":" + e.getValue())
                                 .toList());
             var units = new ArrayList<Unit>();
@@ -180,14 +196,28 @@ public class Adder {
     }
 
     /**
-     * Answer the Have state of the receiver - commits, prevotes, and proposed units
+     * Answer the Have state of the receiver - commits, prevotes, and proposed units.
+     * <p>
+     * The exact Heights form is answered once a partner has declared that it reads
+     * this form, unless its exception sets are too large. Members that predate the
+     * Heights form cannot read it, so once a Have from such a member has been
+     * received, only the Bloom filter form is answered for the rest of the epoch.
+     * A member that predates the Heights form may still receive it from an
+     * initiator of gossip that has not yet heard from it. That round is lost, but
+     * the member's reply downgrades the initiator, and the pull gossip repairs the
+     * round
      * 
      * @return the Have state of the receiver
      */
     public Have have() {
         return locked(() -> {
+            final var heights = exact && !legacy ? heights() : null;
+            if (heights != null) {
+                return Have.newBuilder().setEpoch(epoch).setExact(true).setHeights(heights).build();
+            }
             return Have.newBuilder()
                        .setEpoch(epoch)
+                       .setExact(true)
                        .setHaveCommits(haveCommits())
                        .setHavePreVotes(havePreVotes())
                        .setHaveUnits(haveUnits())
@@ -195,6 +225,22 @@ public class Adder {
         });
     }
 
+    /**
+     * Answer the units, prevotes and commits produced by this node since the last
+     * call, or null if there are none
+     */
+    public Missing outbound() {
+        return locked(() -> {
+            if (outbound.getUnitsCount() == 0 && outbound.getPrevotesCount() == 0 &&
+                outbound.getCommitsCount() == 0) {
+                return null;
+            }
+            final var produced = outbound.setEpoch(epoch).build();
+            outbound = Missing.newBuilder();
+            return produced;
+        });
+    }
+
     /**
      * Produce a Unit on this node.
      *
@@ -214,6 +260,7 @@ public class Adder {
             log.trace("Producing unit: {}:{} on: {}", u.hash(), u, conf.logLabel());
             final var wpu = new Waiting(u.toPreUnit(), u.toPreUnit_s());
             waiting.put(wpu.hash(), wpu);
+            outbound.addUnits(wpu.serialized());
             checkIfMissing(wpu);
             prevote(wpu);
             commit(wpu);
@@ -233,6 +280,7 @@ public class Adder {
         assert haves.getEpoch() == epoch : "Have from incorrect epoch: " + haves.getEpoch() + " expected: " + epoch
         + " on: " + conf.logLabel();
         return locked(() -> {
+            negotiate(haves);
             final var builder = Missing.newBuilder();
             builder.setEpoch(epoch);
             Adder.this.update(haves, builder);
@@ -241,57 +289,47 @@ public class Adder {
     }
 
     /**
-     * Update the commit, prevote and unit state from the supplied update
+     * Update the commit, prevote and unit state from the supplied update. The
+     * units, prevotes and commits of the update are decoded and their signatures
+     * verified in parallel, before the receiver's state is locked, and only the
+     * state transitions of the verified elements are serialized
      */
     public void updateFrom(Missing update) {
         assert update.getEpoch() == epoch : "Update from incorrect epoch: " + update.getEpoch() + " expected: " + epoch
         + " on: " + conf.logLabel();
+        final var proposals = update.getUnitsList()
+                                    .parallelStream()
+                                    .map(u -> verify(u))
+                                    .filter(p -> p != null)
+                                    .toList();
+        final var prevotes = update.getPrevotesList()
+                                   .parallelStream()
+                                   .map(pv -> verify(pv))
+                                   .filter(pv -> pv != null)
+                                   .toList();
+        final var commits = update.getCommitsList()
+                                  .parallelStream()
+                                  .map(c -> verify(c))
+                                  .filter(c -> c != null)
+                                  .toList();
+        if (proposals.isEmpty() && prevotes.isEmpty() && commits.isEmpty()) {
+            return;
+        }
         locked(() -> {
-            update.getUnitsList().forEach(u -> {
-                final var signature = JohnHancock.from(u.getSignature());
-                final var digest = signature.toDigest(conf.digestAlgorithm());
-                if (!failed.contains(digest)) {
-                    log.trace("propose: {} : {} on: {}", digest, PreUnit.decode(u.getId()), conf.logLabel());
-                    propose(digest, u);
-                }
+            proposals.forEach(p -> {
+                log.trace("propose: {} : {} on: {}", p.digest(), p.preunit(), conf.logLabel());
+                propose(p.digest(), p.serialized(), p.preunit());
             });
-            update.getPrevotesList().forEach(pv -> {
-                final var hash = Digest.from(pv.getVote().getHash());
-                if (failed.contains(hash)) {
-                    return;
-                }
-                final var signature = JohnHancock.from(pv.getSignature());
-                var validated = new AtomicBoolean();
-                signedPrevotes.computeIfAbsent(signature.toDigest(conf.digestAlgorithm()), h -> {
-                    validated.set(validate(pv));
-                    if (validated.get()) {
-                        return pv;
-                    } else {
-                        return null;
-                    }
-                });
-                if (validated.get()) {
-                    prevote(Digest.from(pv.getVote().getHash()), (short) pv.getVote().getSource());
+            prevotes.forEach(pv -> {
+                if (signedPrevotes.putIfAbsent(pv.hash(), pv.signed()) == null) {
+                    final var vote = pv.signed().getVote();
+                    prevote(Digest.from(vote.getHash()), (short) vote.getSource());
                 }
             });
-            update.getCommitsList().forEach(c -> {
-                final var hash = Digest.from(c.getCommit().getHash());
-                if (failed.contains(hash)) {
-                    return;
-                }
-                final var signature = JohnHancock.from(c.getSignature());
-                final var digest = signature.toDigest(conf.digestAlgorithm());
-                var validated = new AtomicBoolean();
-                signedCommits.computeIfAbsent(digest, h -> {
-                    validated.set(validate(c));
-                    if (validated.get()) {
-                        return c;
-                    } else {
-                        return null;
-                    }
-                });
-                if (validated.get()) {
-                    commit(Digest.from(c.getCommit().getHash()), (short) c.getCommit().getSource());
+            commits.forEach(c -> {
+                if (signedCommits.putIfAbsent(c.hash(), c.signed()) == null) {
+                    final var commit = c.signed().getCommit();
+                    commit(Digest.from(commit.getHash()), (short) commit.getSource());
                 }
             });
         });
@@ -310,45 +348,46 @@ public class Adder {
         if (dag.contains(digest)) {
             return; // already output
         }
-        final Set<Short> committed = commits.computeIfAbsent(digest, h -> new HashSet<>());
+        final var committed = commits.computeIfAbsent(digest, h -> new BitSet(conf.nProc()));
         var wpu = waiting.get(digest);
 
-        if (!committed.add(member)) {
-            log.trace("Already committed: {} count: {} on: {}", wpu, committed.size(), conf.logLabel());
+        if (!vote(committed, member)) {
+            log.trace("Already committed: {} count: {} on: {}", wpu, committed.cardinality(), conf.logLabel());
             return;
         }
-        log.trace("Committed: {} count: {} on: {}", wpu == null ? digest : wpu, committed.size(), conf.logLabel());
+        final var count = committed.cardinality();
+        log.trace("Committed: {} count: {} on: {}", wpu == null ? digest : wpu, count, conf.logLabel());
 
-        if (committed.size() <= threshold) {
+        if (count <= threshold) {
             return;
         }
 
         // Check for existing proposal
         if (wpu == null) {
-            log.trace("Committed, but no proposal: {} count: {} on: {}", digest, committed.size(), conf.logLabel());
+            log.trace("Committed, but no proposal: {} count: {} on: {}", digest, count, conf.logLabel());
             return;
         }
 
         switch (wpu.state()) {
         case PREVOTED:
-            if (committed.size() > threshold) {
+            if (count > threshold) {
                 log.trace("Committing: {} on: {}", wpu, conf.logLabel());
                 commit(wpu);
             }
             break;
         case COMMITTED:
-            if (committed.size() > 2 * threshold) {
+            if (count > 2 * threshold) {
                 log.trace("Outputting: {} on: {}", wpu, conf.logLabel());
                 output(wpu);
             }
             break;
         default:
-            log.trace("No commit action: {} count: {} on: {}", wpu, committed.size(), conf.logLabel());
+            log.trace("No commit action: {} count: {} on: {}", wpu, count, conf.logLabel());
             break;
         }
     }
 
-    Map<Digest, Set<Short>> getCommits() {
+    Map<Digest, BitSet> getCommits() {
         return commits;
     }
 
@@ -356,11 +395,11 @@ public class Adder {
         return dag;
     }
 
-    Map<Long, List<Waiting>> getMissing() {
+    LongHashMap<List<Waiting>> getMissing() {
         return missing;
     }
 
-    Map<Digest, Set<Short>> getPrevotes() {
+    Map<Digest, BitSet> getPrevotes() {
         return prevotes;
     }
 
@@ -376,7 +415,7 @@ public class Adder {
         return waiting;
     }
 
-    Map<Long, Waiting> getWaitingById() {
+    LongHashMap<Waiting> getWaitingById() {
         return waitingById;
     }
 
@@ -397,24 +436,25 @@ public class Adder {
         if (dag.contains(digest)) {
             return; // already output
         }
-        final Set<Short> prepared = prevotes.computeIfAbsent(digest, h -> new HashSet<>());
-        if (!prepared.add(member)) {
+        final var prepared = prevotes.computeIfAbsent(digest, h -> new BitSet(conf.nProc()));
+        if (!vote(prepared, member)) {
             return;
         }
+        final var count = prepared.cardinality();
         var wpu = waiting.get(digest);
 
         // We only care if we've gotten the proposal
         if (wpu == null) {
-            log.trace("Prevoted, but no proposal: {} count: {} on: {}", digest, prepared.size(), conf.logLabel());
+            log.trace("Prevoted, but no proposal: {} count: {} on: {}", digest, count, conf.logLabel());
             return;
         }
 
         // We only care if the # of prevotes is >= 2*f + 1
-        if (prepared.size() <= 2 * threshold) {
+        if (count <= 2 * threshold) {
             return;
         }
 
-        log.trace("Prevoting: {} wpu: {} count: {} on: {}", digest, wpu, prepared.size(), conf.logLabel());
+        log.trace("Prevoting: {} wpu: {} count: {} on: {}", digest, wpu, count, conf.logLabel());
 
         switch (wpu.state()) {
         case PREVOTED:
@@ -434,7 +474,7 @@ public class Adder {
             }
             break;
         default:
-            log.trace("No prevote action: {} prevote count: {} on: {}", wpu, prepared.size(), conf.logLabel());
+            log.trace("No prevote action: {} prevote count: {} on: {}", wpu, count, conf.logLabel());
             break;
         }
     }
@@ -446,6 +486,17 @@ public class Adder {
      * @param u      - the serialized preUnit
      */
     void propose(Digest digest, PreUnit_s u) {
+        propose(digest, u, PreUnit.from(u, conf.digestAlgorithm()));
+    }
+
+    /**
+     * A unit has been proposed.
+     * 
+     * @param digest  - the digest identifying the unit
+     * @param u       - the serialized preUnit
+     * @param preunit - the decoded preUnit
+     */
+    void propose(Digest digest, PreUnit_s u, PreUnit preunit) {
         if (failed.contains(digest)) {
             log.trace("Failed preunit: {} on: {}", digest, conf.logLabel());
             return;
@@ -458,35 +509,33 @@ public class Adder {
         if (existing != null) {
             return;
         }
-        final var decoded = PreUnit.decode(u.getId());
-        if (decoded.creator() == conf.pid()) {
+        if (preunit.creator() == conf.pid()) {
             return;
         }
-        if (decoded.epoch() != epoch) {
-            log.trace("Invalid epoch: {} expected {} unit: {} on: {}", decoded.epoch(), epoch, decoded,
+        if (preunit.epoch() != epoch) {
+            log.trace("Invalid epoch: {} expected {} unit: {} on: {}", preunit.epoch(), epoch, preunit,
                       conf.logLabel());
             return;
         }
 
-        if (decoded.creator() >= conf.nProc() || decoded.creator() < 0) {
+        if (preunit.creator() >= conf.nProc() || preunit.creator() < 0) {
             failed.add(digest);
-            log.debug("Invalid creator: {} on: {}", decoded, conf.nProc() - 1, conf.logLabel());
+            log.debug("Invalid creator: {} on: {}", preunit, conf.nProc() - 1, conf.logLabel());
             return;
         }
 
         if (u.toByteString().size() > maxSize) {
             failed.add(digest);
-            log.trace("Invalid size: {} > {} id: {} on: {}", u.toByteString().size(), maxSize, decoded,
+            log.trace("Invalid size: {} > {} id: {} on: {}", u.toByteString().size(), maxSize, preunit,
                       conf.logLabel());
             return;
         }
 
-        var preunit = PreUnit.from(u, conf.digestAlgorithm());
         wpu = new Waiting(preunit, u);
 
         if (!validateParents(wpu)) {
             failed.add(digest);
-            log.warn("Invalid parents: {} on: {}", decoded, conf.nProc() - 1, conf.logLabel());
+            log.warn("Invalid parents: {} on: {}", preunit, conf.nProc() - 1, conf.logLabel());
             return;
         }
         waiting.put(digest, wpu);
@@ -502,6 +551,18 @@ public class Adder {
         prevote(wpu);
     }
 
+    private static boolean above(long id, int[] heights) {
+        final var decoded = PreUnit.decode(id);
+        return decoded.creator() >= 0 && decoded.creator() < heights.length &&
+               decoded.height() > heights[decoded.creator()];
+    }
+
+    private static Set<Digest> digests(List<Digeste> digests) {
+        final var result = new HashSet<Digest>(digests.size());
+        digests.forEach(d -> result.add(Digest.from(d)));
+        return result;
+    }
+
     // Advance the state of the RBC by one round
     private void advance() {
         var ready = new ArrayList<Waiting>();
@@ -576,6 +637,7 @@ public class Adder {
             wpu.setState(State.COMMITTED);
             Signed<SignedCommit> sc = commit(wpu.id(), wpu.hash(), conf.pid(), conf.signer(), conf.digestAlgorithm());
             signedCommits.put(sc.hash(), sc.signed());
+            outbound.addCommits(sc.signed());
             log.trace("Committing unit: {} on: {}", wpu, conf.logLabel());
             commit(wpu.hash(), conf.pid());
         } catch (Throwable e) {
@@ -657,6 +719,37 @@ public class Adder {
         return bff.toBff();
     }
 
+    /**
+     * Answer the exact Heights form of the Have state of the receiver: the maximal
+     * DAG height per creator, and the digests of the proposed units, prevotes and
+     * commits held for units not yet in the DAG. Answer null if these exceptions
+     * exceed MAX_EXCEPTIONS
+     */
+    private Heights heights() {
+        final var builder = Heights.newBuilder();
+        for (var height : dag.maxView().heights()) {
+            builder.addHeights(height);
+        }
+        if (waiting.size() > MAX_EXCEPTIONS) {
+            return null;
+        }
+        waiting.keySet().forEach(d -> builder.addUnits(d.toDigeste()));
+        for (var e : signedPrevotes.entrySet()) {
+            if (!dag.contains(e.getValue().getVote().getUnit())) {
+                builder.addPrevotes(e.getKey().toDigeste());
+            }
+        }
+        for (var e : signedCommits.entrySet()) {
+            if (!dag.contains(e.getValue().getCommit().getUnit())) {
+                builder.addCommits(e.getKey().toDigeste());
+            }
+        }
+        if (builder.getUnitsCount() + builder.getPrevotesCount() + builder.getCommitsCount() > MAX_EXCEPTIONS) {
+            return null;
+        }
+        return builder.build();
+    }
+
     /**
      * Exclusively lock the state of the receiver
      *
@@ -704,6 +797,19 @@ public class Adder {
         pus.values().forEach(pu -> builder.addUnits(pu));
     }
 
+    /**
+     * Negotiate the form of the Have state from the partner's Have. A partner
+     * that reads the exact form enables it, while a partner that predates it
+     * disables it for the rest of the epoch
+     */
+    private void negotiate(Have have) {
+        if (have.getExact()) {
+            exact = true;
+        } else if (!have.hasHeights()) {
+            legacy = true;
+        }
+    }
+
     /**
      * Terminal state. The waiting unit is output to the DAG the receiver maintains.
      *
@@ -739,6 +845,7 @@ public class Adder {
         wpu.setState(State.PREVOTED);
         Signed<SignedPreVote> spv = prevote(wpu.id(), wpu.hash(), conf.pid(), conf.signer(), conf.digestAlgorithm());
         signedPrevotes.put(spv.hash(), spv.signed());
+        outbound.addPrevotes(spv.signed());
         log.trace("Prevoting unit: {} on: {}", wpu, conf.logLabel());
         prevote(wpu.hash(), conf.pid());
     }
@@ -784,6 +891,10 @@ public class Adder {
      * Provide the missing state from the receiver based on the supplied haves
      */
     private void update(Have have, Missing.Builder builder) {
+        if (have.hasHeights()) {
+            update(have.getHeights(), builder);
+            return;
+        }
         final var cbf = BloomFilter.from(have.getHaveCommits());
         signedCommits.entrySet().forEach(e -> {
             if (!cbf.contains(e.getKey())) {
@@ -800,14 +911,39 @@ public class Adder {
         missing(pubf, builder);
     }
 
-    private boolean validate(SignedCommit c) {
-        // TODO Auto-generated method stub
-        return true;
-    }
-
-    private boolean validate(SignedPreVote pv) {
-        // TODO Auto-generated method stub
-        return true;
+    /**
+     * Provide the exact missing state from the receiver based on the supplied
+     * heights: the units, prevotes and commits for units above the heights, less
+     * the exceptions held
+     */
+    private void update(Heights have, Missing.Builder builder) {
+        final var heights = new int[conf.nProc()];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = i < have.getHeightsCount() ? have.getHeights(i) : -1;
+        }
+        final var units = digests(have.getUnitsList());
+        dag.unitsAbove(heights).forEach(u -> {
+            if (u.epoch() == epoch && !units.contains(u.hash())) {
+                builder.addUnits(u.toPreUnit_s());
+            }
+        });
+        waiting.forEach((digest, w) -> {
+            if (!units.contains(digest) && !failed.contains(digest) && above(w.id(), heights)) {
+                builder.addUnits(w.serialized());
+            }
+        });
+        final var prevoted = digests(have.getPrevotesList());
+        signedPrevotes.forEach((digest, pv) -> {
+            if (!prevoted.contains(digest) && above(pv.getVote().getUnit(), heights)) {
+                builder.addPrevotes(pv);
+            }
+        });
+        final var committed = digests(have.getCommitsList());
+        signedCommits.forEach((digest, c) -> {
+            if (!committed.contains(digest) && above(c.getCommit().getUnit(), heights)) {
+                builder.addCommits(c);
+            }
+        });
     }
 
     private boolean validateParents(Waiting wp) {
@@ -820,4 +956,102 @@ public class Adder {
         }
         return result;
     }
+
+    /**
+     * Verify the signature of the commit, answering null if the commit is known,
+     * failed or invalid
+     */
+    private Signed<SignedCommit> verify(SignedCommit c) {
+        final var hash = Digest.from(c.getCommit().getHash());
+        if (failed.contains(hash)) {
+            return null;
+        }
+        final var signature = JohnHancock.from(c.getSignature());
+        final var digest = signature.toDigest(conf.digestAlgorithm());
+        if (signedCommits.containsKey(digest)) {
+            return null;
+        }
+        if (!verify(c.getCommit().getSource(), signature, c.getCommit().toByteString())) {
+            log.debug("Invalid commit signature: {} from: {} on: {}", hash, c.getCommit().getSource(), conf.logLabel());
+            return null;
+        }
+        return new Signed<>(digest, c);
+    }
+
+    /**
+     * Verify the signature of the prevote, answering null if the prevote is known,
+     * failed or invalid
+     */
+    private Signed<SignedPreVote> verify(SignedPreVote pv) {
+        final var hash = Digest.from(pv.getVote().getHash());
+        if (failed.contains(hash)) {
+            return null;
+        }
+        final var signature = JohnHancock.from(pv.getSignature());
+        final var digest = signature.toDigest(conf.digestAlgorithm());
+        if (signedPrevotes.containsKey(digest)) {
+            return null;
+        }
+        if (!verify(pv.getVote().getSource(), signature, pv.getVote().toByteString())) {
+            log.debug("Invalid prevote signature: {} from: {} on: {}", hash, pv.getVote().getSource(), conf.logLabel());
+            return null;
+        }
+        return new Signed<>(digest, pv);
+    }
+
+    /**
+     * Decode the serialized preUnit and verify its signature, answering null if
+     * the unit is known, failed or invalid
+     */
+    private Proposal verify(PreUnit_s u) {
+        final var digest = JohnHancock.from(u.getSignature()).toDigest(conf.digestAlgorithm());
+        if (failed.contains(digest) || dag.contains(digest)) {
+            return null;
+        }
+        if (u.getSerializedSize() > maxSize) {
+            failed.add(digest);
+            log.trace("Invalid size: {} > {} id: {} on: {}", u.getSerializedSize(), maxSize, PreUnit.decode(u.getId()),
+                      conf.logLabel());
+            return null;
+        }
+        final var preunit = PreUnit.from(u, conf.digestAlgorithm());
+        if (preunit.creator() < 0 || preunit.creator() >= conf.nProc()) {
+            failed.add(digest);
+            log.debug("Invalid creator: {} on: {}", preunit, conf.logLabel());
+            return null;
+        }
+        if (conf.verifiers() != null && !preunit.verify(conf.verifiers())) {
+            failed.add(digest);
+            log.debug("Invalid unit signature: {} on: {}", preunit, conf.logLabel());
+            return null;
+        }
+        return new Proposal(digest, preunit, u);
+    }
+
+    /**
+     * Verify the signature of the member, if the verifiers of the members are
+     * configured
+     */
+    private boolean verify(int member, JohnHancock signature, ByteString signed) {
+        final var verifiers = conf.verifiers();
+        if (verifiers == null) {
+            return true;
+        }
+        if (member < 0 || member >= verifiers.length) {
+            return false;
+        }
+        return verifiers[member].verify(signature, signed);
+    }
+
+    /**
+     * Record the vote of the member in the tally, answering false if the member
+     * has already voted or is not a member of the committee
+     */
+    private boolean vote(BitSet tally, short member) {
+        if (member < 0 || member >= conf.nProc() || tally.get(member)) {
+            return false;
+        }
+        tally.set(member);
+        return true;
+    }
 }
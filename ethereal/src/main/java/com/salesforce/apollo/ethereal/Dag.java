@@ -8,21 +8,23 @@ package com.salesforce.apollo.ethereal;
 
 import static com.salesforce.apollo.ethereal.PreUnit.decode;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +41,14 @@ import com.salesforce.apollo.utils.bloomFilters.BloomFilter.DigestBloomFilter;
  *
  */
 public interface Dag {
+    /**
+     * The DAG of an epoch. Insertion is serialized by the single writer, while
+     * readers require no lock. Units are indexed by digest, and by the creator and
+     * height or level decoded from their id in flat arrays per creator. An
+     * inserted unit is published to the id indexes, then the digest index and
+     * finally the maximal units, so a reader that observes a unit in a later index
+     * also observes it in the earlier ones.
+     */
     public class DagImpl implements Dag {
 
         private final List<BiFunction<Unit, Dag, Correctness>> checks     = new ArrayList<>();
@@ -46,11 +56,12 @@ public interface Dag {
         private final int                                      epoch;
         private final fiberMap                                 heightUnits;
         private final fiberMap                                 levelUnits;
-        private final Unit[]                                   maxUnits;
+        private final List<Unit>                               maximal;
+        private final AtomicReferenceArray<Unit>               maxUnits;
         private final List<Consumer<Unit>>                     postInsert = new ArrayList<>();
         private final List<Consumer<Unit>>                     preInsert  = new ArrayList<>();
-        private final ReadWriteLock                            rwLock     = new ReentrantReadWriteLock(true);
-        private final Map<Digest, Unit>                        units      = new HashMap<>();
+        private final Map<Digest, Unit>                        units      = new ConcurrentHashMap<>();
+        private final Lock                                     writeLock  = new ReentrantLock(true);
 
         /**
          * @param config
@@ -61,7 +72,18 @@ public interface Dag {
             this.epoch = epoch;
             levelUnits = new fiberMap(config.nProc());
             heightUnits = new fiberMap(config.nProc());
-            maxUnits = new Unit[config.nProc()];
+            maxUnits = new AtomicReferenceArray<>(config.nProc());
+            maximal = new AbstractList<>() {
+                @Override
+                public Unit get(int index) {
+                    return maxUnits.get(index);
+                }
+
+                @Override
+                public int size() {
+                    return maxUnits.length();
+                }
+            };
         }
 
         @Override
@@ -98,45 +120,45 @@ public interface Dag {
 
         @Override
         public boolean contains(Digest digest) {
-            return read(() -> units.containsKey(digest));
+            return units.containsKey(digest);
         }
 
         @Override
         public boolean contains(long id) {
-            return read(() -> {
-                var decoded = decode(id);
-                if (decoded.epoch() != epoch) {
-                    log.trace("Does not contain: {} wrong epoch: {} on: {}", decoded, epoch, config.logLabel());
-                    return false;
-                }
-                return heightUnits.contains(decoded);
-            });
+            var decoded = decode(id);
+            if (decoded.epoch() != epoch) {
+                log.trace("Does not contain: {} wrong epoch: {} on: {}", decoded, epoch, config.logLabel());
+                return false;
+            }
+            return heightUnits.contains(decoded);
         }
 
         @Override
         public Decoded decodeParents(PreUnit pu) {
-            return read(() -> {
-                var u = get(pu.hash());
-                if (u != null) {
-                    return new DuplicateUnit(u);
-                }
-                var heights = pu.view().heights();
-                var possibleParents = heightUnits.get(heights);
-                if (possibleParents.unknown() > 0) {
-                    return new UnknownParents(possibleParents.unknown());
+            var u = get(pu.hash());
+            if (u != null) {
+                return new DuplicateUnit(u);
+            }
+            var heights = pu.view().heights();
+            if (heights.length != config.nProc()) {
+                throw new IllegalStateException("Wrong number of heights: " + heights.length + " expected: "
+                + config.nProc());
+            }
+            var parents = new Unit[config.nProc()];
+            var unknown = 0;
+            for (short creator = 0; creator < heights.length; creator++) {
+                if (heights[creator] == -1) {
+                    continue;
                 }
-                Unit[] parents = new Unit[config.nProc()];
-
-                int i = -1;
-                for (Unit unit : possibleParents.result()) {
-                    i++;
-                    if (heights[i] == -1) {
-                        continue;
-                    }
-                    parents[i] = unit;
+                parents[creator] = heightUnits.get(creator, heights[creator]);
+                if (parents[creator] == null) {
+                    unknown++;
                 }
-                return new DecodedR(parents);
-            });
+            }
+            if (unknown > 0) {
+                return new UnknownParents(unknown);
+            }
+            return new DecodedR(parents);
         }
 
         @Override
@@ -146,33 +168,29 @@ public interface Dag {
 
         @Override
         public Unit get(Digest digest) {
-            return read(() -> units.get(digest));
+            return units.get(digest);
         }
 
         @Override
         public List<Unit> get(List<Digest> digests) {
-            return read(() -> digests.stream().map(e -> units.get(e)).toList());
+            return digests.stream().map(e -> units.get(e)).toList();
         }
 
         @Override
         public Unit get(long id) {
-            return read(() -> {
-                var decoded = decode(id);
-                if (decoded.epoch() != epoch) {
-                    return null;
-                }
-                return heightUnits.get(decoded);
-            });
+            var decoded = decode(id);
+            if (decoded.epoch() != epoch) {
+                return null;
+            }
+            return heightUnits.get(decoded);
         }
 
         @Override
         public void have(DigestBloomFilter biff) {
-            read(() -> {
-                units.entrySet()
-                     .stream()
-                     .filter(e -> e.getValue().epoch() == epoch)
-                     .map(e -> e.getKey())
-                     .forEach(d -> biff.add(d));
+            units.forEach((digest, unit) -> {
+                if (unit.epoch() == epoch) {
+                    biff.add(digest);
+                }
             });
         }
 
@@ -205,85 +223,72 @@ public interface Dag {
 
         @Override
         public void iterateMaxUnitsPerProcess(Consumer<Unit> work) {
-            read(() -> maximalUnitsPerProcess().forEach(work));
+            for (int i = 0; i < maxUnits.length(); i++) {
+                work.accept(maxUnits.get(i));
+            }
         }
 
         @Override
         public void iterateUnits(Function<Unit, Boolean> consumer) {
-            read(() -> {
-                for (Unit u : units.values()) {
-                    if (!consumer.apply(u)) {
-                        break;
-                    }
+            for (Unit u : units.values()) {
+                if (!consumer.apply(u)) {
+                    break;
                 }
-            });
+            }
         }
 
         @Override
         public void iterateUnitsOnLevel(int level, Function<Unit, Boolean> work) {
-            read(() -> {
-                for (var u : unitsOnLevel(level)) {
-                    if (u != null && !work.apply(u)) {
-                        return;
-                    }
+            for (short creator = 0; creator < config.nProc(); creator++) {
+                var u = levelUnits.get(creator, level);
+                if (u != null && !work.apply(u)) {
+                    return;
                 }
-            });
+            }
         }
 
         @Override
         public List<Unit> maximalUnitsPerProcess() {
-            return read(() -> Arrays.asList(maxUnits));
+            return maximal;
         }
 
         @Override
         public int maxLevel() {
-            return read(() -> {
-                int maxLevel = -1;
-                for (Unit unit : maxUnits) {
-                    if (unit != null && unit.level() > maxLevel) {
-                        maxLevel = unit.level();
-                    }
-
+            int maxLevel = -1;
+            for (int i = 0; i < maxUnits.length(); i++) {
+                var unit = maxUnits.get(i);
+                if (unit != null && unit.level() > maxLevel) {
+                    maxLevel = unit.level();
                 }
-                return maxLevel;
-            });
+            }
+            return maxLevel;
         }
 
         @Override
         public DagInfo maxView() {
-            return read(() -> {
-                var heights = new int[config.nProc()];
-                int i = 0;
-                for (var u : maxUnits) {
-                    var h = -1;
-                    if (u != null && u.height() > h) {
-                        h = u.height();
-                    }
-                    heights[i++] = h;
-                }
-                return new DagInfo(epoch(), heights);
-            });
+            var heights = new int[config.nProc()];
+            for (int i = 0; i < heights.length; i++) {
+                var u = maxUnits.get(i);
+                heights[i] = u == null ? -1 : u.height();
+            }
+            return new DagInfo(epoch(), heights);
         }
 
         @Override
         public void missing(BloomFilter<Digest> have, List<PreUnit_s> missing) {
-            read(() -> {
-                units.entrySet().forEach(e -> {
-                    if (!have.contains(e.getKey())) {
-                        missing.add(e.getValue().toPreUnit_s());
-                    }
-                });
+            units.forEach((digest, unit) -> {
+                if (!have.contains(digest)) {
+                    missing.add(unit.toPreUnit_s());
+                }
             });
         }
 
         @Override
         public void missing(BloomFilter<Digest> have, Map<Digest, PreUnit_s> missing) {
-            read(() -> {
-                units.entrySet().forEach(e -> {
-                    if (e.getValue().epoch() == epoch && !have.contains(e.getKey())) {
-                        missing.computeIfAbsent(e.getKey(), h -> e.getValue().toPreUnit_s());
-                    }
-                });
+            units.forEach((digest, unit) -> {
+                if (unit.epoch() == epoch && !have.contains(digest)) {
+                    missing.computeIfAbsent(digest, h -> unit.toPreUnit_s());
+                }
             });
         }
 
@@ -297,67 +302,61 @@ public interface Dag {
             return config.pid();
         }
 
+        /**
+         * Readers require no lock, the call is simply evaluated
+         */
         @Override
         public <T> T read(Callable<T> call) {
-            final Lock lock = rwLock.readLock();
-            lock.lock();
             try {
                 return call.call();
             } catch (Exception e) {
-                throw new IllegalStateException("Error during read locked call on: " + config.logLabel(), e);
-            } finally {
-                lock.unlock();
+                throw new IllegalStateException("Error during read call on: " + config.logLabel(), e);
             }
         }
 
+        /**
+         * Readers require no lock, the runnable is simply run
+         */
         @Override
         public void read(Runnable r) {
-            final Lock lock = rwLock.readLock();
-            lock.lock();
             try {
                 r.run();
             } catch (Exception e) {
-                throw new IllegalStateException("Error during read locked call on: " + config.logLabel(), e);
-            } finally {
-                lock.unlock();
+                throw new IllegalStateException("Error during read call on: " + config.logLabel(), e);
             }
         }
 
         @Override
         public List<Unit> unitsAbove(int[] heights) {
-            return read(() -> {
-                if (heights == null) {
-                    return units.values().stream().toList();
-                }
-                return heightUnits.above(heights);
-            });
+            if (heights == null) {
+                return units.values().stream().toList();
+            }
+            return heightUnits.above(heights);
         }
 
         @Override
         public List<Unit> unitsOnLevel(int level) {
-            return read(() -> levelUnits.on(level));
+            return levelUnits.on(level);
         }
 
         @Override
         public void write(Runnable r) {
-            final Lock lock = rwLock.writeLock();
-            lock.lock();
+            writeLock.lock();
             try {
                 r.run();
             } catch (Exception e) {
                 throw new IllegalStateException("Error during write locked call on: " + config.logLabel(), e);
             } finally {
-                lock.unlock();
+                writeLock.unlock();
             }
         }
 
         private void updateMaximal(Unit u) {
             var creator = u.creator();
-            var maxByCreator = maxUnits[creator];
+            var maxByCreator = maxUnits.get(creator);
             if (maxByCreator == null || u.above(maxByCreator)) {
-                maxUnits[creator] = u;
+                maxUnits.set(creator, u);
             }
-
         }
     }
 
@@ -384,32 +383,39 @@ public interface Dag {
 
     record DagInfo(int epoch, int[] heights) {}
 
+    /**
+     * Units indexed by creator, and then by height or level, in a flat array per
+     * creator. Mutated only by the single writer of the DAG. Each unit is written
+     * with release semantics, and a fiber grown by the writer is published only
+     * once filled, so readers require no lock.
+     */
     class fiberMap {
-        public record getResult(List<Unit> result, int unknown) {}
+        private static final int       INITIAL_LENGTH = 16;
+        private static final VarHandle UNITS          = MethodHandles.arrayElementVarHandle(Unit[].class);
 
-        private final List<Unit[]> content = new ArrayList<>();
-        private final short        width;
+        private final AtomicReferenceArray<Unit[]> fibers;
+        private volatile int                       length;
+        private final short                        width;
 
         fiberMap(short width) {
             this.width = width;
+            fibers = new AtomicReferenceArray<>(width);
+            for (int i = 0; i < width; i++) {
+                fibers.set(i, new Unit[INITIAL_LENGTH]);
+            }
         }
 
         public List<Unit> above(int[] heights) {
             if (heights.length != width) {
                 throw new IllegalStateException("Incorrect number of heights");
             }
-            var min = heights[0];
-            for (int i = 1; i < heights.length; i++) {
-                if (heights[i] < min) {
-                    min = heights[i];
-                }
-            }
             var result = new ArrayList<Unit>();
-            for (int height = min + 1; height < length(); height++) {
-                final var su = content.get(height);
-                for (short i = 0; i < width; i++) {
-                    if (height > heights[i]) {
-                        result.add(su[i]);
+            final var limit = length;
+            for (short creator = 0; creator < width; creator++) {
+                for (int height = heights[creator] + 1; height < limit; height++) {
+                    final var u = get(creator, height);
+                    if (u != null) {
+                        result.add(u);
                     }
                 }
             }
@@ -417,85 +423,71 @@ public interface Dag {
         }
 
         public boolean contains(DecodedId decoded) {
-            if (decoded.height() >= content.size()) {
-                return false;
-            }
-            final var fiber = content.get(decoded.height());
-            return fiber[decoded.creator()] != null;
+            return get(decoded) != null;
         }
 
         public Unit get(DecodedId decoded) {
-            if (decoded.height() >= content.size()) {
-                return null;
-            }
-            final var fiber = content.get(decoded.height());
-            return fiber[decoded.creator()];
+            return get(decoded.creator(), decoded.height());
         }
 
         /**
-         * get takes a list of heights (of length nProc) and returns a slice (of length
-         * nProc) of slices of corresponding units. The second returned value is the
-         * number of unknown units (no units for that creator-height pair).
+         * Answer the unit of the creator at the index, or null if none
          */
-        public getResult get(int[] heights) {
-            if (heights.length != width) {
-                throw new IllegalStateException("Wrong number of heights passed to fiber map: " + heights.length
-                + " expected: " + width);
-            }
-            List<Unit> result = IntStream.range(0, width).mapToObj(e -> (Unit) null).collect(Collectors.toList());
-            var unknown = 0;
-            for (short pid = 0; pid < heights.length; pid++) {
-                var h = heights[pid];
-                if (h == -1) {
-                    continue;
-                }
-                final var su = (h < content.size()) ? content.get(h) : null;
-                if (su != null) {
-                    result.set(pid, su[pid]);
-                }
-                if (result.get(pid) == null) {
-                    unknown++;
-                }
-
+        public Unit get(short creator, int index) {
+            if (index < 0 || creator < 0 || creator >= width) {
+                return null;
             }
-            return new getResult(result, unknown);
+            final var fiber = fibers.get(creator);
+            return index < fiber.length ? (Unit) UNITS.getAcquire(fiber, index) : null;
         }
 
         public int length() {
-            return content.size();
+            return length;
         }
 
-        public List<Unit> on(int level) {
-            if (level >= content.size()) {
+        /**
+         * Answer a view of the units of each creator at the index
+         */
+        public List<Unit> on(int index) {
+            if (index >= length) {
                 return Collections.emptyList();
             }
-            final var fiber = content.get(level);
-            return Arrays.asList(fiber);
+            return new AbstractList<>() {
+                @Override
+                public Unit get(int creator) {
+                    Objects.checkIndex(creator, width);
+                    return fiberMap.this.get((short) creator, index);
+                }
+
+                @Override
+                public int size() {
+                    return width;
+                }
+            };
         }
 
         public void updateHeight(Unit u) {
             assert u != null : "Cannot insert null unit";
-            final var fiber = getFiber(u.height());
-            if (fiber[u.creator()] == null) {
-                fiber[u.creator()] = u;
-            }
+            put(u.creator(), u.height(), u);
         }
 
         public void updateLevel(Unit u) {
             assert u != null : "Cannot insert null unit";
-            final var fiber = getFiber(u.level());
-            if (fiber[u.creator()] == null) {
-                fiber[u.creator()] = u;
-            }
+            put(u.creator(), u.level(), u);
         }
 
-        private Unit[] getFiber(int height) {
-            if (content.size() < height + 1) {
-                for (var i = content.size() - 1; i < height + 1; i++) {
-                    content.add(new Unit[width]);
-                }
+        private void put(short creator, int index, Unit u) {
+            var fiber = fibers.get(creator);
+            if (index >= fiber.length) {
+                fiber = Arrays.copyOf(fiber, Math.max(index + 1, fiber.length << 1));
+                fiber[index] = u;
+                fibers.set(creator, fiber);
+            } else if (UNITS.getAcquire(fiber, index) == null) {
+                UNITS.setRelease(fiber, index, u);
+            }
+            if (index >= length) {
+                length = index + 1;
             }
-            return content.get(height);
         }
     }
 
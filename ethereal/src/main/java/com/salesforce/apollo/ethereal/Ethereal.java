@@ -146,6 +146,7 @@ public class Ethereal {
     private final Queue<Unit>          lastTiming;
     private final int                  maxSerializedSize;
     private final Consumer<Integer>    newEpochAction;
+    private volatile Consumer<Update>  pusher;
     private final AtomicBoolean        started      = new AtomicBoolean();
     private final Consumer<List<Unit>> toPreblock;
 
@@ -225,6 +226,11 @@ public class Ethereal {
                 return builder.build();
             }
 
+            @Override
+            public void pushTo(Consumer<Update> pusher) {
+                Ethereal.this.pusher = pusher;
+            }
+
             @Override
             public Update update(Update update) {
                 final var builder = Update.newBuilder();
@@ -235,6 +241,7 @@ public class Ethereal {
                         final var adder = epoch.adder();
                         if (epoch.id() >= current) {
                             adder.updateFrom(missing);
+                            push(epoch);
                         }
                         builder.addMissings(adder.updateFor(missing.getHaves()));
                     }
@@ -250,6 +257,7 @@ public class Ethereal {
                         var epoch = retreiveEpoch(missing.getEpoch());
                         if (epoch != null) {
                             epoch.adder().updateFrom(missing);
+                            push(epoch);
                         }
                     }
                 });
@@ -374,6 +382,7 @@ public class Ethereal {
         if (ep != null) {
             ep.adder().produce(unit);
             log.debug("Produced: {} on: {}", unit, config.logLabel());
+            push(ep);
         } else {
             log.trace("Unable to retrieve epic for Unit creator: {} epoch: {} height: {} level: {} on: {}",
                       unit.creator(), unit.epoch(), unit.height(), unit.level(), config.logLabel());
@@ -412,6 +421,18 @@ public class Ethereal {
         return e;
     }
 
+    /**
+     * Push the units, prevotes and commits produced by this node in the epoch, if
+     * pushing is enabled
+     */
+    private void push(epoch e) {
+        final var produced = e.adder().outbound();
+        final var current = pusher;
+        if (produced != null && current != null) {
+            current.accept(Update.newBuilder().addMissings(produced).build());
+        }
+    }
+
     /**
      * newEpoch creates and returns a new epoch object with the given EpochID. If
      * such epoch already exists, returns it.
@@ -182,7 +182,8 @@ public interface PreUnit {
             Builder builder = PreUnit_s.newBuilder()
                                        .setSignature(signature.toSig())
                                        .setId(id())
-                                       .setCrown(crown.toCrown_s());
+                                       .setCrown(crown.toCrown_s())
+                                       .setSalt(ByteString.copyFrom(salt));
             if (data != null) {
                 builder.setData(data);
             }
@@ -214,7 +215,7 @@ public interface PreUnit {
             if (creator >= verifiers.length) {
                 return false;
             }
-            return verifiers[creator].verify(signature, PreUnit.forSigning(creator, crown, data, salt));
+            return verifiers[creator].verify(signature, PreUnit.forSigning(id(), crown, data, salt));
         }
     }
 
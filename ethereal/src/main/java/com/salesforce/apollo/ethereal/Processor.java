@@ -7,6 +7,8 @@
 
 package com.salesforce.apollo.ethereal;
 
+import java.util.function.Consumer;
+
 import com.salesfoce.apollo.ethereal.proto.Gossip;
 import com.salesfoce.apollo.ethereal.proto.Update;
 import com.salesforce.apollo.crypto.Digest;
@@ -37,6 +39,16 @@ public interface Processor {
      */
     Update gossip(Gossip gossip);
 
+    /**
+     * Push the units, prevotes and commits produced by the receiver's node to the
+     * supplied consumer as they are produced
+     * 
+     * @param pusher - the consumer of the produced updates, or null to stop
+     *               pushing
+     */
+    default void pushTo(Consumer<Update> pusher) {
+    }
+
     /**
      * Second phase, update the receiver state from the supplied update. Return an
      * update based on the current state and the haves of the supplied update
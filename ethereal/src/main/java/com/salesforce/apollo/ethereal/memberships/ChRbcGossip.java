@@ -8,7 +8,9 @@ package com.salesforce.apollo.ethereal.memberships;
 
 import static com.salesforce.apollo.ethereal.memberships.comm.GossiperClient.getCreate;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -16,6 +18,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +51,12 @@ import io.grpc.StatusRuntimeException;
 /**
  * Handles the gossip propigation of proposals, commits and preVotes from this
  * node, as well as the notification of the adder of such from other nodes.
+ * <p>
+ * Optionally, the proposals, commits and preVotes produced by this node are
+ * pushed immediately to the successors of this node on the first rings of the
+ * context. The periodic pull gossip then serves as anti-entropy, and its
+ * interval adapts to the state found missing: halving when the partner supplies
+ * missing state, and doubling back to the configured interval when not.
  * 
  * @author hal.hildebrand
  *
@@ -86,17 +95,20 @@ public class ChRbcGossip {
         }
     }
 
-    private static final Logger log = LoggerFactory.getLogger(ChRbcGossip.class);
+    private static final int    MIN_INTERVAL_DIVISOR = 8;
+    private static final Logger log                  = LoggerFactory.getLogger(ChRbcGossip.class);
 
     private final CommonCommunications<Gossiper, GossiperService> comm;
     private final Context<Member>                                 context;
     private final Executor                                        exec;
+    private final AtomicLong                                      interval   = new AtomicLong();
     private final SigningMember                                   member;
     private final EtherealMetrics                                 metrics;
     private final Processor                                       processor;
+    private volatile int                                          pushFanout = 0;
     private final RingCommunications<Member, Gossiper>            ring;
     private volatile ScheduledFuture<?>                           scheduled;
-    private final AtomicBoolean                                   started = new AtomicBoolean();
+    private final AtomicBoolean                                   started    = new AtomicBoolean();
 
     public ChRbcGossip(Context<Member> context, SigningMember member, Processor processor, Router communications,
                        Executor exec, EtherealMetrics m) {
@@ -116,15 +128,33 @@ public class ChRbcGossip {
     }
 
     /**
-     * Start the receiver's gossip
+     * Start the receiver's periodic pull gossip
      */
     public void start(Duration duration, ScheduledExecutorService scheduler) {
+        start(duration, scheduler, 0);
+    }
+
+    /**
+     * Start the receiver's gossip. The proposals, preVotes and commits produced by
+     * this node are pushed to the successors of this node on the first pushFanout
+     * rings, while the periodic pull gossip provides anti-entropy
+     *
+     * @param duration   - the maximum interval between pull gossip rounds
+     * @param scheduler
+     * @param pushFanout - the number of rings to push to, 0 for pull gossip only
+     */
+    public void start(Duration duration, ScheduledExecutorService scheduler, int pushFanout) {
         if (!started.compareAndSet(false, true)) {
             return;
         }
         Duration initialDelay = duration.plusMillis(Entropy.nextBitsStreamLong(duration.toMillis()));
         log.trace("Starting GossipService[{}] on: {}", context.getId(), member.getId());
+        interval.set(duration.toMillis());
+        this.pushFanout = Math.min(pushFanout, context.getRingCount());
         comm.register(context.getId(), new Terminal());
+        if (this.pushFanout > 0) {
+            processor.pushTo(update -> exec.execute(Utils.wrapped(() -> push(update), log)));
+        }
         scheduler.schedule(() -> {
             try {
                 oneRound(duration, scheduler);
@@ -142,6 +172,7 @@ public class ChRbcGossip {
             return;
         }
         log.trace("Stopping GossipService [{}] for {}", context.getId(), member.getId());
+        processor.pushTo(null);
         comm.deregister(context.getId());
         final var current = scheduled;
         scheduled = null;
@@ -172,6 +203,23 @@ public class ChRbcGossip {
         }
     }
 
+    /**
+     * Adapt the pull gossip interval to the number of proposals, preVotes and
+     * commits the partner supplied as missing from the receiver
+     */
+    private void adapt(Update update, Duration duration) {
+        var missing = 0;
+        for (var m : update.getMissingsList()) {
+            missing += m.getUnitsCount() + m.getPrevotesCount() + m.getCommitsCount();
+        }
+        final var found = missing;
+        final var max = duration.toMillis();
+        final var min = Math.max(1, max / MIN_INTERVAL_DIVISOR);
+        final var next = interval.updateAndGet(current -> found > 0 ? Math.max(min, current / 2)
+                                                                    : Math.min(max, current * 2));
+        log.trace("gossip missing: {} interval: {}ms on: {}", found, next, member.getId());
+    }
+
     /**
      * The second phase of the gossip. Handle the update from our gossip partner
      */
@@ -210,6 +258,7 @@ public class ChRbcGossip {
                 log.warn("error gossiping with {} on: {}", destination.member().getId(), member.getId(), cause);
                 return;
             }
+            adapt(update, duration);
             if (update.equals(Update.getDefaultInstance())) {
                 return;
             }
@@ -224,7 +273,7 @@ public class ChRbcGossip {
                 timer.stop();
             }
             if (started.get()) {
-                scheduled = scheduler.schedule(() -> oneRound(duration, scheduler), duration.toMillis(),
+                scheduled = scheduler.schedule(() -> oneRound(duration, scheduler), interval.get(),
                                                TimeUnit.MILLISECONDS);
             }
         }
@@ -243,4 +292,38 @@ public class ChRbcGossip {
                          (futureSailor, destination) -> handle(futureSailor, destination, duration, scheduler, timer));
         }, log));
     }
+
+    /**
+     * Push the update to the successors of the receiver on the first pushFanout
+     * rings
+     */
+    private void push(Update update) {
+        if (!started.get()) {
+            return;
+        }
+        final var pushed = new HashSet<Member>();
+        for (int r = 0; r < pushFanout; r++) {
+            final var successor = context.ring(r).successor(member);
+            if (successor == null || successor.equals(member) || !pushed.add(successor)) {
+                continue;
+            }
+            final var link = comm.connect(successor);
+            if (link == null) {
+                continue;
+            }
+            log.trace("pushing update to: {} ring: {} on: {}", successor.getId(), r, member.getId());
+            try {
+                link.update(ContextUpdate.newBuilder().setRing(r).setUpdate(update).build());
+            } catch (StatusRuntimeException e) {
+                log.debug("pushing failed with: {} to: {} ring: {} on: {}", e.getMessage(), successor.getId(), r,
+                          member.getId());
+            } finally {
+                try {
+                    link.close();
+                } catch (IOException e) {
+                    log.trace("error closing link to: {} on: {}", successor.getId(), member.getId(), e);
+                }
+            }
+        }
+    }
 }
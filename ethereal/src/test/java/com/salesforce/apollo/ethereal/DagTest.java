@@ -125,6 +125,32 @@ public class DagTest {
         assertEquals(units.get((short) 1).get(0).get(0), floor1[0]);
     }
 
+    @Test
+    public void indexesByIdAndLevel() throws Exception {
+        Dag d = null;
+        try (FileInputStream fis = new FileInputStream(new File("src/test/resources/dags/10/random_100u.txt"))) {
+            d = DagReader.readDag(fis, new DagFactory.TestDagFactory());
+        }
+        var units = collectUnits(d);
+        var maxLevel = -1;
+        for (var byHeight : units.values()) {
+            for (var atHeight : byHeight.values()) {
+                for (var u : atHeight) {
+                    assertEquals(u, d.get(u.hash()));
+                    assertEquals(u, d.get(u.id()));
+                    assertTrue(d.contains(u.id()));
+                    var onLevel = d.unitsOnLevel(u.level());
+                    assertEquals(d.nProc(), onLevel.size());
+                    assertEquals(u.level(), onLevel.get(u.creator()).level());
+                    maxLevel = Math.max(maxLevel, u.level());
+                }
+            }
+        }
+        assertEquals(maxLevel, d.maxLevel());
+        assertTrue(d.unitsAbove(d.maxView().heights()).isEmpty());
+        assertEquals(0, d.unitsOnLevel(maxLevel + 1).size());
+    }
+
     @Test
     public void lackOfSymmetryOfAbove() throws Exception {
         Dag d = null;
@@ -7,12 +7,15 @@
 package com.salesforce.apollo.ethereal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.security.SecureRandom;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +26,11 @@ import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.protobuf.ByteString;
+import com.salesfoce.apollo.ethereal.proto.Have;
+import com.salesfoce.apollo.ethereal.proto.Heights;
+import com.salesfoce.apollo.ethereal.proto.Missing;
+import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.Verifier;
 import com.salesforce.apollo.ethereal.Adder.State;
@@ -95,22 +103,22 @@ public class RbcAdderTest {
         adder.propose(u.hash(), u.toPreUnit_s());
 
         assertEquals(1, adder.getPrevotes().size());
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.prevote(u.hash(), (short) 1);
 
-        assertEquals(2, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(2, adder.getPrevotes().get(u.hash()).cardinality());
         assertEquals(0, adder.getCommits().size());
 
         adder.prevote(u.hash(), (short) 2);
 
-        assertEquals(3, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(3, adder.getPrevotes().get(u.hash()).cardinality());
 
         assertNull(dag.get(u.hash()));
 
         assertEquals(1, adder.getCommits().size());
         adder.commit(u.hash(), (short) 1);
-        assertEquals(2, adder.getCommits().get(u.hash()).size());
+        assertEquals(2, adder.getCommits().get(u.hash()).cardinality());
 
         assertNotNull(u.hash());
 
@@ -128,16 +136,16 @@ public class RbcAdderTest {
         assertEquals(1, adder.getPrevotes().size());
         assertEquals(0, adder.getCommits().size());
 
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.prevote(u.hash(), (short) 1);
         adder.prevote(u.hash(), (short) 3);
 
-        assertEquals(3, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(3, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.commit(u.hash(), (short) 1);
 
-        assertEquals(2, adder.getCommits().get(u.hash()).size());
+        assertEquals(2, adder.getCommits().get(u.hash()).cardinality());
 
         assertNull(dag.get(u.hash()));
 
@@ -165,8 +173,8 @@ public class RbcAdderTest {
         adder.prevote(u.hash(), (short) 2);
 
         assertEquals(1, adder.getCommits().size());
-        assertEquals(3, adder.getPrevotes().get(u.hash()).size());
-        assertEquals(1, adder.getCommits().get(u.hash()).size());
+        assertEquals(3, adder.getPrevotes().get(u.hash()).cardinality());
+        assertEquals(1, adder.getCommits().get(u.hash()).cardinality());
 
         adder.commit(u.hash(), (short) 1);
 
@@ -205,29 +213,29 @@ public class RbcAdderTest {
 
         assertEquals(1, adder.getPrevotes().size());
         assertEquals(0, adder.getCommits().size());
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         u = unit(2, 0);
         adder.propose(u.hash(), u.toPreUnit_s());
 
         assertEquals(2, adder.getPrevotes().size());
         assertEquals(0, adder.getCommits().size());
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         u = unit(3, 0);
         adder.propose(u.hash(), u.toPreUnit_s());
 
         assertEquals(3, adder.getPrevotes().size());
         assertEquals(0, adder.getCommits().size());
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.prevote(prime.hash(), (short) 1);
 
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.prevote(prime.hash(), (short) 2);
 
-        assertEquals(1, adder.getPrevotes().get(u.hash()).size());
+        assertEquals(1, adder.getPrevotes().get(u.hash()).cardinality());
 
         adder.commit(prime.hash(), (short) 1);
 
@@ -240,6 +248,72 @@ public class RbcAdderTest {
         assertNotNull(dag.get(prime.hash()));
     }
 
+    @Test
+    public void negotiateHaveForm() throws Exception {
+        final var dag = new DagImpl(config, 0);
+        var adder = new Adder(0, dag, 1024 * 1024, config, new ConcurrentSkipListSet<>());
+        round(0, adder);
+
+        // The Bloom form is answered until a partner declares it reads the exact form
+        var have = adder.have();
+        assertFalse(have.hasHeights());
+        assertTrue(have.getExact());
+
+        adder.updateFor(have);
+        assertTrue(adder.have().hasHeights());
+
+        // A partner predating the exact form downgrades the receiver for the epoch
+        var legacy = adder.updateFor(have.toBuilder().clearExact().build());
+        assertFalse(legacy.getHaves().hasHeights());
+        assertTrue(legacy.getHaves().hasHaveUnits());
+
+        adder.updateFor(Have.newBuilder()
+                            .setEpoch(0)
+                            .setExact(true)
+                            .setHeights(Heights.newBuilder().addAllHeights(List.of(0, 0, 0, 0)))
+                            .build());
+        assertFalse(adder.have().hasHeights());
+    }
+
+    @Test
+    public void reconcileHeights() throws Exception {
+        final var dag = new DagImpl(config, 0);
+        var adder = new Adder(0, dag, 1024 * 1024, config, new ConcurrentSkipListSet<>());
+        round(0, adder);
+        round(1, adder);
+        var u = unit(1, 2);
+        adder.propose(u.hash(), u.toPreUnit_s());
+
+        var missing = adder.updateFor(Have.newBuilder()
+                                          .setEpoch(0)
+                                          .setExact(true)
+                                          .setHeights(Heights.newBuilder().addAllHeights(List.of(-1, -1, -1, -1)))
+                                          .build());
+        assertEquals(9, missing.getUnitsCount());
+
+        var have = adder.have();
+        assertTrue(have.hasHeights());
+        assertEquals(List.of(1, 1, 1, 1), have.getHeights().getHeightsList());
+        assertEquals(List.of(u.hash().toDigeste()), have.getHeights().getUnitsList());
+        assertEquals(1, have.getHeights().getPrevotesCount());
+        assertEquals(0, have.getHeights().getCommitsCount());
+
+        missing = adder.updateFor(Have.newBuilder()
+                                      .setEpoch(0)
+                                      .setExact(true)
+                                      .setHeights(Heights.newBuilder().addAllHeights(List.of(1, 1, 1, 1)))
+                                      .build());
+        assertEquals(1, missing.getUnitsCount());
+        assertEquals(u.toPreUnit_s(), missing.getUnits(0));
+        assertEquals(1, missing.getPrevotesCount());
+        assertEquals(0, missing.getCommitsCount());
+
+        missing = adder.updateFor(adder.have());
+        assertEquals(0, missing.getUnitsCount());
+        assertEquals(0, missing.getPrevotesCount());
+        assertEquals(0, missing.getCommitsCount());
+    }
+
     @Test
     public void round3() throws Exception {
         final var dag = new DagImpl(config, 0);
@@ -274,6 +348,54 @@ public class RbcAdderTest {
         }
     }
 
+    @Test
+    public void updateFromVerifiesSignatures() throws Exception {
+        final var dag = new DagImpl(config, 0);
+        var adder = new Adder(0, dag, 1024 * 1024, config, new ConcurrentSkipListSet<>());
+        var u = unit(1, 0);
+
+        var valid = Adder.prevote(u.id(), u.hash(), (short) 1, members.get(1), config.digestAlgorithm());
+        var forged = Adder.prevote(u.id(), u.hash(), (short) 2, members.get(1), config.digestAlgorithm());
+        var commit = Adder.commit(u.id(), u.hash(), (short) 3, members.get(3), config.digestAlgorithm());
+        adder.updateFrom(Missing.newBuilder()
+                                .setEpoch(0)
+                                .addPrevotes(valid.signed())
+                                .addPrevotes(forged.signed())
+                                .addCommits(commit.signed())
+                                .build());
+
+        assertEquals(1, adder.getSignedPrevotes().size());
+        assertNotNull(adder.getSignedPrevotes().get(valid.hash()));
+        assertEquals(BitSet.valueOf(new long[] { 1L << 1 }), adder.getPrevotes().get(u.hash()));
+        assertNotNull(adder.getSignedCommits().get(commit.hash()));
+        assertEquals(BitSet.valueOf(new long[] { 1L << 3 }), adder.getCommits().get(u.hash()));
+    }
+
+    @Test
+    public void updateFromVerifiesUnits() throws Exception {
+        final var dag = new DagImpl(config, 0);
+        final var failed = new ConcurrentSkipListSet<Digest>();
+        var adder = new Adder(0, dag, 1024 * 1024, config, failed);
+        final var algo = config.digestAlgorithm();
+        final var data = ByteString.copyFromUtf8("Dealing");
+
+        var signed = PreUnit.newFreeUnit((short) 1, 0, new Unit[members.size()], 0, data, algo, members.get(1));
+        var forged = PreUnit.newFreeUnit((short) 2, 0, new Unit[members.size()], 0, data, algo, members.get(1));
+        adder.updateFrom(Missing.newBuilder()
+                                .setEpoch(0)
+                                .addUnits(signed.toPreUnit_s())
+                                .addUnits(forged.toPreUnit_s())
+                                .build());
+
+        // The signed unit round trips and is prevoted, the forged unit fails
+        assertEquals(signed.hash(), PreUnit.from(signed.toPreUnit_s(), algo).hash());
+        assertNotNull(adder.getWaiting().get(signed.hash()));
+        assertEquals(1, adder.getPrevotes().get(signed.hash()).cardinality());
+        assertFalse(failed.contains(signed.hash()));
+        assertNull(adder.getWaiting().get(forged.hash()));
+        assertTrue(failed.contains(forged.hash()));
+    }
+
     @Test
     public void waitingForParents() {
         final var dag = new DagImpl(config, 0);
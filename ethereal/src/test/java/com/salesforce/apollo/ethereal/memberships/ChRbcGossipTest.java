@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.ethereal.memberships;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.salesfoce.apollo.ethereal.proto.Gossip;
+import com.salesfoce.apollo.ethereal.proto.Missing;
+import com.salesfoce.apollo.ethereal.proto.PreUnit_s;
+import com.salesfoce.apollo.ethereal.proto.Update;
+import com.salesforce.apollo.archipelago.LocalServer;
+import com.salesforce.apollo.archipelago.Router;
+import com.salesforce.apollo.archipelago.ServerConnectionCache;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.ethereal.Processor;
+import com.salesforce.apollo.ethereal.memberships.comm.EtherealMetricsImpl;
+import com.salesforce.apollo.membership.Context;
+import com.salesforce.apollo.membership.ContextImpl;
+import com.salesforce.apollo.membership.Member;
+import com.salesforce.apollo.membership.SigningMember;
+import com.salesforce.apollo.membership.stereotomy.ControlledIdentifierMember;
+import com.salesforce.apollo.stereotomy.StereotomyImpl;
+import com.salesforce.apollo.stereotomy.mem.MemKERL;
+import com.salesforce.apollo.stereotomy.mem.MemKeyStore;
+import com.salesforce.apollo.utils.Utils;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class ChRbcGossipTest {
+
+    /**
+     * Records the gossip of the node, answering the configured reply to the pull
+     * gossip of its partners
+     */
+    private static class Recording implements Processor {
+        private final AtomicInteger       gossiped = new AtomicInteger();
+        private volatile Consumer<Update> pusher;
+        private final List<Update>        received = new CopyOnWriteArrayList<>();
+        private final Update              reply;
+
+        private Recording(Update reply) {
+            this.reply = reply;
+        }
+
+        @Override
+        public Gossip gossip(Digest context, int ring) {
+            return Gossip.newBuilder().setRing(ring).build();
+        }
+
+        @Override
+        public Update gossip(Gossip gossip) {
+            gossiped.incrementAndGet();
+            return reply;
+        }
+
+        @Override
+        public void pushTo(Consumer<Update> pusher) {
+            this.pusher = pusher;
+        }
+
+        @Override
+        public Update update(Update update) {
+            return Update.getDefaultInstance();
+        }
+
+        @Override
+        public void updateFrom(Update update) {
+            received.add(update);
+        }
+    }
+
+    private static final int CARDINALITY = 4;
+
+    private final List<Router>          comms     = new ArrayList<>();
+    private Context<Member>             context;
+    private final List<ExecutorService> executors = new ArrayList<>();
+    private final List<ChRbcGossip>     gossipers = new ArrayList<>();
+    private List<SigningMember>         members;
+    private final List<Recording>       recorders = new ArrayList<>();
+
+    @AfterEach
+    public void after() {
+        gossipers.forEach(g -> g.stop());
+        comms.forEach(c -> c.close(Duration.ofSeconds(1)));
+        executors.forEach(e -> e.shutdownNow());
+    }
+
+    @BeforeEach
+    public void before() throws Exception {
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        var stereotomy = new StereotomyImpl(new MemKeyStore(), new MemKERL(DigestAlgorithm.DEFAULT), entropy);
+        members = IntStream.range(0, CARDINALITY).mapToObj(i -> {
+            try {
+                return stereotomy.newIdentifier().get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }).map(cpk -> new ControlledIdentifierMember(cpk)).map(e -> (SigningMember) e).toList();
+        context = new ContextImpl<>(DigestAlgorithm.DEFAULT.getOrigin(), members.size(), 0.1, 3);
+        members.forEach(m -> context.activate(m));
+    }
+
+    @Test
+    public void adaptsPullInterval() throws Exception {
+        final var duration = Duration.ofMillis(200);
+        final var missing = Update.newBuilder()
+                                  .addMissings(Missing.newBuilder().addUnits(PreUnit_s.getDefaultInstance()))
+                                  .build();
+
+        gossip(Update.getDefaultInstance(), duration, 0);
+        Thread.sleep(2_000);
+        final var quiet = recorders.stream().mapToInt(r -> r.gossiped.get()).sum();
+        after();
+        gossipers.clear();
+        comms.clear();
+        executors.clear();
+        recorders.clear();
+
+        // Partners always supply missing state, so the interval halves down to an
+        // eighth of the duration
+        gossip(missing, duration, 0);
+        Thread.sleep(2_000);
+        final var eager = recorders.stream().mapToInt(r -> r.gossiped.get()).sum();
+
+        assertTrue(quiet > 0, "No pull gossip");
+        assertTrue(eager > 2 * quiet, "Interval did not adapt, quiet: " + quiet + " eager: " + eager);
+    }
+
+    @Test
+    public void pullOnly() throws Exception {
+        gossip(Update.getDefaultInstance(), Duration.ofHours(1), 0);
+        recorders.forEach(r -> assertNull(r.pusher));
+    }
+
+    @Test
+    public void pushToSuccessors() throws Exception {
+        final var fanout = 2;
+        // Pull gossip does not start within the test
+        gossip(Update.getDefaultInstance(), Duration.ofHours(1), fanout);
+        recorders.forEach(r -> assertNotNull(r.pusher));
+
+        final var origin = members.get(0);
+        final var expected = new HashSet<Member>();
+        for (int r = 0; r < fanout; r++) {
+            final var successor = context.ring(r).successor(origin);
+            if (successor != null && !successor.equals(origin)) {
+                expected.add(successor);
+            }
+        }
+        assertTrue(!expected.isEmpty());
+
+        final var update = Update.newBuilder()
+                                 .addMissings(Missing.newBuilder().setEpoch(7).addUnits(PreUnit_s.getDefaultInstance()))
+                                 .build();
+        recorders.get(0).pusher.accept(update);
+
+        assertTrue(Utils.waitForCondition(5_000, () -> expected.stream().allMatch(m -> received(m))),
+                   "Update not pushed to: " + expected);
+        for (int i = 0; i < members.size(); i++) {
+            final var received = recorders.get(i).received;
+            if (expected.contains(members.get(i))) {
+                assertEquals(List.of(update), received);
+            } else {
+                assertTrue(received.isEmpty(), "Unexpected push to: " + members.get(i).getId());
+            }
+        }
+
+        gossipers.get(0).stop();
+        assertNull(recorders.get(0).pusher);
+    }
+
+    private void gossip(Update reply, Duration duration, int pushFanout) {
+        final var prefix = UUID.randomUUID().toString();
+        final var metrics = new EtherealMetricsImpl(context.getId(), "test", new MetricRegistry());
+        for (var member : members) {
+            final var exec = Executors.newFixedThreadPool(2, Thread.ofVirtual().factory());
+            executors.add(exec);
+            var com = new LocalServer(prefix, member, exec).router(ServerConnectionCache.newBuilder(), exec);
+            comms.add(com);
+            final var recording = new Recording(reply);
+            recorders.add(recording);
+            gossipers.add(new ChRbcGossip(context, member, recording, com, exec, metrics));
+        }
+        comms.forEach(c -> c.start());
+        for (var g : gossipers) {
+            final var scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+            executors.add(scheduler);
+            g.start(duration, scheduler, pushFanout);
+        }
+    }
+
+    private boolean received(Member m) {
+        return !recorders.get(members.indexOf(m)).received.isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.fireflies;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import com.salesfoce.apollo.utils.proto.Biff;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.utils.Entropy;
+import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
+
+/**
+ * The Bloom filter of a changing set of digests. The set is gathered lazily,
+ * and regathered only when it is requested after a change has been signalled.
+ * Each filter is built from the cached set with a fresh seed, so that no two
+ * rounds or partners share the false positives of a filter. Seeds are drawn
+ * from the fast bits stream rather than the secure source, as they need only be
+ * unpredictable to peers, not cryptographically strong
+ *
+ * @author hal.hildebrand
+ *
+ */
+class CachedBiff {
+    private record Snapshot(long version, List<Digest> digests) {}
+
+    private final IntSupplier               capacity;
+    private final Supplier<List<Digest>>    digests;
+    private final double                    fpr;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong                version  = new AtomicLong();
+
+    /**
+     * @param digests  - gathers the current set of digests
+     * @param capacity - the expected cardinality of the filter
+     * @param fpr      - the false positive rate of the filter
+     */
+    CachedBiff(Supplier<List<Digest>> digests, IntSupplier capacity, double fpr) {
+        this.digests = digests;
+        this.capacity = capacity;
+        this.fpr = fpr;
+    }
+
+    /**
+     * Signal that the set of digests has changed
+     */
+    void changed() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return the current set of digests, regathered only after a change
+     */
+    List<Digest> digests() {
+        final var current = version.get();
+        final var cached = snapshot.get();
+        if (cached != null && cached.version == current) {
+            return cached.digests;
+        }
+        final var gathered = new Snapshot(current, digests.get());
+        snapshot.accumulateAndGet(gathered, (prev, next) -> prev != null && prev.version > next.version ? prev : next);
+        return gathered.digests;
+    }
+
+    /**
+     * @return a freshly seeded filter of the current set of digests
+     */
+    Biff get() {
+        return get(Entropy.nextBitsStreamLong());
+    }
+
+    /**
+     * @return the filter of the current set of digests, seeded with the supplied
+     *         seed
+     */
+    Biff get(long seed) {
+        final var current = digests();
+        final var bff = new BloomFilter.DigestBloomFilter(seed, Math.max(capacity.getAsInt(), current.size()), fpr);
+        current.forEach(d -> bff.add(d));
+        return bff.toBff();
+    }
+}
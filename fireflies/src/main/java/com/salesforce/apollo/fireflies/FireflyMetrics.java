@@ -71,5 +71,9 @@ public interface FireflyMetrics extends EndpointMetrics {
 
     Meter shunnedGossip();
 
+    Meter verificationHits();
+
+    Meter verificationMisses();
+
     Meter viewChanges();
 }
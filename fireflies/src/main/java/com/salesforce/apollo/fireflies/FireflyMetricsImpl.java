@@ -11,6 +11,7 @@ import static com.codahale.metrics.MetricRegistry.name;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
 import com.codahale.metrics.Timer;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.protocols.EndpointMetricsImpl;
@@ -47,6 +48,8 @@ public class FireflyMetricsImpl extends EndpointMetricsImpl implements FireflyMe
     private final Timer     outboundUpdateTimer;
     private final Timer     seedDuration;
     private final Meter     shunnedGossip;
+    private final Meter     verificationHits;
+    private final Meter     verificationMisses;
     private final Meter     viewChanges;
 
     public FireflyMetricsImpl(Digest context, MetricRegistry registry) {
@@ -80,6 +83,15 @@ public class FireflyMetricsImpl extends EndpointMetricsImpl implements FireflyMe
         shunnedGossip = registry.meter(name(context.shortString(), "ff.gossip.shunned"));
         inboundSeed = registry.histogram(name(context.shortString(), "ff.seed.inbound"));
         viewChanges = registry.meter(name(context.shortString(), "ff.view.change"));
+        verificationHits = registry.meter(name(context.shortString(), "ff.verification.hits"));
+        verificationMisses = registry.meter(name(context.shortString(), "ff.verification.misses"));
+        registry.gauge(name(context.shortString(), "ff.verification.hit.ratio"), () -> new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                final var hits = verificationHits.getCount();
+                return Ratio.of(hits, hits + verificationMisses.getCount());
+            }
+        });
     }
 
     @Override
@@ -217,6 +229,16 @@ public class FireflyMetricsImpl extends EndpointMetricsImpl implements FireflyMe
         return shunnedGossip;
     }
 
+    @Override
+    public Meter verificationHits() {
+        return verificationHits;
+    }
+
+    @Override
+    public Meter verificationMisses() {
+        return verificationMisses;
+    }
+
     @Override
     public Meter viewChanges() {
         return viewChanges;
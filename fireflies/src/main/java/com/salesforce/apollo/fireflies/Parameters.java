@@ -14,7 +14,7 @@ import java.time.Duration;
  */
 public record Parameters(int joinRetries, int minimumBiffCardinality, int rebuttalTimeout, int viewChangeRounds,
                          int finalizeViewRounds, double fpr, int maximumTxfr, Duration retryDelay, int maxPending,
-                         Duration seedingTimeout, int validationRetries, int crowns) {
+                         Duration seedingTimeout, int validationRetries, int crowns, int verificationCacheSize) {
 
     public static Builder newBuilder() {
         return new Builder();
@@ -66,6 +66,10 @@ public record Parameters(int joinRetries, int minimumBiffCardinality, int rebutt
          * Max number of times to attempt validation when joining a view
          */
         private int      validationRetries      = 3;
+        /**
+         * Maximum number of successful signature verifications cached
+         */
+        private int      verificationCacheSize  = 10_000;
         /**
          * Minimum number of rounds to check for view change
          */
@@ -74,7 +78,7 @@ public record Parameters(int joinRetries, int minimumBiffCardinality, int rebutt
         public Parameters build() {
             return new Parameters(joinRetries, minimumBiffCardinality, rebuttalTimeout, viewChangeRounds,
                                   finalizeViewRounds, fpr, maximumTxfr, retryDelay, maxPending, seedingTimout,
-                                  validationRetries, crowns);
+                                  validationRetries, crowns, verificationCacheSize);
         }
 
         public int getCrowns() {
@@ -121,6 +125,10 @@ public record Parameters(int joinRetries, int minimumBiffCardinality, int rebutt
             return validationRetries;
         }
 
+        public int getVerificationCacheSize() {
+            return verificationCacheSize;
+        }
+
         public int getViewChangeRounds() {
             return viewChangeRounds;
         }
@@ -180,6 +188,11 @@ public record Parameters(int joinRetries, int minimumBiffCardinality, int rebutt
             return this;
         }
 
+        public Builder setVerificationCacheSize(int verificationCacheSize) {
+            this.verificationCacheSize = verificationCacheSize;
+            return this;
+        }
+
         public Builder setViewChangeRounds(int viewChangeRounds) {
             this.viewChangeRounds = viewChangeRounds;
             return this;
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.fireflies;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.protobuf.ByteString;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.JohnHancock;
+import com.salesforce.apollo.crypto.SigningThreshold;
+import com.salesforce.apollo.stereotomy.EventCoordinates;
+import com.salesforce.apollo.stereotomy.EventValidation;
+import com.salesforce.apollo.stereotomy.identifier.Identifier;
+
+/**
+ * A bounded cache of the successful verifications of signatures against the
+ * key state of members. The same notes and accusations are received from many
+ * gossip partners, and each verification is only performed once while cached.
+ * Verifications are keyed by the coordinates of the establishment event, the
+ * threshold, and the digests of the message and signature. Failed verifications
+ * are not cached
+ *
+ * @author hal.hildebrand
+ *
+ */
+class Verifications {
+    private record Verified(EventCoordinates coordinates, SigningThreshold threshold, Digest message,
+                            Digest signature) {}
+
+    private final DigestAlgorithm          algorithm;
+    private final FireflyMetrics           metrics;
+    private final EventValidation          validation;
+    private final Cache<Verified, Boolean> verified;
+
+    Verifications(EventValidation validation, DigestAlgorithm algorithm, int maximumSize, FireflyMetrics metrics) {
+        this.validation = validation;
+        this.algorithm = algorithm;
+        this.metrics = metrics;
+        verified = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    void clear() {
+        verified.invalidateAll();
+    }
+
+    /**
+     * Invalidate all the verifications of the identifier, regardless of the
+     * establishment event they were made against, as the identifier's key state
+     * has rotated or been reset
+     */
+    void invalidate(Identifier identifier) {
+        verified.asMap().keySet().removeIf(v -> identifier.equals(v.coordinates.getIdentifier()));
+    }
+
+    boolean verify(EventCoordinates coordinates, JohnHancock signature, ByteString message) {
+        return verify(coordinates, null, signature, message);
+    }
+
+    boolean verify(EventCoordinates coordinates, JohnHancock signature, InputStream message) {
+        return verify(coordinates, null, signature, read(message));
+    }
+
+    boolean verify(EventCoordinates coordinates, SigningThreshold threshold, JohnHancock signature,
+                   InputStream message) {
+        return verify(coordinates, threshold, signature, read(message));
+    }
+
+    private ByteString read(InputStream message) {
+        try {
+            return ByteString.readFrom(message);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read message", e);
+        }
+    }
+
+    /**
+     * @param threshold - the signing threshold, or null if all signatures are
+     *                  required
+     */
+    private boolean verify(EventCoordinates coordinates, SigningThreshold threshold, JohnHancock signature,
+                           ByteString message) {
+        final var key = new Verified(coordinates, threshold, algorithm.digest(message), signature.toDigest(algorithm));
+        if (verified.getIfPresent(key) != null) {
+            if (metrics != null) {
+                metrics.verificationHits().mark();
+            }
+            return true;
+        }
+        if (metrics != null) {
+            metrics.verificationMisses().mark();
+        }
+        final var valid = threshold == null ? validation.verify(coordinates, signature, message.newInput())
+                                            : validation.verify(coordinates, threshold, signature,
+                                                                message.newInput());
+        if (valid) {
+            verified.put(key, Boolean.TRUE);
+        }
+        return valid;
+    }
+}
@@ -313,6 +313,7 @@ public class View {
                                        .setSignature(wrapped.sign(n.toByteString()).toSig())
                                        .build();
             note = new NoteWrapper(signedNote, digestAlgo);
+            notesBiff.changed();
         }
 
         KeyState_ noteState() {
@@ -336,6 +337,7 @@ public class View {
                                               .setSignature(wrapped.sign(n.toByteString()).toSig())
                                               .build();
             note = new NoteWrapper(signedNote, digestAlgo);
+            notesBiff.changed();
         }
     }
 
@@ -436,13 +438,13 @@ public class View {
             if (current == null) {
                 return true;
             }
-            return validation.verify(current.getCoordinates(), signature, message);
+            return verifications.verify(current.getCoordinates(), signature, message);
         }
 
         @Override
         public boolean verify(SigningThreshold threshold, JohnHancock signature, InputStream message) {
             final var current = note;
-            return validation.verify(current.getCoordinates(), threshold, signature, message);
+            return verifications.verify(current.getCoordinates(), threshold, signature, message);
         }
 
         /**
@@ -458,6 +460,7 @@ public class View {
             NoteWrapper n = getNote();
             if (n == null) {
                 validAccusations[ringNumber] = accusation;
+                accusationsBiff.changed();
                 return;
             }
             if (n.getEpoch() != accusation.getEpoch()) {
@@ -467,6 +470,7 @@ public class View {
             }
             if (n.getMask().get(ringNumber)) {
                 validAccusations[ringNumber] = accusation;
+                accusationsBiff.changed();
                 if (log.isDebugEnabled()) {
                     log.debug("Member {} is accusing {} ring: {} on: {}", accusation.getAccuser(), getId(), ringNumber,
                               node.getId());
@@ -485,6 +489,7 @@ public class View {
                 }
             }
             Arrays.fill(validAccusations, null);
+            accusationsBiff.changed();
         }
 
         AccusationWrapper getAccusation(int ring) {
@@ -510,6 +515,7 @@ public class View {
 
         void invalidateAccusationOnRing(int index) {
             validAccusations[index] = null;
+            accusationsBiff.changed();
             log.trace("Invalidating accusations of: {} ring: {} on: {}", getId(), index, node.getId());
         }
 
@@ -530,12 +536,23 @@ public class View {
         }
 
         void reset() {
+            final var previous = note;
             note = null;
+            if (previous != null) {
+                verifications.invalidate(previous.getCoordinates().getIdentifier());
+            }
             validAccusations = new AccusationWrapper[context.getRingCount()];
+            notesBiff.changed();
+            accusationsBiff.changed();
         }
 
         boolean setNote(NoteWrapper next) {
+            final var previous = note;
             note = next;
+            notesBiff.changed();
+            if (previous == null || !previous.getCoordinates().equals(next.getCoordinates())) {
+                verifications.invalidate(next.getCoordinates().getIdentifier());
+            }
             if (!shunned.contains(id)) {
                 clearAccusations();
             }
@@ -606,13 +623,11 @@ public class View {
                 } else {
                     g = Gossip.newBuilder()
                               .setRedirect(false)
-                              .setNotes(processNotes(from, BloomFilter.from(digests.getNoteBff()), params.fpr()))
-                              .setAccusations(processAccusations(BloomFilter.from(digests.getAccusationBff()),
-                                                                 params.fpr()))
-                              .setObservations(processObservations(BloomFilter.from(digests.getObservationBff()),
-                                                                   params.fpr()))
-                              .setJoins(viewManagement.processJoins(BloomFilter.from(digests.getJoinBiff()),
-                                                                    params.fpr()))
+                              .setNotes(processNotes(from, BloomFilter.from(digests.getNoteBff())))
+                              .setAccusations(processAccusations(from, BloomFilter.from(digests.getAccusationBff())))
+                              .setObservations(processObservations(from,
+                                                                   BloomFilter.from(digests.getObservationBff())))
+                              .setJoins(viewManagement.processJoins(from, BloomFilter.from(digests.getJoinBiff())))
                               .build();
                 }
                 if (g.getNotes().getUpdatesCount() + g.getAccusations().getUpdatesCount()
@@ -717,6 +732,7 @@ public class View {
 //        return mask.cardinality() == context.majority() && mask.length() <= context.getRingCount();
     }
 
+    private final CachedBiff                                  accusationsBiff;
     private final CommonCommunications<Entrance, Service>     approaches;
     private final CommonCommunications<Fireflies, Service>    comm;
     private final Context<Participant>                        context;
@@ -727,7 +743,9 @@ public class View {
     private final AtomicBoolean                               introduced          = new AtomicBoolean();
     private final FireflyMetrics                              metrics;
     private final Node                                        node;
+    private final CachedBiff                                  notesBiff;
     private final Map<Digest, SignedViewChange>               observations        = new ConcurrentSkipListMap<>();
+    private final CachedBiff                                  observationsBiff;
     private final Parameters                                  params;
     private final ConcurrentMap<Digest, RoundScheduler.Timer> pendingRebuttals    = new ConcurrentSkipListMap<>();
     private final RoundScheduler                              roundTimers;
@@ -735,6 +753,7 @@ public class View {
     private final AtomicBoolean                               started             = new AtomicBoolean();
     private final Map<String, RoundScheduler.Timer>           timers              = new HashMap<>();
     private final EventValidation                             validation;
+    private final Verifications                               verifications;
     private final ReadWriteLock                               viewChange          = new ReentrantReadWriteLock(true);
     private final Map<UUID, ViewChangeListener>               viewChangeListeners = new HashMap<>();
     private final ViewManagement                              viewManagement;
@@ -751,8 +770,18 @@ public class View {
         this.metrics = metrics;
         this.validation = validation;
         this.params = params;
+        verifications = new Verifications(validation, digestAlgo, params.verificationCacheSize(), metrics);
         this.digestAlgo = digestAlgo;
         this.context = context;
+        accusationsBiff = new CachedBiff(() -> getAccusationDigests(),
+                                         () -> Math.max(params.minimumBiffCardinality(), context.cardinality()),
+                                         params.fpr());
+        notesBiff = new CachedBiff(() -> getNoteDigests(),
+                                   () -> Math.max(params.minimumBiffCardinality(), context.cardinality() * 2),
+                                   params.fpr());
+        observationsBiff = new CachedBiff(() -> List.copyOf(observations.keySet()),
+                                          () -> Math.max(params.minimumBiffCardinality(), context.cardinality() * 2),
+                                          params.fpr());
         this.roundTimers = new RoundScheduler(String.format("Timers for: %s", context.getId()), context.timeToLive());
         this.node = new Node(member, endpoint);
         viewManagement = new ViewManagement(this, context, params, metrics, node, digestAlgo);
@@ -815,6 +844,8 @@ public class View {
         viewManagement.clear();
         roundTimers.reset();
         context.clear();
+        membersChanged();
+        verifications.clear();
         node.reset();
 
         var initial = Entropy.nextBitsStreamLong(d.toNanos());
@@ -855,6 +886,7 @@ public class View {
             current.cancel(true);
         }
         observations.clear();
+        observationsBiff.changed();
         timers.values().forEach(t -> t.cancel());
         timers.clear();
         viewManagement.clear();
@@ -870,8 +902,8 @@ public class View {
         Participant m = context.getMember(note.getId());
         if (m == null) {
             newMember = true;
-            if (!validation.verify(note.getCoordinates(), note.getSignature(),
-                                   note.getWrapped().getNote().toByteString())) {
+            if (!verifications.verify(note.getCoordinates(), note.getSignature(),
+                                      note.getWrapped().getNote().toByteString())) {
                 log.trace("invalid participant note from: {} on: {}", note.getId(), node.getId());
                 if (metrics != null) {
                     metrics.filteredNotes().mark();
@@ -880,6 +912,7 @@ public class View {
             }
             m = new Participant(note);
             context.add(m);
+            membersChanged();
         } else {
             NoteWrapper current = m.getNote();
             if (!newMember && current != null) {
@@ -978,6 +1011,7 @@ public class View {
                          superMajority, context.cardinality(), currentView(), node.getId());
                 viewManagement.install(max.getElement());
                 observations.clear();
+                observationsBiff.changed();
             } else {
                 @SuppressWarnings("unchecked")
                 final var reversed = Comparator.comparing(e -> ((Entry<Ballot>) e).getCount()).reversed();
@@ -1007,6 +1041,7 @@ public class View {
 
     void initiate(SignedViewChange viewChange) {
         observations.put(node.getId(), viewChange);
+        observationsBiff.changed();
     }
 
     void introduced() {
@@ -1044,6 +1079,7 @@ public class View {
         log.info("Permanently removing {} member {} from context: {} view: {} on: {}",
                  context.isActive(digest) ? "active" : "failed", digest, context.getId(), currentView(), node.getId());
         context.remove(digest);
+        membersChanged();
         shunned.remove(digest);
         if (metrics != null) {
             metrics.leaves().mark();
@@ -1337,7 +1373,11 @@ public class View {
         if (!member.verify(signature, observation.getChange().toByteString())) {
             return false;
         }
-        return observations.put(observer.prefix(observation.getChange().getAttempt()), observation) == null;
+        if (observations.put(observer.prefix(observation.getChange().getAttempt()), observation) != null) {
+            return false;
+        }
+        observationsBiff.changed();
+        return true;
     }
 
     private boolean addJoin(SignedNote sn) {
@@ -1361,8 +1401,8 @@ public class View {
             return false;
         }
 
-        if (!validation.verify(note.getCoordinates(), note.getSignature(),
-                               note.getWrapped().getNote().toByteString())) {
+        if (!verifications.verify(note.getCoordinates(), note.getSignature(),
+                                  note.getWrapped().getNote().toByteString())) {
             log.trace("Invalid join note from {} on: {}", note.getId(), node.getId());
             return false;
         }
@@ -1441,10 +1481,10 @@ public class View {
      */
     private Digests commonDigests() {
         return Digests.newBuilder()
-                      .setAccusationBff(getAccusationsBff(Entropy.nextSecureLong(), params.fpr()).toBff())
-                      .setNoteBff(getNotesBff(Entropy.nextSecureLong(), params.fpr()).toBff())
-                      .setJoinBiff(viewManagement.getJoinsBff(Entropy.nextSecureLong(), params.fpr()).toBff())
-                      .setObservationBff(getObservationsBff(Entropy.nextSecureLong(), params.fpr()).toBff())
+                      .setAccusationBff(accusationsBiff.get())
+                      .setNoteBff(notesBiff.get())
+                      .setJoinBiff(viewManagement.joinsBiff())
+                      .setObservationBff(observationsBiff.get())
                       .build();
     }
 
@@ -1471,42 +1511,21 @@ public class View {
     }
 
     /**
-     * @param seed
-     * @param p
-     * @return the bloom filter containing the digests of known accusations
-     */
-    private BloomFilter<Digest> getAccusationsBff(long seed, double p) {
-        BloomFilter<Digest> bff = new BloomFilter.DigestBloomFilter(seed, Math.max(params.minimumBiffCardinality(),
-                                                                                   context.cardinality()),
-                                                                    p);
-        context.allMembers().flatMap(m -> m.getAccusations()).filter(e -> e != null).forEach(m -> bff.add(m.getHash()));
-        return bff;
-    }
-
-    /**
-     * @param seed
-     * @param p
-     * @return the bloom filter containing the digests of known notes
+     * @return the digests of known accusations
      */
-    private BloomFilter<Digest> getNotesBff(long seed, double p) {
-        BloomFilter<Digest> bff = new BloomFilter.DigestBloomFilter(seed, Math.max(params.minimumBiffCardinality(),
-                                                                                   context.cardinality() * 2),
-                                                                    p);
-        context.allMembers().map(m -> m.getNote()).filter(e -> e != null).forEach(n -> bff.add(n.getHash()));
-        return bff;
+    private List<Digest> getAccusationDigests() {
+        return context.allMembers()
+                      .flatMap(m -> m.getAccusations())
+                      .filter(e -> e != null)
+                      .map(a -> a.getHash())
+                      .toList();
     }
 
     /**
-     * @param seed
-     * @param p
-     * @return the bloom filter containing the digests of known observations
+     * @return the digests of known notes
      */
-    private BloomFilter<Digest> getObservationsBff(long seed, double p) {
-        BloomFilter<Digest> bff = new BloomFilter.DigestBloomFilter(seed, Math.max(params.minimumBiffCardinality(),
-                                                                                   context.cardinality() * 2),
-                                                                    p);
-        observations.keySet().forEach(d -> bff.add(d));
-        return bff;
+    private List<Digest> getNoteDigests() {
+        return context.allMembers().map(m -> m.getNote()).filter(e -> e != null).map(n -> n.getHash()).toList();
     }
 
     /**
@@ -1703,6 +1722,15 @@ public class View {
         }
     }
 
+    /**
+     * Signal the change of the context's membership, and so of the notes and
+     * accusations known
+     */
+    private void membersChanged() {
+        notesBiff.changed();
+        accusationsBiff.changed();
+    }
+
     private AccusationGossip.Builder processAccusations(BloomFilter<Digest> bff) {
         AccusationGossip.Builder builder = AccusationGossip.newBuilder();
         // Add all updates that this view has that aren't reflected in the inbound
@@ -1724,16 +1752,17 @@ public class View {
      * the inbound digets that the view has more recent information. Do not forward
      * accusations from crashed members
      *
-     * @param p
+     * @param from
      * @param digests
      *
      * @return
      */
-    private AccusationGossip processAccusations(BloomFilter<Digest> bff, double p) {
+    private AccusationGossip processAccusations(Digest from, BloomFilter<Digest> bff) {
         AccusationGossip.Builder builder = processAccusations(bff);
-        builder.setBff(getAccusationsBff(Entropy.nextSecureLong(), p).toBff());
+        builder.setBff(accusationsBiff.get());
         if (builder.getUpdatesCount() != 0) {
-            log.trace("process accusations produced updates: {} on: {}", builder.getUpdatesCount(), node.getId());
+            log.trace("process accusations produced updates: {} for: {} on: {}", builder.getUpdatesCount(), from,
+                      node.getId());
         }
         return builder.build();
     }
@@ -1762,14 +1791,14 @@ public class View {
      * inbound digests that the view has more recent information
      *
      * @param from
-     * @param p
      * @param digests
      */
-    private NoteGossip processNotes(Digest from, BloomFilter<Digest> bff, double p) {
+    private NoteGossip processNotes(Digest from, BloomFilter<Digest> bff) {
         NoteGossip.Builder builder = processNotes(bff);
-        builder.setBff(getNotesBff(Entropy.nextSecureLong(), p).toBff());
+        builder.setBff(notesBiff.get());
         if (builder.getUpdatesCount() != 0) {
-            log.trace("process notes produced updates: {} on: {}", builder.getUpdatesCount(), node.getId());
+            log.trace("process notes produced updates: {} for: {} on: {}", builder.getUpdatesCount(), from,
+                      node.getId());
         }
         return builder.build();
     }
@@ -1795,15 +1824,15 @@ public class View {
      * the list of digests the view requires, as well as proposed updates based on
      * the inbound digests that the view has more recent information
      *
-     * @param p
      * @param from
      * @param digests
      */
-    private ViewChangeGossip processObservations(BloomFilter<Digest> bff, double p) {
+    private ViewChangeGossip processObservations(Digest from, BloomFilter<Digest> bff) {
         ViewChangeGossip.Builder builder = processObservations(bff);
-        builder.setBff(getObservationsBff(Entropy.nextSecureLong(), p).toBff());
+        builder.setBff(observationsBiff.get());
         if (builder.getUpdatesCount() != 0) {
-            log.trace("process view change produced updates: {} on: {}", builder.getUpdatesCount(), node.getId());
+            log.trace("process view change produced updates: {} for: {} on: {}", builder.getUpdatesCount(), from,
+                      node.getId());
         }
         return builder.build();
     }
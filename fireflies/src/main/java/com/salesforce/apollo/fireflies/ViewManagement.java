@@ -37,6 +37,7 @@ import com.salesfoce.apollo.fireflies.proto.SignedNote;
 import com.salesfoce.apollo.fireflies.proto.SignedViewChange;
 import com.salesfoce.apollo.fireflies.proto.Update.Builder;
 import com.salesfoce.apollo.fireflies.proto.ViewChange;
+import com.salesfoce.apollo.utils.proto.Biff;
 import com.salesforce.apollo.crypto.Digest;
 import com.salesforce.apollo.crypto.DigestAlgorithm;
 import com.salesforce.apollo.crypto.HexBloom;
@@ -104,6 +105,7 @@ public class ViewManagement {
     private AtomicReference<HexBloom>                      diadem       = new AtomicReference<>();
     private final DigestAlgorithm                          digestAlgo;
     private final ConcurrentMap<Digest, NoteWrapper>       joins        = new ConcurrentSkipListMap<>();
+    private final CachedBiff                               joinsBiff;
     private final FireflyMetrics                           metrics;
     private final Node                                     node;
     private CompletableFuture<Void>                        onJoined;
@@ -118,6 +120,8 @@ public class ViewManagement {
         this.view = view;
         this.context = context;
         this.params = params;
+        joinsBiff = new CachedBiff(() -> List.copyOf(joins.keySet()),
+                                   () -> Math.max(params.minimumBiffCardinality(), joins.size() * 2), params.fpr());
         this.metrics = metrics;
         this.digestAlgo = digestAlgo;
         resetBootstrapView();
@@ -129,11 +133,16 @@ public class ViewManagement {
     }
 
     boolean addJoin(Digest id, NoteWrapper note) {
-        return joins.put(id, note) == null;
+        if (joins.put(id, note) != null) {
+            return false;
+        }
+        joinsBiff.changed();
+        return true;
     }
 
     void bootstrap(NoteWrapper nw, final ScheduledExecutorService sched, final Duration dur) {
         joins.put(nw.getId(), nw);
+        joinsBiff.changed();
         context.activate(node);
 
         resetBootstrapView();
@@ -158,6 +167,7 @@ public class ViewManagement {
 
     void clear() {
         joins.clear();
+        joinsBiff.changed();
         resetBootstrapView();
     }
 
@@ -169,19 +179,6 @@ public class ViewManagement {
         return currentView.get();
     }
 
-    /**
-     * @param seed
-     * @param p
-     * @return the bloom filter containing the digests of known joins
-     */
-    BloomFilter<Digest> getJoinsBff(long seed, double p) {
-        BloomFilter<Digest> bff = new BloomFilter.DigestBloomFilter(seed, Math.max(params.minimumBiffCardinality(),
-                                                                                   joins.size() * 2),
-                                                                    p);
-        joins.keySet().forEach(d -> bff.add(d));
-        return bff;
-    }
-
     /**
      * Install the new view
      * 
@@ -216,6 +213,7 @@ public class ViewManagement {
                             .map(nw -> pendingJoins.remove(nw.getId()))
                             .filter(p -> p != null)
                             .toList();
+        joinsBiff.changed();
 
         setDiadem(HexBloom.construct(context.memberCount(), context.allMembers().map(p -> p.getId()),
                                      view.bootstrapView(), params.crowns()));
@@ -322,6 +320,7 @@ public class ViewManagement {
                        responseObserver, timer);
             });
             joins.put(note.getId(), note);
+            joinsBiff.changed();
             log.debug("Member pending join: {} view: {} context: {} on: {}", from, currentView(), context.getId(),
                       node.getId());
         });
@@ -373,6 +372,13 @@ public class ViewManagement {
         return onJoined.isDone();
     }
 
+    /**
+     * @return the bloom filter of the digests of known joins
+     */
+    Biff joinsBiff() {
+        return joinsBiff.get();
+    }
+
     void joinUpdatesFor(BloomFilter<Digest> joinBff, Builder builder) {
         joins.entrySet()
              .stream()
@@ -411,16 +417,16 @@ public class ViewManagement {
      * list of digests the view requires, as well as proposed updates based on the
      * inbound digests that the view has more recent information
      *
-     * @param p
      * @param from
      * @param digests
      */
-    JoinGossip processJoins(BloomFilter<Digest> bff, double p) {
+    JoinGossip processJoins(Digest from, BloomFilter<Digest> bff) {
         JoinGossip.Builder builder = processJoins(bff);
-        builder.setBff(getJoinsBff(Entropy.nextSecureLong(), p).toBff());
+        builder.setBff(joinsBiff.get());
         JoinGossip gossip = builder.build();
         if (builder.getUpdatesCount() != 0) {
-            log.trace("process joins produced updates: {} on: {}", builder.getUpdatesCount(), node.getId());
+            log.trace("process joins produced updates: {} for: {} on: {}", builder.getUpdatesCount(), from,
+                      node.getId());
         }
         return gossip;
     }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.fireflies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class CachedBiffTest {
+
+    @Test
+    public void rebuildOnChange() {
+        final var gathered = new AtomicInteger();
+        final var digests = new CopyOnWriteArrayList<Digest>(digests(0, 10));
+        final var biff = new CachedBiff(() -> {
+            gathered.incrementAndGet();
+            return List.copyOf(digests);
+        }, () -> 100, 0.000125);
+
+        biff.get();
+        biff.get();
+        biff.get(666);
+        assertEquals(1, gathered.get());
+
+        final var added = digests(10, 20);
+        digests.addAll(added);
+        assertFalse(added.stream().allMatch(d -> BloomFilter.<Digest>from(biff.get(666)).contains(d)));
+
+        // The set is regathered once after the change is signalled
+        biff.changed();
+        final BloomFilter<Digest> rebuilt = BloomFilter.from(biff.get());
+        assertEquals(2, gathered.get());
+        digests.forEach(d -> assertTrue(rebuilt.contains(d)));
+        biff.get();
+        assertEquals(2, gathered.get());
+    }
+
+    @Test
+    public void reseeds() {
+        final var digests = digests(0, 100);
+        final var gathered = new AtomicInteger();
+        final var biff = new CachedBiff(() -> {
+            gathered.incrementAndGet();
+            return digests;
+        }, () -> 10, 0.000125);
+
+        final var seeds = new HashSet<Long>();
+        for (int i = 0; i < 10; i++) {
+            final var bff = biff.get();
+            seeds.add(bff.getSeed());
+            final BloomFilter<Digest> filter = BloomFilter.from(bff);
+            digests.forEach(d -> assertTrue(filter.contains(d)));
+        }
+        // Every filter is freshly seeded from the same cached set
+        assertEquals(10, seeds.size());
+        assertEquals(1, gathered.get());
+
+        // Filters with the same seed are identical
+        assertEquals(biff.get(666), biff.get(666));
+    }
+
+    private List<Digest> digests(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> DigestAlgorithm.DEFAULT.digest("Digest: " + i)).toList();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.fireflies;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+
+import org.joou.ULong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.crypto.JohnHancock;
+import com.salesforce.apollo.crypto.SignatureAlgorithm;
+import com.salesforce.apollo.stereotomy.EventCoordinates;
+import com.salesforce.apollo.stereotomy.EventValidation;
+import com.salesforce.apollo.stereotomy.event.KeyEvent;
+import com.salesforce.apollo.stereotomy.identifier.SelfAddressingIdentifier;
+import com.salesforce.apollo.utils.Entropy;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class VerificationsTest {
+
+    private EventCoordinates coordinates;
+    private ByteString       message;
+    private JohnHancock      signature;
+    private EventValidation  validation;
+    private Verifications    verifications;
+
+    @BeforeEach
+    public void before() {
+        validation = mock(EventValidation.class);
+        verifications = new Verifications(validation, DigestAlgorithm.DEFAULT, 100, null);
+        final var identifier = new SelfAddressingIdentifier(DigestAlgorithm.DEFAULT.digest("Member"));
+        coordinates = new EventCoordinates(identifier, ULong.valueOf(0), DigestAlgorithm.DEFAULT.digest("Inception"),
+                                           KeyEvent.INCEPTION_TYPE);
+        message = ByteString.copyFromUtf8("Hello world");
+        final var bytes = new byte[SignatureAlgorithm.DEFAULT.signatureLength()];
+        Entropy.nextBitsStreamBytes(bytes);
+        signature = new JohnHancock(SignatureAlgorithm.DEFAULT, bytes);
+    }
+
+    @Test
+    public void cachesSuccess() {
+        when(validation.verify(any(EventCoordinates.class), any(JohnHancock.class),
+                               any(InputStream.class))).thenReturn(true);
+
+        assertTrue(verifications.verify(coordinates, signature, message));
+        assertTrue(verifications.verify(coordinates, signature, message));
+        assertTrue(verifications.verify(coordinates, signature, message.newInput()));
+        verify(validation, times(1)).verify(any(EventCoordinates.class), any(JohnHancock.class),
+                                            any(InputStream.class));
+    }
+
+    @Test
+    public void failuresNotCached() {
+        when(validation.verify(any(EventCoordinates.class), any(JohnHancock.class),
+                               any(InputStream.class))).thenReturn(false);
+
+        assertFalse(verifications.verify(coordinates, signature, message));
+        assertFalse(verifications.verify(coordinates, signature, message));
+        verify(validation, times(2)).verify(any(EventCoordinates.class), any(JohnHancock.class),
+                                            any(InputStream.class));
+    }
+
+    @Test
+    public void invalidatedOnRotation() {
+        when(validation.verify(any(EventCoordinates.class), any(JohnHancock.class),
+                               any(InputStream.class))).thenReturn(true);
+        assertTrue(verifications.verify(coordinates, signature, message));
+
+        // The key rotates without a change in the coordinates known to the view
+        when(validation.verify(any(EventCoordinates.class), any(JohnHancock.class),
+                               any(InputStream.class))).thenReturn(false);
+        assertTrue(verifications.verify(coordinates, signature, message));
+
+        verifications.invalidate(coordinates.getIdentifier());
+        assertFalse(verifications.verify(coordinates, signature, message));
+        verify(validation, times(2)).verify(any(EventCoordinates.class), any(JohnHancock.class),
+                                            any(InputStream.class));
+    }
+
+    @Test
+    public void invalidationIsPerIdentifier() {
+        when(validation.verify(any(EventCoordinates.class), any(JohnHancock.class),
+                               any(InputStream.class))).thenReturn(true);
+        final var other = new EventCoordinates(new SelfAddressingIdentifier(DigestAlgorithm.DEFAULT.digest("Other")),
+                                               ULong.valueOf(0), DigestAlgorithm.DEFAULT.digest("Inception"),
+                                               KeyEvent.INCEPTION_TYPE);
+        assertTrue(verifications.verify(coordinates, signature, message));
+        assertTrue(verifications.verify(other, signature, message));
+
+        verifications.invalidate(coordinates.getIdentifier());
+        assertTrue(verifications.verify(other, signature, message));
+        verify(validation, times(2)).verify(any(EventCoordinates.class), any(JohnHancock.class),
+                                            any(InputStream.class));
+
+        assertTrue(verifications.verify(coordinates, signature, message));
+        verify(validation, times(3)).verify(any(EventCoordinates.class), any(JohnHancock.class),
+                                            any(InputStream.class));
+    }
+}
@@ -9,13 +9,13 @@ package com.salesforce.apollo.membership.messaging.rbc;
 import static com.salesforce.apollo.membership.messaging.rbc.comms.RbcClient.getCreate;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -47,6 +47,8 @@ import com.salesfoce.apollo.messaging.proto.MessageBff;
 import com.salesfoce.apollo.messaging.proto.Reconcile;
 import com.salesfoce.apollo.messaging.proto.ReconcileContext;
 import com.salesfoce.apollo.messaging.proto.SignedDefaultMessage;
+import com.salesfoce.apollo.utils.proto.Biff;
+import com.salesfoce.apollo.utils.proto.Iblt;
 import com.salesforce.apollo.archipelago.Router;
 import com.salesforce.apollo.archipelago.Router.CommonCommunications;
 import com.salesforce.apollo.archipelago.Router.ServiceRouting;
@@ -64,6 +66,8 @@ import com.salesforce.apollo.utils.Entropy;
 import com.salesforce.apollo.utils.Utils;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
 import com.salesforce.apollo.utils.bloomFilters.BloomFilter.DigestBloomFilter;
+import com.salesforce.apollo.utils.bloomFilters.DigestIblt;
+import com.salesforce.apollo.utils.bloomFilters.DigestIblt.Difference;
 
 /**
  * Content agnostic reliable broadcast of messages.
@@ -86,17 +90,27 @@ public class ReliableBroadcaster {
 
     public record Msg(List<Digest> source, Any content, Digest hash) {}
 
-    public record Parameters(int bufferSize, int maxMessages, DigestAlgorithm digestAlgorithm, double falsePositiveRate,
-                             int deliveredCacheSize) {
+    /**
+     * @param maxBytes    - the byte budget of the messages of a reconcilliation.
+     *                    The budget bounds each context's round with a member on
+     *                    its own, as the rounds of contexts are not coalesced
+     * @param maxMessages - the limit of the number of messages of a
+     *                    reconcilliation, deprecated in favor of the byte budget
+     */
+    public record Parameters(int bufferSize, int maxBytes, int maxMessages, DigestAlgorithm digestAlgorithm,
+                             double falsePositiveRate, int deliveredCacheSize, int reconcileCells) {
         public static class Builder implements Cloneable {
             private int             bufferSize         = 1500;
             private int             deliveredCacheSize = 100;
             private DigestAlgorithm digestAlgorithm    = DigestAlgorithm.DEFAULT;
             private double          falsePositiveRate  = 0.00125;
-            private int             maxMessages        = 500;
+            private int             maxBytes           = 1024 * 1024;
+            private int             maxMessages        = Integer.MAX_VALUE;
+            private int             reconcileCells     = 384;
 
             public Parameters build() {
-                return new Parameters(bufferSize, maxMessages, digestAlgorithm, falsePositiveRate, deliveredCacheSize);
+                return new Parameters(bufferSize, maxBytes, maxMessages, digestAlgorithm, falsePositiveRate,
+                                      deliveredCacheSize, reconcileCells);
             }
 
             @Override
@@ -120,14 +134,32 @@ public class ReliableBroadcaster {
                 return digestAlgorithm;
             }
 
+            /**
+             * @deprecated the rate applies only to the Bloom filters of the fallback
+             *             reconcilliation
+             */
+            @Deprecated
             public double getFalsePositiveRate() {
                 return falsePositiveRate;
             }
 
+            public int getMaxBytes() {
+                return maxBytes;
+            }
+
+            /**
+             * @deprecated reconcilliation is bounded by the byte budget of
+             *             {@link #getMaxBytes()}
+             */
+            @Deprecated
             public int getMaxMessages() {
                 return maxMessages;
             }
 
+            public int getReconcileCells() {
+                return reconcileCells;
+            }
+
             public Parameters.Builder setBufferSize(int bufferSize) {
                 this.bufferSize = bufferSize;
                 return this;
@@ -143,15 +175,41 @@ public class ReliableBroadcaster {
                 return this;
             }
 
+            /**
+             * Set the false positive rate of the Bloom filters of the fallback
+             * reconcilliation
+             *
+             * @deprecated reconcilliation is by iblt, the Bloom filters are only the
+             *             fallback for differences too large to recover
+             */
+            @Deprecated
             public Builder setFalsePositiveRate(double falsePositiveRate) {
                 this.falsePositiveRate = falsePositiveRate;
                 return this;
             }
 
+            public Builder setMaxBytes(int maxBytes) {
+                this.maxBytes = maxBytes;
+                return this;
+            }
+
+            /**
+             * Limit the number of messages of a reconcilliation, in addition to the
+             * byte budget. Unlimited by default
+             *
+             * @deprecated bound reconcilliation by the byte budget of
+             *             {@link #setMaxBytes(int)}
+             */
+            @Deprecated
             public Builder setMaxMessages(int maxMessages) {
                 this.maxMessages = maxMessages;
                 return this;
             }
+
+            public Builder setReconcileCells(int reconcileCells) {
+                this.reconcileCells = reconcileCells;
+                return this;
+            }
         }
 
         public static Parameters.Builder newBuilder() {
@@ -170,10 +228,19 @@ public class ReliableBroadcaster {
                          predecessor == null ? "<null>" : predecessor.getId());
                 return Reconcile.getDefaultInstance();
             }
-            return Reconcile.newBuilder()
-                            .addAllUpdates(buffer.reconcile(BloomFilter.from(request.getDigests()), from))
-                            .setDigests(buffer.forReconcilliation().toBff())
+            final var reply = Reconcile.newBuilder().setIblt(buffer.forReconcilliation());
+            if (!request.hasIblt()) {
+                // The predecessor predates the iblt
+                return reply.addAllUpdates(buffer.reconcile(BloomFilter.from(request.getDigests()), from))
+                            .setDigests(buffer.forFallback())
                             .build();
+            }
+            final var reconciliation = buffer.reconcile(request.getIblt(), from);
+            reply.addAllUpdates(reconciliation.updates());
+            if (!reconciliation.exact()) {
+                reply.setDigests(buffer.forFallback());
+            }
+            return reply.build();
         }
 
         public void update(ReconcileContext reconcile, Digest from) {
@@ -188,29 +255,95 @@ public class ReliableBroadcaster {
         }
     }
 
-    private class Buffer {
-        private final DigestWindow       delivered;
-        private final Semaphore          garbageCollecting = new Semaphore(1);
-        private final int                highWaterMark;
-        private final int                maxAge;
-        private final AtomicInteger      round             = new AtomicInteger();
-        private final Map<Digest, state> state             = new ConcurrentHashMap<>();
-        private final Semaphore          tickGate          = new Semaphore(1);
+    /**
+     * Admits messages until their serialized size would exceed the byte budget of
+     * a reconcilliation, or their number the deprecated message limit. The first
+     * message is always admitted, so that no message is too large to ever be
+     * gossiped
+     */
+    private class Budget implements Predicate<AgedMessage> {
+        private int     admitted;
+        private boolean exhausted;
+        private int     remaining = params.maxBytes;
+
+        public boolean exhausted() {
+            return exhausted;
+        }
 
+        @Override
+        public boolean test(AgedMessage message) {
+            if (exhausted) {
+                return false;
+            }
+            final var size = message.getSerializedSize();
+            if (admitted >= params.maxMessages || (size > remaining && remaining < params.maxBytes)) {
+                exhausted = true;
+                return false;
+            }
+            admitted++;
+            remaining -= size;
+            return true;
+        }
+    }
+
+    /**
+     * The buffered messages, held in a ring of buckets by the round they were born
+     * in. A message's age is the current round less its birth round, so aging is
+     * the rotation of the ring, reconciliation reads the buckets youngest first
+     * without sorting, and expiry drops the bucket rotating out of the ring.
+     * Messages are only ever dropped once aged beyond the maximum age, as a live
+     * message dropped before it has reached every member is a message lost.
+     * <p>
+     * The digests of the buffered messages are maintained incrementally in an
+     * invertible Bloom lookup table, which peers exchange to recover the exact
+     * difference of their buffers. A difference too large to recover from the
+     * tables falls back to a Bloom filter of the buffer
+     */
+    class Buffer {
+        private final Map<Digest, state>[] buckets;
+        private final DigestWindow         delivered;
+        private final DigestIblt           digests;
+        private int                        expired;
+        private final Semaphore            garbageCollecting = new Semaphore(1);
+        private final int                  maxAge;
+        private final AtomicInteger        round             = new AtomicInteger();
+        private final Map<Digest, state>   state             = new ConcurrentHashMap<>();
+        final Semaphore                    tickGate          = new Semaphore(1);
+
+        @SuppressWarnings("unchecked")
         public Buffer(int maxAge) {
             this.maxAge = maxAge;
-            highWaterMark = (params.bufferSize - (int) (params.bufferSize + ((params.bufferSize) * 0.1)));
+            buckets = new Map[maxAge + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new ConcurrentHashMap<>();
+            }
+            expired = -buckets.length;
             delivered = new DigestWindow(params.deliveredCacheSize, 3);
+            digests = new DigestIblt(context.getId().fold(), params.reconcileCells, RECONCILE_HASHES,
+                                     params.digestAlgorithm);
         }
 
         public void clear() {
             state.clear();
+            digests.clear();
+            for (var bucket : buckets) {
+                bucket.clear();
+            }
+        }
+
+        /**
+         * Answer the Bloom filter of the buffered messages, for the reconcilliation
+         * of a difference too large to recover from the iblts
+         */
+        public Biff forFallback() {
+            var biff = new DigestBloomFilter(Entropy.nextBitsStreamLong(), Math.max(params.bufferSize, size()),
+                                             params.falsePositiveRate);
+            state.keySet().forEach(h -> biff.add(h));
+            return biff.toBff();
         }
 
-        public BloomFilter<Digest> forReconcilliation() {
-            var biff = new DigestBloomFilter(Entropy.nextBitsStreamLong(), params.bufferSize, params.falsePositiveRate);
-            state.keySet().forEach(k -> biff.add(k));
-            return biff;
+        public Iblt forReconcilliation() {
+            return digests.toIblt();
         }
 
         public void receive(List<AgedMessage> messages) {
@@ -218,12 +351,13 @@ public class ReliableBroadcaster {
                 return;
             }
             log.trace("receiving: {} msgs on: {}", messages.size(), member);
+            final var current = round.get();
             deliver(messages.stream()
-                            .limit(params.maxMessages)
-                            .map(am -> new state(adapter.hasher.apply(am.getContent()), AgedMessage.newBuilder(am)))
-                            .filter(s -> !dup(s))
+                            .takeWhile(new Budget())
+                            .map(am -> new state(adapter.hasher.apply(am.getContent()), am, current - am.getAge()))
+                            .filter(s -> !dup(s, current))
                             .filter(s -> adapter.verifier.test(s.msg.getContent()))
-                            .map(s -> state.merge(s.hash, s, (a, b) -> a.msg.getAge() >= b.msg.getAge() ? a : b))
+                            .map(s -> insert(s))
                             .map(s -> new Msg(adapter.source.apply(s.msg.getContent()), adapter.extractor.apply(s.msg),
                                               s.hash))
                             .filter(m -> delivered.add(m.hash, null))
@@ -231,31 +365,64 @@ public class ReliableBroadcaster {
             gc();
         }
 
-        public Iterable<? extends AgedMessage> reconcile(BloomFilter<Digest> biff, Digest from) {
-            PriorityQueue<AgedMessage.Builder> mailBox = new PriorityQueue<>(Comparator.comparingInt(s -> s.getAge()));
-            state.values()
-                 .stream()
-                 .filter(s -> !biff.contains(s.hash))
-                 .filter(s -> s.msg.getAge() < maxAge)
-                 .forEach(s -> mailBox.add(s.msg));
-            List<AgedMessage> reconciled = mailBox.stream().limit(params.maxMessages).map(b -> b.build()).toList();
+        /**
+         * Answer the buffered messages the Bloom filter of the peer's buffer does not
+         * contain, youngest first
+         */
+        public List<AgedMessage> reconcile(BloomFilter<Digest> biff, Digest from) {
+            var reconciled = new ArrayList<AgedMessage>();
+            youngest(round.get(), d -> biff.contains(d), new Budget(), reconciled);
             if (!reconciled.isEmpty()) {
-                log.trace("reconciled: {} for: {} on: {}", reconciled.size(), from, member);
+                log.trace("reconciled: {} by bff for: {} on: {}", reconciled.size(), from, member);
             }
             return reconciled;
         }
 
+        /**
+         * Answer the buffered messages missing from the peer's iblt, youngest first,
+         * and whether the difference was exactly recovered. If not, the recovered
+         * messages are followed by the youngest of the rest
+         */
+        public Reconciliation reconcile(Iblt sketch, Digest from) {
+            final Difference difference;
+            try {
+                difference = digests.subtract(DigestIblt.from(sketch));
+            } catch (IllegalArgumentException e) {
+                log.debug("Invalid reconcilliation digests from: {} on: {}", from, member.getId(), e);
+                return new Reconciliation(Collections.emptyList(), false);
+            }
+            final var current = round.get();
+            final var budget = new Budget();
+            var reconciled = new ArrayList<AgedMessage>();
+            difference.local()
+                      .stream()
+                      .map(d -> state.get(d))
+                      .filter(s -> s != null && current - s.birth < maxAge)
+                      .sorted(Comparator.comparingInt(s -> -s.birth))
+                      .map(s -> AgedMessage.newBuilder(s.msg).setAge(current - s.birth).build())
+                      .takeWhile(budget)
+                      .forEach(am -> reconciled.add(am));
+            if (!difference.complete() && !budget.exhausted()) {
+                log.trace("Partial reconcilliation: {} from: {} on: {}", difference.local().size(), from, member);
+                final var recovered = new HashSet<>(difference.local());
+                youngest(current, d -> recovered.contains(d), budget, reconciled);
+            }
+            if (!reconciled.isEmpty()) {
+                log.trace("reconciled: {} for: {} on: {}", reconciled.size(), from, member);
+            }
+            return new Reconciliation(reconciled, difference.complete());
+        }
+
         public int round() {
             return round.get();
         }
 
         public AgedMessage send(Any msg, SigningMember member) {
-            AgedMessage.Builder message = AgedMessage.newBuilder().setContent(adapter.wrapper.apply(member, msg));
+            AgedMessage message = AgedMessage.newBuilder().setContent(adapter.wrapper.apply(member, msg)).build();
             var hash = adapter.hasher.apply(message.getContent());
-            state s = new state(hash, message);
-            state.put(hash, s);
+            insert(new state(hash, message, round.get()));
             log.trace("Send message:{} on: {}", hash, member);
-            return s.msg.build();
+            return message;
         }
 
         public int size() {
@@ -263,42 +430,50 @@ public class ReliableBroadcaster {
         }
 
         public void tick() {
-            round.incrementAndGet();
+            final var current = round.incrementAndGet();
             if (!tickGate.tryAcquire()) {
                 log.trace("Unable to acquire tick gate for: {} tick already in progress on: {}", context.getId(),
                           member);
                 return;
             }
             try {
-                var trav = state.entrySet().iterator();
-                while (trav.hasNext()) {
-                    var next = trav.next().getValue();
-                    int age = next.msg.getAge();
-                    if (age >= maxAge) {
-                        trav.remove();
-                        log.trace("GC'ing: {} age: {} > {} on: {}", next.hash, age + 1, maxAge, member.getId());
-                    } else {
-                        next.msg.setAge(age + 1);
-                    }
+                // Catch up with the rounds of the ticks skipped while the gate was held
+                final var through = current - buckets.length;
+                for (int birth = Math.max(expired + 1, through - buckets.length + 1); birth <= through; birth++) {
+                    expire(birth);
                 }
+                expired = through;
             } finally {
                 tickGate.release();
             }
         }
 
-        private boolean dup(state s) {
-            if (s.msg.getAge() > maxAge) {
-                log.trace("Rejecting message too old: {} age: {} > {} on: {}", s.hash, s.msg.getAge(), maxAge,
+        /**
+         * Age the buffered message to the older birth round, moving it to that
+         * round's bucket
+         */
+        void age(state previous, int birth) {
+            final var older = new state(previous.hash, previous.msg, birth);
+            if (state.replace(previous.hash, previous, older)) {
+                bucket(previous.birth).remove(previous.hash, previous);
+                bucket(birth).put(older.hash, older);
+            }
+        }
+
+        Map<Digest, state> bucket(int birth) {
+            return buckets[Math.floorMod(birth, buckets.length)];
+        }
+
+        private boolean dup(state s, int current) {
+            if (current - s.birth > maxAge) {
+                log.trace("Rejecting message too old: {} age: {} > {} on: {}", s.hash, current - s.birth, maxAge,
                           member.getId());
                 return true;
             }
             var previous = state.get(s.hash);
             if (previous != null) {
-                int nextAge = Math.max(previous.msg().getAge(), s.msg.getAge());
-                if (nextAge > maxAge) {
-                    state.remove(s.hash);
-                } else if (previous.msg.getAge() != nextAge) {
-                    previous.msg().setAge(nextAge);
+                if (s.birth < previous.birth) {
+                    age(previous, s.birth);
                 }
                 log.trace("duplicate event: {} on: {}", s.hash, member.getId());
                 return true;
@@ -306,14 +481,31 @@ public class ReliableBroadcaster {
             return delivered.contains(s.hash);
         }
 
+        /**
+         * Drop the messages of the bucket of the birth round, born in or before that
+         * round
+         */
+        private void expire(int birth) {
+            bucket(birth).values().removeIf(s -> {
+                if (s.birth > birth) {
+                    return false;
+                }
+                if (state.remove(s.hash, s)) {
+                    digests.remove(s.hash);
+                }
+                log.trace("GC'ing: {} age: {} > {} on: {}", s.hash, round.get() - s.birth, maxAge, member.getId());
+                return true;
+            });
+        }
+
         private void gc() {
-            if ((size() < highWaterMark) || !garbageCollecting.tryAcquire()) {
+            if ((size() <= params.bufferSize) || !garbageCollecting.tryAcquire()) {
                 return;
             }
             exec.execute(Utils.wrapped(() -> {
                 try {
                     int startSize = state.size();
-                    if (startSize < highWaterMark) {
+                    if (startSize <= params.bufferSize) {
                         return;
                     }
                     log.trace("Compacting buffer: {} size: {} on: {}", context.getId(), startSize, member.getId());
@@ -334,29 +526,65 @@ public class ReliableBroadcaster {
 
         }
 
-        private void purgeTheAged() {
+        /**
+         * Drop every message aged beyond the maximum age, whichever bucket it is
+         * held in. Live messages are retained, even if the buffer remains over its
+         * size
+         */
+        void purgeTheAged() {
             log.debug("Purging the aged of: {} buffer size: {}   on: {}", context.getId(), size(), member.getId());
-            Queue<state> candidates = new PriorityQueue<>(Collections.reverseOrder((a,
-                                                                                    b) -> Integer.compare(a.msg.getAge(),
-                                                                                                          b.msg.getAge())));
-            candidates.addAll(state.values());
-            var processing = candidates.iterator();
-            while (processing.hasNext()) {
-                var m = processing.next();
-                if (m.msg.getAge() > maxAge) {
-                    state.remove(m.hash);
-                    log.trace("GC'ing: {} age: {} > {} on: {}", m.hash, m.msg.getAge() + 1, maxAge, member.getId());
-                } else {
-                    break;
+            final var through = round.get() - buckets.length;
+            for (int birth = through - buckets.length + 1; birth <= through; birth++) {
+                expire(birth);
+            }
+        }
+
+        /**
+         * Insert the message, answering the buffered message
+         */
+        private state insert(state s) {
+            final var existing = state.putIfAbsent(s.hash, s);
+            if (existing != null) {
+                if (s.birth < existing.birth) {
+                    age(existing, s.birth);
                 }
+                return existing;
             }
+            bucket(s.birth).put(s.hash, s);
+            digests.add(s.hash);
+            return s;
         }
 
+        /**
+         * Add the youngest buffered messages, excluding those already reconciled,
+         * until the budget is exhausted
+         */
+        private void youngest(int current, Predicate<Digest> exclude, Budget budget, List<AgedMessage> reconciled) {
+            for (int age = 0; age < maxAge; age++) {
+                for (var s : bucket(current - age).values()) {
+                    if (current - s.birth != age || exclude.test(s.hash)) {
+                        continue;
+                    }
+                    final var aged = AgedMessage.newBuilder(s.msg).setAge(age).build();
+                    if (!budget.test(aged)) {
+                        return;
+                    }
+                    reconciled.add(aged);
+                }
+            }
+        }
     }
 
-    private record state(Digest hash, AgedMessage.Builder msg) {}
+    /**
+     * The messages reconciled for a peer, and whether the difference of the iblts
+     * was exactly recovered
+     */
+    record Reconciliation(List<AgedMessage> updates, boolean exact) {}
+
+    record state(Digest hash, AgedMessage msg, int birth) {}
 
-    private static final Logger log = LoggerFactory.getLogger(ReliableBroadcaster.class);
+    private static final Logger log              = LoggerFactory.getLogger(ReliableBroadcaster.class);
+    private static final int    RECONCILE_HASHES = 3;
 
     public static MessageAdapter defaultMessageAdapter(Context<Member> context, DigestAlgorithm algo) {
         final Predicate<Any> verifier = any -> {
@@ -412,7 +640,7 @@ public class ReliableBroadcaster {
     }
 
     private final MessageAdapter                                   adapter;
-    private final Buffer                                           buffer;
+    final Buffer                                                   buffer;
     private final Map<UUID, MessageHandler>                        channelHandlers = new ConcurrentHashMap<>();
     private final CommonCommunications<ReliableBroadcast, Service> comm;
     private final Context<Member>                                  context;
@@ -530,10 +758,7 @@ public class ReliableBroadcaster {
         log.trace("rbc gossiping[{}] from {} with {} on {}", buffer.round(), member.getId(), link.getMember().getId(),
                   ring);
         try {
-            return link.gossip(MessageBff.newBuilder()
-                                         .setRing(ring)
-                                         .setDigests(buffer.forReconcilliation().toBff())
-                                         .build());
+            return link.gossip(MessageBff.newBuilder().setRing(ring).setIblt(buffer.forReconcilliation()).build());
         } catch (Throwable e) {
             log.trace("rbc gossiping[{}] failed from {} with {} on {}", buffer.round(), member.getId(),
                       link.getMember().getId(), ring, e);
@@ -562,11 +787,15 @@ public class ReliableBroadcaster {
                 return;
             }
             buffer.receive(gossip.getUpdatesList());
+            final var from = destination.member().getId();
+            // The successor falls back to its Bloom filter when the difference of the iblts
+            // cannot be recovered, which is equally unrecoverable here
+            final var updates = gossip.hasDigests() ? buffer.reconcile(BloomFilter.from(gossip.getDigests()), from)
+                                                    : buffer.reconcile(gossip.getIblt(), from).updates();
             destination.link()
                        .update(ReconcileContext.newBuilder()
                                                .setRing(destination.ring())
-                                               .addAllUpdates(buffer.reconcile(BloomFilter.from(gossip.getDigests()),
-                                                                               destination.member().getId()))
+                                               .addAllUpdates(updates)
                                                .build());
         } finally {
             if (timer != null) {
@@ -112,6 +112,7 @@ public class RbcTest {
         }
     }
 
+    @SuppressWarnings("deprecation")
     private static final Parameters.Builder parameters = Parameters.newBuilder()
                                                                    .setMaxMessages(1000)
                                                                    .setFalsePositiveRate(0.00125)
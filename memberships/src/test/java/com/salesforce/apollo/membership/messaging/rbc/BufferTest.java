@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.membership.messaging.rbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.salesfoce.apollo.messaging.proto.AgedMessage;
+import com.salesforce.apollo.archipelago.LocalServer;
+import com.salesforce.apollo.archipelago.Router;
+import com.salesforce.apollo.archipelago.ServerConnectionCache;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+import com.salesforce.apollo.membership.Context;
+import com.salesforce.apollo.membership.ContextImpl;
+import com.salesforce.apollo.membership.Member;
+import com.salesforce.apollo.membership.messaging.rbc.ReliableBroadcaster.MessageAdapter;
+import com.salesforce.apollo.membership.messaging.rbc.ReliableBroadcaster.Parameters;
+import com.salesforce.apollo.membership.stereotomy.ControlledIdentifierMember;
+import com.salesforce.apollo.stereotomy.StereotomyImpl;
+import com.salesforce.apollo.stereotomy.mem.MemKERL;
+import com.salesforce.apollo.stereotomy.mem.MemKeyStore;
+import com.salesforce.apollo.utils.Entropy;
+import com.salesforce.apollo.utils.bloomFilters.BloomFilter;
+import com.salesforce.apollo.utils.bloomFilters.BloomFilter.DigestBloomFilter;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class BufferTest {
+
+    private static final MessageAdapter ADAPTER = new MessageAdapter(any -> true, any -> digest(any),
+                                                                     any -> Collections.emptyList(), (m, any) -> any,
+                                                                     am -> am.getContent());
+
+    private static Digest digest(Any any) {
+        return DigestAlgorithm.DEFAULT.digest(any.toByteString());
+    }
+
+    private ReliableBroadcaster.Buffer buffer;
+    private Router                     comms;
+    private int                        maxAge;
+    private int                        next;
+
+    @AfterEach
+    public void after() {
+        if (comms != null) {
+            comms.close(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    public void ageMovesBucket() throws Exception {
+        build(Parameters.newBuilder());
+        final var current = buffer.round();
+        final var message = message();
+        final var hash = hash(message);
+        buffer.receive(List.of(message.toBuilder().setAge(1).build()));
+        assertTrue(buffer.bucket(current - 1).containsKey(hash));
+
+        // A younger copy does not age the buffered message
+        buffer.receive(List.of(message.toBuilder().setAge(0).build()));
+        assertTrue(buffer.bucket(current - 1).containsKey(hash));
+
+        // An older copy moves it to the bucket of the older birth round
+        buffer.receive(List.of(message.toBuilder().setAge(3).build()));
+        assertFalse(buffer.bucket(current - 1).containsKey(hash));
+        assertEquals(current - 3, buffer.bucket(current - 3).get(hash).birth());
+        assertEquals(1, buffer.size());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void budget() throws Exception {
+        final var from = DigestAlgorithm.DEFAULT.getOrigin();
+        final var none = new DigestBloomFilter(Entropy.nextBitsStreamLong(), 100, 0.000001);
+        final var messages = IntStream.range(0, 10).mapToObj(i -> message()).toList();
+        final var size = messages.get(0).getSerializedSize();
+
+        build(Parameters.newBuilder().setMaxBytes(size * 4));
+        buffer.receive(messages);
+        assertEquals(4, buffer.reconcile(none, from).size());
+
+        // A message larger than the budget is still admitted
+        build(Parameters.newBuilder().setMaxBytes(1));
+        buffer.receive(messages);
+        assertEquals(1, buffer.size());
+        assertEquals(1, buffer.reconcile(none, from).size());
+
+        build(Parameters.newBuilder().setMaxMessages(3));
+        buffer.receive(messages);
+        assertEquals(3, buffer.reconcile(none, from).size());
+    }
+
+    @Test
+    public void expiry() throws Exception {
+        build(Parameters.newBuilder());
+        buffer.receive(List.of(message()));
+        for (int i = 0; i < maxAge; i++) {
+            buffer.tick();
+        }
+        assertEquals(1, buffer.size());
+        buffer.tick();
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void fallback() throws Exception {
+        build(Parameters.newBuilder().setReconcileCells(6));
+        final var from = DigestAlgorithm.DEFAULT.getOrigin();
+        final var empty = buffer.forReconcilliation();
+        final var messages = IntStream.range(0, 20).mapToObj(i -> message()).toList();
+        buffer.receive(messages);
+
+        var reconciliation = buffer.reconcile(buffer.forReconcilliation(), from);
+        assertTrue(reconciliation.exact());
+        assertTrue(reconciliation.updates().isEmpty());
+
+        // The difference is too large to recover from the tables
+        reconciliation = buffer.reconcile(empty, from);
+        assertFalse(reconciliation.exact());
+        assertEquals(messages.size(), reconciliation.updates().size());
+
+        var biff = new DigestBloomFilter(Entropy.nextBitsStreamLong(), 100, 0.000001);
+        messages.subList(0, 10).forEach(m -> biff.add(hash(m)));
+        var expected = messages.subList(10, 20).stream().map(m -> hash(m)).collect(Collectors.toSet());
+        assertEquals(expected,
+                     buffer.reconcile(biff, from).stream().map(m -> hash(m)).collect(Collectors.toSet()));
+
+        assertTrue(buffer.reconcile(BloomFilter.from(buffer.forFallback()), from).isEmpty());
+    }
+
+    @Test
+    public void purgeRetainsLive() throws Exception {
+        build(Parameters.newBuilder().setBufferSize(2));
+        buffer.receive(List.of(message(), message()));
+        assertEquals(2, buffer.size());
+
+        // Skipped ticks leave the aged messages buffered
+        buffer.tickGate.acquire();
+        for (int i = 0; i <= maxAge; i++) {
+            buffer.tick();
+        }
+        buffer.tickGate.release();
+        assertEquals(2, buffer.size());
+
+        // The overflow purges the aged, but retains the live messages
+        final var live = List.of(message(), message(), message());
+        buffer.receive(live);
+        assertEquals(live.size(), buffer.size());
+        for (var m : live) {
+            assertTrue(buffer.bucket(buffer.round()).containsKey(hash(m)));
+        }
+
+        buffer.purgeTheAged();
+        assertEquals(live.size(), buffer.size());
+    }
+
+    @Test
+    public void skippedTick() throws Exception {
+        build(Parameters.newBuilder());
+        buffer.receive(List.of(message()));
+
+        buffer.tickGate.acquire();
+        for (int i = 0; i <= maxAge; i++) {
+            buffer.tick();
+        }
+        buffer.tickGate.release();
+        assertEquals(maxAge + 1, buffer.round());
+        assertEquals(1, buffer.size());
+
+        // The next tick catches up with the expiry of the skipped rounds
+        buffer.tick();
+        assertEquals(0, buffer.size());
+    }
+
+    private void build(Parameters.Builder parameters) throws Exception {
+        after();
+        var entropy = SecureRandom.getInstance("SHA1PRNG");
+        entropy.setSeed(new byte[] { 6, 6, 6 });
+        var stereotomy = new StereotomyImpl(new MemKeyStore(), new MemKERL(DigestAlgorithm.DEFAULT), entropy);
+        var member = new ControlledIdentifierMember(stereotomy.newIdentifier().get());
+        Context<Member> context = new ContextImpl<>(DigestAlgorithm.DEFAULT.getOrigin(), 10, 0.2, 2);
+        context.activate(member);
+        maxAge = context.timeToLive() + 1;
+        var server = new LocalServer(UUID.randomUUID().toString(), member, Runnable::run);
+        comms = server.router(ServerConnectionCache.newBuilder(), Runnable::run);
+        var rbc = new ReliableBroadcaster(context, member, parameters.build(), Runnable::run, comms, null, ADAPTER);
+        buffer = rbc.buffer;
+    }
+
+    private Digest hash(AgedMessage message) {
+        return ADAPTER.hasher().apply(message.getContent());
+    }
+
+    private AgedMessage message() {
+        final var content = BytesValue.of(ByteString.copyFromUtf8("Message: " + next++));
+        return AgedMessage.newBuilder().setContent(Any.pack(content)).build();
+    }
+}
@@ -96,13 +96,11 @@ public class Emulator {
                                                    .setMember(new ControlledIdentifierMember(identifier))
                                                    .setContext(new ContextImpl<>(base, 5, 0.01, 3))
                                                    .build());
-        var algorithm = base.getAlgorithm();
         Session session = new Session(params, st -> {
             lock.lock();
             try {
                 Transaction txn = st.transaction();
-                txnExec.execute(txnIndex.incrementAndGet(), CHOAM.hashOf(txn, algorithm), txn, st.onCompletion(),
-                                r -> r.run());
+                txnExec.execute(txnIndex.incrementAndGet(), st.hash(), txn, st.onCompletion(), r -> r.run());
                 return SubmitResult.newBuilder().setResult(Result.PUBLISHED).build();
             } finally {
                 lock.unlock();
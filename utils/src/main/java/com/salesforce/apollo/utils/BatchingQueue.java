@@ -1,195 +1,318 @@
 package com.salesforce.apollo.utils;
 
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToIntFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A lock free, multi producer, single consumer batching queue. Producers
+ * reserve a slot in the current batch with a single CAS on the batch's packed
+ * count and byte size, and the producer that fills a batch seals it and
+ * installs its successor. The consumer is handed the sealed batch's backing
+ * array as a list, without copying.
+ * <p>
+ * The queue has a capacity of <code>limit</code> batches. Every call to
+ * {@link #take(Duration)} consumes one unit of that capacity, whether or not
+ * events are available.
+ *
+ * @author hal.hildebrand
+ *
+ */
 public class BatchingQueue<T> {
     public class Batch {
-        private int           byteSize;
-        private final List<T> events = new ArrayList<>();
+        private static final long SEALED = 1L << 62;
+
+        private final AtomicInteger committed = new AtomicInteger();
+        private final T[]           events;
+        private final AtomicLong    state     = new AtomicLong();
+
+        @SuppressWarnings("unchecked")
+        private Batch() {
+            events = (T[]) new Object[batchSize];
+        }
 
         public Iterator<T> iterator() {
-            return events.iterator();
+            return getEvents().iterator();
         }
 
         @Override
         public String toString() {
-            return String.format("Batch [bytes=%s, size=%s]", byteSize, events.size());
+            final var s = state.get();
+            return String.format("Batch [bytes=%s, size=%s]", bytes(s), count(s));
         }
 
         List<T> getEvents() {
-            return events;
+            return events(count(state.get()));
         }
 
-        private boolean addEvent(T event) {
-            if (taken == limit) {
-                return false;
+        private int bytes(long s) {
+            return (int) s;
+        }
+
+        private int count(long s) {
+            return (int) ((s & ~SEALED) >>> 32);
+        }
+
+        /**
+         * Answer the first count events, once every producer holding one of those
+         * reservations has stored its event
+         */
+        private List<T> events(int count) {
+            while (committed.get() < count) {
+                Thread.onSpinWait();
             }
-            if (events.size() == batchSize) {
-                if (!reapCurrentBatch()) {
-                    log.trace("rejecting event size: {} added: {} taken: {}", size, added, taken);
-                    return false;
+            return Collections.unmodifiableList(Arrays.asList(events).subList(0, count));
+        }
+
+        private boolean isEmpty() {
+            return count(state.get()) == 0;
+        }
+
+        private boolean isSealed() {
+            return (state.get() & SEALED) != 0;
+        }
+
+        /**
+         * Reserve a slot for an event of the given byte size
+         *
+         * @return the reserved slot, or FULL_BATCH if the batch cannot accept the
+         *         event, or SEALED_BATCH if the batch no longer accepts events
+         */
+        private int reserve(int eventSize) {
+            while (true) {
+                final var s = state.get();
+                if ((s & SEALED) != 0) {
+                    return SEALED_BATCH;
                 }
-            }
-            final var eventSize = sizer.apply(event);
-            if (byteSize + eventSize > maxByteSize) {
-                if (!reapCurrentBatch()) {
-                    log.trace("rejecting event size: {} added: {} taken: {}", size, added, taken);
-                    return false;
+                final var count = count(s);
+                final var bytes = bytes(s);
+                if (count == batchSize || (count > 0 && (long) bytes + eventSize > maxByteSize)) {
+                    return FULL_BATCH;
+                }
+                final long next = ((long) (count + 1) << 32) | ((bytes + eventSize) & 0xFFFFFFFFL);
+                if (state.compareAndSet(s, next)) {
+                    return count;
                 }
             }
+        }
 
-            final var add = events.add(event);
-            if (add) {
-                size = size + 1;
-                byteSize += eventSize;
-                log.trace("adding event: {} size: {} added: {} taken: {}", eventSize, size, added, taken);
+        /**
+         * Close this batch to further reservations.
+         *
+         * @return true if the caller sealed the batch, and thus owns it
+         */
+        private boolean seal() {
+            while (true) {
+                final var s = state.get();
+                if ((s & SEALED) != 0) {
+                    return false;
+                }
+                if (state.compareAndSet(s, s | SEALED)) {
+                    return true;
+                }
             }
-            return add;
-
         }
 
-        private void clear() {
-            events.clear();
-            byteSize = 0;
+        private void set(int slot, T event) {
+            events[slot] = event;
+            committed.incrementAndGet();
         }
     }
 
-    private final static Logger log = LoggerFactory.getLogger(BatchingQueue.class);
+    private final static int    FULL_BATCH   = -1;
+    private final static Logger log          = LoggerFactory.getLogger(BatchingQueue.class);
+    private final static int    SEALED_BATCH = -2;
 
-    private int                                added;
+    private final AtomicInteger                added   = new AtomicInteger(1);
     private final int                          batchSize;
-    private final Batch                        currentBatch;
+    private final AtomicReference<Batch>       current = new AtomicReference<>();
     private final int                          limit;
-    private final ReentrantLock                lock;
-    private final int                          maxByteSize;
-    private final LinkedBlockingQueue<List<T>> oldBatches = new LinkedBlockingQueue<>();
-    private int                                size;
-    private final Function<T, Integer>         sizer;
-    private int                                taken;
-
-    public BatchingQueue(int limit, int batchSize, Function<T, Integer> sizer, int maxByteSize) {
+    private volatile int                       maxByteSize;
+    private final ConcurrentLinkedQueue<Batch> ready   = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger                size    = new AtomicInteger();
+    private final ToIntFunction<T>             sizer;
+    private final AtomicInteger                taken   = new AtomicInteger();
+    private volatile Thread                    waiter;
+
+    public BatchingQueue(int limit, int batchSize, ToIntFunction<T> sizer, int maxByteSize) {
         this.limit = limit;
         this.batchSize = batchSize;
         this.maxByteSize = maxByteSize;
         this.sizer = sizer;
-        this.currentBatch = createNewBatch();
-        lock = new ReentrantLock();
-        added = 1;
-        taken = 0;
+        current.set(new Batch());
     }
 
     public int added() {
-        lock.lock();
-        try {
-            return added;
-        } finally {
-            lock.unlock();
-        }
+        return added.get();
     }
 
+    /**
+     * Reset the queue. Not safe to call concurrently with {@link #offer(Object)}
+     * or {@link #take(Duration)}
+     */
     public void clear() {
-        lock.lock();
-        try {
-            oldBatches.clear();
-            currentBatch.clear();
-            size = 0;
-            added = 1;
-            taken = 0;
-        } finally {
-            lock.unlock();
-        }
+        ready.clear();
+        current.set(new Batch());
+        size.set(0);
+        added.set(1);
+        taken.set(0);
     }
 
     public boolean offer(T event) {
-        lock.lock();
-        try {
-            return currentBatch.addEvent(event);
-        } finally {
-            lock.unlock();
+        if (taken.get() >= limit) {
+            return false;
+        }
+        final var eventSize = sizer.applyAsInt(event);
+        while (true) {
+            final var batch = current.get();
+            final var slot = batch.reserve(eventSize);
+            if (slot >= 0) {
+                final var s = size.incrementAndGet();
+                batch.set(slot, event);
+                log.trace("adding event: {} size: {} added: {} taken: {}", eventSize, s, added, taken);
+                return true;
+            }
+            if (slot == SEALED_BATCH) {
+                // the owner of the sealed batch is installing its successor
+                if (current.get() == batch) {
+                    Thread.onSpinWait();
+                }
+            } else if (!reap(batch)) {
+                log.trace("rejecting event size: {} added: {} taken: {}", size, added, taken);
+                return false;
+            }
         }
     }
 
+    /**
+     * Set the maximum byte size of the batches. Applies to the current batch and
+     * those that follow
+     */
+    public void setMaxByteSize(int maxByteSize) {
+        this.maxByteSize = maxByteSize;
+    }
+
     public int size() {
-        lock.lock();
-        try {
-            return size;
-        } finally {
-            lock.unlock();
-        }
+        return size.get();
     }
 
+    /**
+     * Take the next batch of events, waiting up to the timeout for a full batch
+     * if none is available. The returned list is a view of the batch and must
+     * not be modified.
+     *
+     * @return the next batch, or null if no events are available or the capacity
+     *         of the queue has been consumed
+     */
     public List<T> take(Duration timeout) throws InterruptedException {
-        lock.lock();
-        try {
-            if (taken == limit) {
-                log.trace("Batch limit achieved size: {} added: {} taken: {}", size, added, taken);
-                return null;
-            }
-            List<T> batch;
-            if (oldBatches.isEmpty() && !currentBatch.events.isEmpty()) {
-                batch = new ArrayList<>(currentBatch.events);
-                currentBatch.clear();
-                size -= batch.size();
-                added++;
-                taken++;
-                log.trace("Taking events: {} new size: {} added: {} taken: {}", batch.size(), size, added, taken);
-                return batch;
-            }
-            taken++;
-        } finally {
-            lock.unlock();
+        if (taken.get() >= limit) {
+            log.trace("Batch limit achieved size: {} added: {} taken: {}", size, added, taken);
+            return null;
         }
-
-        List<T> batch = oldBatches.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
-        lock.lock();
-        try {
-            if (batch == null) {
+        var batch = ready.poll();
+        if (batch == null && (batch = takeCurrent()) == null) {
+            taken.incrementAndGet();
+            batch = await(timeout);
+            if (batch == null && (batch = takeCurrent()) == null) {
                 log.trace("No events to take, size: {} added: {} taken: {}", size, added, taken);
                 return null;
             }
-            size -= batch.size();
-            log.trace("Taking events: {} new size: {} added: {} taken: {}", batch.size(), size, added, taken);
-            return batch;
-        } finally {
-            lock.unlock();
+        } else {
+            taken.incrementAndGet();
         }
+        final var events = batch.getEvents();
+        final var s = size.addAndGet(-events.size());
+        log.trace("Taking events: {} new size: {} added: {} taken: {}", events.size(), s, added, taken);
+        return events;
     }
 
     public int taken() {
-        lock.lock();
-        try {
-            return taken;
-        } finally {
-            lock.unlock();
-        }
+        return taken.get();
     }
 
     Batch getCurrentBatch() {
-        return currentBatch;
+        return current.get();
     }
 
-    private Batch createNewBatch() {
-        return new Batch();
+    private Batch await(Duration timeout) throws InterruptedException {
+        final var deadline = System.nanoTime() + timeout.toNanos();
+        waiter = Thread.currentThread();
+        try {
+            while (true) {
+                final var batch = ready.poll();
+                if (batch != null) {
+                    return batch;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                final var remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiter = null;
+        }
     }
 
-    private boolean reapCurrentBatch() {
-        if (added >= limit || taken == limit) {
-            return false;
+    /**
+     * Seal the full batch and install its successor, if the capacity of the
+     * queue allows
+     *
+     * @return true if the caller should retry its offer, false if the offer must
+     *         be rejected
+     */
+    private boolean reap(Batch full) {
+        int a;
+        do {
+            if (current.get() != full) {
+                return true;
+            }
+            a = added.get();
+            if (a >= limit || taken.get() >= limit) {
+                return false;
+            }
+        } while (!added.compareAndSet(a, a + 1));
+
+        if (!full.seal()) {
+            // Lost the race to another producer or the consumer, who now installs the
+            // successor
+            added.decrementAndGet();
+            return true;
+        }
+        current.set(new Batch());
+        ready.offer(full);
+        final var w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
         }
+        return true;
+    }
 
-        oldBatches.offer(new ArrayList<>(currentBatch.events));
-        added++;
-        currentBatch.clear();
-        return added <= limit;
+    /**
+     * Seal and answer the current batch if it has events, installing its
+     * successor
+     */
+    private Batch takeCurrent() {
+        final var batch = current.get();
+        if (batch.isEmpty() || batch.isSealed() || !batch.seal()) {
+            return null;
+        }
+        current.set(new Batch());
+        added.incrementAndGet();
+        return batch;
     }
 }
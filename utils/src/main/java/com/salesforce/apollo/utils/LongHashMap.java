@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.utils;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * An open addressing hash map keyed by primitive longs, using linear probing
+ * and backward shift deletion. Keys are not boxed and entries are not
+ * allocated. Values may not be null.
+ * <p>
+ * Not thread safe.
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class LongHashMap<V> {
+
+    @FunctionalInterface
+    public interface LongObjConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long  PHI         = 0x9E3779B97F4A7C15L;
+
+    private long[]   keys;
+    private int      mask;
+    private int      size;
+    private int      threshold;
+    private Object[] values;
+
+    public LongHashMap() {
+        this(16);
+    }
+
+    public LongHashMap(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    public V computeIfAbsent(long key, LongFunction<? extends V> mapping) {
+        var value = get(key);
+        if (value == null) {
+            value = mapping.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public void forEach(LongObjConsumer<? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            @SuppressWarnings("unchecked")
+            final var value = (V) values[i];
+            if (value != null) {
+                action.accept(keys[i], value);
+            }
+        }
+    }
+
+    public void forEachValue(Consumer<? super V> action) {
+        forEach((k, v) -> action.accept(v));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = index(key);; i = (i + 1) & mask) {
+            final var value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        int i = index(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final var previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = index(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final var removed = (V) values[i];
+                shift(i);
+                size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int capacityFor(int expected) {
+        final var needed = (int) Math.min(1 << 30, Math.max(4L, (long) Math.ceil(expected / LOAD_FACTOR)));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private int index(long key) {
+        final var h = key * PHI;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Close the gap at the slot by shifting back the entries of the following
+     * probe sequence that may occupy it
+     */
+    private void shift(int gap) {
+        for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            final var home = index(keys[j]);
+            final var movable = j > gap ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.utils.bloomFilters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.salesfoce.apollo.utils.proto.Iblt;
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * An invertible Bloom lookup table of Digests. Digests are added and removed
+ * incrementally, and the table of a peer with the same seed, size and
+ * algorithm may be subtracted to recover the exact symmetric difference of the
+ * two sets, provided the difference is small enough relative to the table's
+ * cells to peel.
+ * <p>
+ * The cells are partitioned into k equal sub tables, and each digest occupies
+ * one cell of each
+ *
+ * @author hal.hildebrand
+ *
+ */
+public class DigestIblt {
+
+    /**
+     * The symmetric difference of two tables. Local digests are present only in
+     * the subtracted from table, remote digests only in the subtracted table.
+     * Complete if the difference was entirely recovered
+     */
+    public record Difference(List<Digest> local, List<Digest> remote, boolean complete) {}
+
+    private static final long CHECK = 0x6A09E667F3BCC909L;
+    private static final long PHI   = 0x9E3779B97F4A7C15L;
+
+    public static DigestIblt from(Iblt iblt) {
+        final var algorithm = DigestAlgorithm.fromDigestCode(iblt.getType());
+        final var k = iblt.getK();
+        final var cells = iblt.getCountsCount();
+        if (k <= 0 || cells == 0 || cells % k != 0 || iblt.getChecksCount() != cells ||
+            iblt.getKeysCount() != cells * algorithm.longLength()) {
+            throw new IllegalArgumentException("Invalid iblt");
+        }
+        final var table = new DigestIblt(iblt.getSeed(), cells, k, algorithm);
+        for (int i = 0; i < cells; i++) {
+            table.counts[i] = iblt.getCounts(i);
+            table.checks[i] = iblt.getChecks(i);
+        }
+        for (int i = 0; i < table.keys.length; i++) {
+            table.keys[i] = iblt.getKeys(i);
+        }
+        return table;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private final DigestAlgorithm algorithm;
+    private final long[]          checks;
+    private final int[]           counts;
+    private final int             k;
+    private final long[]          keys;
+    private final int             partition;
+    private final long            seed;
+    private final int             width;
+
+    /**
+     * @param seed      - the seed of the cell and check hashes, which must be
+     *                  shared by the peers that exchange tables
+     * @param cells     - the number of cells, rounded down to a multiple of k
+     * @param k         - the number of cells each digest occupies
+     * @param algorithm - the algorithm of the digests
+     */
+    public DigestIblt(long seed, int cells, int k, DigestAlgorithm algorithm) {
+        if (k <= 0 || cells < k) {
+            throw new IllegalArgumentException("Require at least k: " + k + " cells: " + cells);
+        }
+        this.seed = seed;
+        this.k = k;
+        this.algorithm = algorithm;
+        partition = cells / k;
+        width = algorithm.longLength();
+        counts = new int[partition * k];
+        checks = new long[counts.length];
+        keys = new long[counts.length * width];
+    }
+
+    public synchronized void add(Digest digest) {
+        update(keyOf(digest), 1);
+    }
+
+    public int cells() {
+        return counts.length;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(checks, 0);
+        Arrays.fill(keys, 0);
+    }
+
+    public synchronized boolean isEmpty() {
+        for (int i = 0; i < counts.length; i++) {
+            if (!empty(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void remove(Digest digest) {
+        update(keyOf(digest), -1);
+    }
+
+    /**
+     * Answer the symmetric difference between this table and the other
+     *
+     * @throws IllegalArgumentException if the tables do not share seed, shape and
+     *                                  algorithm
+     */
+    public Difference subtract(DigestIblt other) {
+        if (seed != other.seed || k != other.k || counts.length != other.counts.length ||
+            algorithm != other.algorithm) {
+            throw new IllegalArgumentException("Incompatible iblt");
+        }
+        final var difference = new DigestIblt(seed, counts.length, k, algorithm);
+        synchronized (this) {
+            System.arraycopy(counts, 0, difference.counts, 0, counts.length);
+            System.arraycopy(checks, 0, difference.checks, 0, checks.length);
+            System.arraycopy(keys, 0, difference.keys, 0, keys.length);
+        }
+        synchronized (other) {
+            for (int i = 0; i < counts.length; i++) {
+                difference.counts[i] -= other.counts[i];
+                difference.checks[i] ^= other.checks[i];
+            }
+            for (int i = 0; i < keys.length; i++) {
+                difference.keys[i] ^= other.keys[i];
+            }
+        }
+        return difference.peel();
+    }
+
+    public synchronized Iblt toIblt() {
+        final var builder = Iblt.newBuilder().setSeed(seed).setK(k).setType(algorithm.digestCode());
+        for (int i = 0; i < counts.length; i++) {
+            builder.addCounts(counts[i]).addChecks(checks[i]);
+        }
+        for (long key : keys) {
+            builder.addKeys(key);
+        }
+        return builder.build();
+    }
+
+    private int cell(long hash, int j) {
+        return j * partition + (int) Long.remainderUnsigned(mix(hash ^ ((j + 1) * PHI)), partition);
+    }
+
+    private boolean empty(int i) {
+        if (counts[i] != 0 || checks[i] != 0) {
+            return false;
+        }
+        for (int w = 0; w < width; w++) {
+            if (keys[i * width + w] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hash(long[] key, int offset) {
+        var h = seed;
+        for (int w = 0; w < width; w++) {
+            h = mix(h ^ key[offset + w]);
+        }
+        return h;
+    }
+
+    private long[] keyOf(Digest digest) {
+        if (digest.getAlgorithm() != algorithm) {
+            throw new IllegalArgumentException("Digest algorithm: " + digest.getAlgorithm() + " is not: " + algorithm);
+        }
+        return digest.getLongs();
+    }
+
+    /**
+     * Recover the entries of the table by repeatedly removing the entry of a pure
+     * cell, one holding a single entry, which may expose further pure cells
+     */
+    private Difference peel() {
+        final var local = new ArrayList<Digest>();
+        final var remote = new ArrayList<Digest>();
+        final var pure = new ArrayDeque<Integer>();
+        for (int i = 0; i < counts.length; i++) {
+            if (pure(i)) {
+                pure.add(i);
+            }
+        }
+        // A peel empties a cell, so a well formed table is peeled in no more peels
+        // than it has cells
+        int peeled = 0;
+        while (!pure.isEmpty() && peeled < counts.length) {
+            final int i = pure.poll();
+            if (!pure(i)) {
+                continue;
+            }
+            peeled++;
+            final var key = Arrays.copyOfRange(keys, i * width, (i + 1) * width);
+            final var sign = counts[i];
+            (sign > 0 ? local : remote).add(new Digest(algorithm, key));
+            update(key, -sign);
+            final var h = hash(key, 0);
+            for (int j = 0; j < k; j++) {
+                final var c = cell(h, j);
+                if (pure(c)) {
+                    pure.add(c);
+                }
+            }
+        }
+        return new Difference(local, remote, isEmpty());
+    }
+
+    private boolean pure(int i) {
+        return (counts[i] == 1 || counts[i] == -1) && checks[i] == mix(hash(keys, i * width) ^ CHECK);
+    }
+
+    private void update(long[] key, int count) {
+        final var h = hash(key, 0);
+        for (int j = 0; j < k; j++) {
+            final var c = cell(h, j);
+            counts[c] += count;
+            checks[c] ^= mix(h ^ CHECK);
+            for (int w = 0; w < width; w++) {
+                keys[c * width + w] ^= key[w];
+            }
+        }
+    }
+}
@@ -7,6 +7,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +32,48 @@ public class BatchingQueueTest {
         assertNotNull(b, "Batch not available");
     }
 
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final var producers = 8;
+        final var perProducer = 1_000;
+        var q = new BatchingQueue<String>(Integer.MAX_VALUE, 100, s -> s.length(), 1024);
+        var exec = Executors.newFixedThreadPool(producers);
+        var start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                final var producer = p;
+                exec.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        assertTrue(q.offer(producer + ":" + i));
+                    }
+                });
+            }
+            start.countDown();
+            var received = new HashSet<String>();
+            var deadline = System.currentTimeMillis() + 30_000;
+            while (received.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+                var batch = q.take(Duration.ofMillis(10));
+                if (batch != null) {
+                    assertTrue(batch.size() <= 100);
+                    for (var e : batch) {
+                        assertNotNull(e);
+                        assertTrue(received.add(e), "Duplicate event: " + e);
+                    }
+                }
+            }
+            assertEquals(producers * perProducer, received.size());
+            assertEquals(0, q.size());
+        } finally {
+            exec.shutdown();
+            exec.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
     @Test
     public void testQueueFull() throws Exception {
         var q = newQ();
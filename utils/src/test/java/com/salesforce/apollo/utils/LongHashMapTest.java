@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class LongHashMapTest {
+
+    @Test
+    public void clear() {
+        var map = new LongHashMap<String>();
+        map.put(1, "one");
+        map.put(2, "two");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        map.put(1, "uno");
+        assertEquals("uno", map.get(1));
+    }
+
+    @Test
+    public void smokin() {
+        var map = new LongHashMap<Long>(4);
+        var reference = new HashMap<Long, Long>();
+        var entropy = new Random(0x666);
+        for (int i = 0; i < 100_000; i++) {
+            // A narrow key range, so that removal shifts through long probe chains
+            long key = entropy.nextInt(2_048) * 0x1_0000_0000L;
+            switch (entropy.nextInt(3)) {
+            case 0:
+                assertEquals(reference.remove(key), map.remove(key));
+                break;
+            default:
+                assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+                break;
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+        var count = new int[1];
+        map.forEach((k, v) -> {
+            assertEquals(reference.get(k), v);
+            count[0]++;
+        });
+        assertEquals(reference.size(), count[0]);
+        assertEquals(reference.size(), map.size());
+    }
+}
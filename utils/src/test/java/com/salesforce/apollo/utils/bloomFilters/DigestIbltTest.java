@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022, salesforce.com, inc.
+ * All rights reserved.
+ * SPDX-License-Identifier: BSD-3-Clause
+ * For full license text, see the LICENSE file in the repo root or https://opensource.org/licenses/BSD-3-Clause
+ */
+package com.salesforce.apollo.utils.bloomFilters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.apollo.crypto.Digest;
+import com.salesforce.apollo.crypto.DigestAlgorithm;
+
+/**
+ * @author hal.hildebrand
+ *
+ */
+public class DigestIbltTest {
+
+    @Test
+    public void overflow() {
+        var entropy = new Random(0x1638);
+        var a = new DigestIblt(0x1638, 90, 3, DigestAlgorithm.DEFAULT);
+        var b = new DigestIblt(0x1638, 90, 3, DigestAlgorithm.DEFAULT);
+        for (int i = 0; i < 500; i++) {
+            a.add(DigestAlgorithm.DEFAULT.random(entropy));
+        }
+        var difference = a.subtract(DigestIblt.from(b.toIblt()));
+        assertFalse(difference.complete());
+    }
+
+    @Test
+    public void smokin() {
+        var entropy = new Random(0x1638);
+        var a = new DigestIblt(0x1638, 300, 3, DigestAlgorithm.DEFAULT);
+        var b = new DigestIblt(0x1638, 300, 3, DigestAlgorithm.DEFAULT);
+
+        List<Digest> common = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            var d = DigestAlgorithm.DEFAULT.random(entropy);
+            common.add(d);
+            a.add(d);
+            b.add(d);
+        }
+        Set<Digest> onlyA = new HashSet<>();
+        for (int i = 0; i < 80; i++) {
+            var d = DigestAlgorithm.DEFAULT.random(entropy);
+            onlyA.add(d);
+            a.add(d);
+        }
+        Set<Digest> onlyB = new HashSet<>();
+        for (int i = 0; i < 70; i++) {
+            var d = DigestAlgorithm.DEFAULT.random(entropy);
+            onlyB.add(d);
+            b.add(d);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            a.remove(common.get(i));
+            b.remove(common.get(i));
+        }
+
+        var difference = a.subtract(DigestIblt.from(b.toIblt()));
+        assertTrue(difference.complete());
+        assertEquals(onlyA, new HashSet<>(difference.local()));
+        assertEquals(onlyB, new HashSet<>(difference.remote()));
+
+        onlyB.forEach(d -> b.remove(d));
+        onlyA.forEach(d -> b.add(d));
+        difference = a.subtract(b);
+        assertTrue(difference.complete());
+        assertTrue(difference.local().isEmpty());
+        assertTrue(difference.remote().isEmpty());
+    }
+}